@@ -0,0 +1,27 @@
+package command;
+
+import exceptions.EmptyListException;
+import exceptions.FlashCLIArgumentException;
+import exceptions.QuizCancelledException;
+import ui.Ui;
+
+import static deck.DeckManager.currentDeck;
+
+/**
+ * Class that handles retrying the questions answered incorrectly in the last quiz of the current Deck.
+ */
+public class CommandAnother extends Command {
+    /**
+     * executes command to quiz only the flashcards answered incorrectly in the last quiz.
+     */
+    @Override
+    public void executeCommand() {
+        try {
+            currentDeck.quizFlashcards(false);
+        } catch (EmptyListException | FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+        } catch (QuizCancelledException e) {
+            Ui.showToUser(e.getMessage());
+        }
+    }
+}
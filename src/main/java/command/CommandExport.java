@@ -0,0 +1,33 @@
+package command;
+
+import static constants.ErrorMessages.EXPORT_USAGE;
+import static deck.DeckManager.exportDecks;
+
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+/**
+ * Command to export the current deck or all decks.
+ *
+ * <p>Writes the decks to a file as a binary backup, which is not read back by {@code import}.
+ * Displays either the success message or an error message based on the result.</p>
+ */
+public class CommandExport extends Command {
+    private final String arguments;
+
+    public CommandExport(String arguments) {
+        this.arguments = arguments;
+    }
+
+    /**
+     * Executes the command to export decks and shows the result to the user.
+     */
+    public void executeCommand() {
+        try {
+            Ui.showToUser(exportDecks(arguments));
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(EXPORT_USAGE);
+        }
+    }
+}
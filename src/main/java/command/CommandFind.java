@@ -0,0 +1,26 @@
+package command;
+
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+import static constants.ErrorMessages.FIND_USAGE;
+import static deck.DeckManager.currentDeck;
+
+public class CommandFind extends Command {
+    private final String arguments;
+
+    public CommandFind(String arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void executeCommand() {
+        try {
+            String output = currentDeck.findFlashcards(arguments);
+            Ui.showToUser(output);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(FIND_USAGE);
+        }
+    }
+}
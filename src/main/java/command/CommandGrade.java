@@ -0,0 +1,35 @@
+package command;
+
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+import static constants.ErrorMessages.GRADE_USAGE;
+import static deck.DeckManager.currentDeck;
+
+/**
+ * Command to grade a file of learner answers against the current deck.
+ *
+ * <p>Writes a score per learner to a file and shows a summary, or an error message if the
+ * files cannot be read or written.</p>
+ */
+public class CommandGrade extends Command {
+    private final String arguments;
+
+    public CommandGrade(String arguments) {
+        this.arguments = arguments;
+    }
+
+    /**
+     * Executes the command to grade the answer file and shows the summary to the user.
+     */
+    @Override
+    public void executeCommand() {
+        try {
+            String output = currentDeck.gradeAnswers(arguments);
+            Ui.showToUser(output);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(GRADE_USAGE);
+        }
+    }
+}
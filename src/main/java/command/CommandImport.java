@@ -0,0 +1,26 @@
+package command;
+
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+import static constants.ErrorMessages.IMPORT_USAGE;
+import static deck.DeckManager.currentDeck;
+
+public class CommandImport extends Command {
+    private final String arguments;
+
+    public CommandImport(String arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void executeCommand() {
+        try {
+            String output = currentDeck.importFlashcards(arguments);
+            Ui.showToUser(output);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(IMPORT_USAGE);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package command;
+
+import exceptions.EmptyListException;
+import exceptions.FlashCLIArgumentException;
+import exceptions.QuizCancelledException;
+import ui.Ui;
+
+import static deck.DeckManager.currentDeck;
+
+/**
+ * Class that handles studying the current Deck with Leitner boxes.
+ */
+public class CommandLeitner extends Command {
+    /**
+     * executes command to quiz the flashcards in the Leitner boxes due this session.
+     */
+    @Override
+    public void executeCommand() {
+        try {
+            Ui.showToUser(currentDeck.studyLeitnerBoxes());
+        } catch (EmptyListException | FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+        } catch (QuizCancelledException e) {
+            Ui.showToUser(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package command;
+
+import exceptions.EmptyListException;
+import exceptions.FlashCLIArgumentException;
+import exceptions.QuizCancelledException;
+import ui.Ui;
+
+import static constants.ErrorMessages.QUIZ_ALL_USAGE;
+import static deck.DeckManager.quizDecks;
+
+/**
+ * Class that handles quizzing several decks at once, with their flashcards interleaved.
+ */
+public class CommandQuizAll extends Command {
+    private final String arguments;
+
+    public CommandQuizAll(String arguments) {
+        this.arguments = arguments;
+    }
+
+    /**
+     * executes command to quiz the named decks, or every deck if none is named.
+     */
+    @Override
+    public void executeCommand() {
+        try {
+            Ui.showToUser(quizDecks(arguments));
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(QUIZ_ALL_USAGE);
+        } catch (EmptyListException e) {
+            Ui.showError(e.getMessage());
+        } catch (QuizCancelledException e) {
+            Ui.showToUser(e.getMessage());
+        }
+    }
+}
@@ -1,22 +1,63 @@
 package command;
 
+import deck.Deck;
+import deck.QuizSession;
 import exceptions.EmptyListException;
+import exceptions.FlashCLIArgumentException;
 import exceptions.QuizCancelledException;
 import ui.Ui;
 
+import java.util.SplittableRandom;
+
+import static constants.ErrorMessages.QUIZ_INVALID_SEED;
+import static constants.ErrorMessages.QUIZ_USAGE;
 import static deck.DeckManager.currentDeck;
 
 /**
  * Class that handles quizzing of the current Deck.
  */
 public class CommandQuizFlashcards extends Command{
+    private final String arguments;
+
+    public CommandQuizFlashcards(String arguments) {
+        this.arguments = arguments;
+    }
+
     /**
-     * executes command to quiz all the questions in the deck.
+     * executes command to quiz all the questions in the deck, in the order given by the seed if there is one,
+     * within the time limits given with /t for each question and /total for the whole quiz.
      */
     @Override
     public void executeCommand() {
         try {
-            currentDeck.quizFlashcards(true);
+            long seed = new SplittableRandom().nextLong();
+            long questionLimitNanos = 0;
+            long quizLimitNanos = 0;
+            String[] tokens = arguments.trim().split("\\s+");
+            for (int i = 0; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                case "":
+                    break;
+                case "/t":
+                    questionLimitNanos = QuizSession.parseTimeLimit(tokens, ++i);
+                    break;
+                case "/total":
+                    quizLimitNanos = QuizSession.parseTimeLimit(tokens, ++i);
+                    break;
+                default:
+                    seed = Long.parseLong(tokens[i]);
+                    break;
+                }
+            }
+            QuizSession session = currentDeck.newQuizSession(true, seed);
+            session.setTimeLimits(questionLimitNanos, quizLimitNanos);
+            Deck.quizFlashcards(session);
+        } catch (NumberFormatException e) {
+            Ui.showError(QUIZ_INVALID_SEED);
+            Ui.showError(QUIZ_USAGE);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(QUIZ_USAGE);
         } catch (EmptyListException e) {
             Ui.showError(e.getMessage());
         } catch (QuizCancelledException e) {
@@ -0,0 +1,29 @@
+package command;
+
+import exceptions.EmptyListException;
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+import static constants.ErrorMessages.REVIEW_USAGE;
+import static deck.DeckManager.currentDeck;
+
+public class CommandReview extends Command {
+    private final String arguments;
+
+    public CommandReview(String arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void executeCommand() {
+        try {
+            String output = currentDeck.reviewFlashcards(arguments);
+            Ui.showToUser(output);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(REVIEW_USAGE);
+        } catch (EmptyListException e) {
+            Ui.showError(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package command;
+
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+import static constants.ErrorMessages.SEARCH_USAGE;
+import static deck.DeckManager.currentDeck;
+
+public class CommandSearch extends Command {
+    private final String arguments;
+
+    public CommandSearch(String arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void executeCommand() {
+        try {
+            String output = currentDeck.searchFlashcards(arguments);
+            Ui.showToUser(output);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+            Ui.showError(SEARCH_USAGE);
+        }
+    }
+}
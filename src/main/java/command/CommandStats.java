@@ -0,0 +1,38 @@
+package command;
+
+import exceptions.FlashCLIArgumentException;
+import ui.Ui;
+
+import static constants.ErrorMessages.STATS_USAGE;
+import static constants.ErrorMessages.VIEW_INVALID_INDEX;
+import static constants.ErrorMessages.VIEW_OUT_OF_BOUNDS;
+import static deck.DeckManager.currentDeck;
+
+/**
+ * Class that handles showing the practice statistics of the deck or of one flashcard
+ */
+public class CommandStats extends Command {
+    private final String arguments;
+
+    public CommandStats(String arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void executeCommand() {
+        try {
+            if (arguments.isBlank()) {
+                Ui.showToUser(currentDeck.showStatistics());
+            } else {
+                Ui.showToUser(currentDeck.showFlashcardStatistics(Integer.parseInt(arguments.trim())));
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            Ui.showError(VIEW_OUT_OF_BOUNDS);
+        } catch (NumberFormatException e) {
+            Ui.showError(VIEW_INVALID_INDEX);
+            Ui.showError(STATS_USAGE);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+        }
+    }
+}
@@ -13,11 +13,26 @@ public class CommandConstants {
     public static final String LIST = "list";
     public static final String DELETE = "delete";
     public static final String QUIZ = "quiz";
+    public static final String QUIZ_ALL = "quiz_all";
+    public static final String LEITNER = "leitner";
     public static final String NEW_DECK = "new";
     public static final String SWITCH_DECK = "select";
     public static final String RENAME_DECK = "rename";
     public static final String VIEW_DECKS = "decks";
     public static final String INSERT_CODE = "insert_code";
     public static final String VIEW_RES = "view_res";
+    public static final String REVIEW = "review";
+    public static final String STATS = "stats";
+    public static final String SEARCH = "search";
+    public static final String FIND = "find";
+    public static final String IMPORT = "import";
+    public static final String EXPORT = "export";
+    public static final String GRADE = "grade";
     public static final String ANOTHER = "another";
+
+    public static final String QUESTION_FLAG = "q";
+    public static final String ANSWER_FLAG = "a";
+    public static final String CODE_FLAG = "c";
+    public static final String OUTPUT_FLAG = "o";
+    public static final String ALL_FLAG = "all";
 }
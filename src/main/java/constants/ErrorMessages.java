@@ -7,6 +7,7 @@ public class ErrorMessages {
     public static final String CREATE_MISSING_FIELD = "Missing /q or /a in input.";
     public static final String CREATE_MISSING_DESCRIPTION = "Question or Answer cannot be empty.";
     public static final String CREATE_INVALID_ORDER = "/a Answer first /q Question later";
+    public static final String REPEATED_FLAG = "%s can only be given once. Write %s to use it as text.";
     public static final String VIEW_INVALID_INDEX = "Input is not a number";
     public static final String VIEW_OUT_OF_BOUNDS = "Input is out of bounds of current list of flashcards";
     public static final String EDIT_USAGE = "Usage: edit {INDEX} /q {QUESTION} /a {ANSWER}";
@@ -17,17 +18,52 @@ public class ErrorMessages {
     public static final String EMPTY_DECK_NUMBER = "Deck number cannot be left empty.";
     public static final String NO_DECK_TO_SWITCH = "No decks available. Create a deck before selecting.";
     public static final String POSSIBLE_COMMANDS =
-            "Possible commands are: add, view_qn, view_ans, view_res, edit, list, delete, insert_code, quiz" +
+            "Possible commands are: add, view_qn, view_ans, view_res, edit, list, delete, insert_code, " +
+                    "search, find, import, export, quiz, quiz_all, another, leitner, grade, review, stats, " +
                     "new, select, rename, decks and exit";
+    public static final String UNKNOWN_COMMAND = "Unknown command \"%s\". Did you mean %s?";
     public static final String NO_DECK_ERROR = "Select a deck first!";
     public static final String EMPTY_DECK_NAME = "Deck name must not be empty!";
     public static final String DUPLICATE_DECK_NAME = "Deck name already exists!";
     public static final String UNCHANGED_DECK_NAME = "Deck name is unchanged!";
     public static final String NO_SUCH_DECK = "Deck does not exist!";
+    public static final String QUIZ_ALL_NO_SUCH_DECK = "Deck \"%s\" does not exist!";
+    public static final String QUIZ_ALL_USAGE =
+            "Usage: quiz_all [DECK_NAME ...] [SEED] [/t {SECONDS_PER_QUESTION}] [/total {SECONDS}]";
     public static final String NO_DECK_TO_VIEW = "No decks available. Create a deck to start.";
     public static final String INCOMPLETED_QUIZ = "Complete a quiz first";
-    public static final String MISMATCHED_ARRAYS = "Attempted to view Quiz results, but incorrectindexsize, incorrectFlashcarsize, and incorrectAnswersize are mismatched.";
+    public static final String RETRY_NO_MISTAKES = "No mistakes to retry in the last quiz.";
     public static final String INSERT_MISSING_FIELD = "Missing /c in input.";
     public static final String INSERT_MISSING_CODE = "The quiz has not been started or completed yet, no result is available";
     public static final String INSERT_USAGE = "Usage: insert_code {INDEX} /c {CODE_SNIPPET}";
+    public static final String STORAGE_LOAD_ERROR = "Unable to open saved decks in \"%s\": %s%n"
+            + "Fix the data directory, or choose another one with -D%s=DIRECTORY (or %s to run without saving).";
+    public static final String STORAGE_SAVE_ERROR = "Unable to save changes: %s";
+    public static final String DECK_LOAD_ERROR = "Unable to load deck \"%s\" from disk.";
+    public static final String PROGRESS_LOAD_ERROR =
+            "Unable to read the quiz history or Leitner boxes of deck \"%s\": the file is damaged.";
+    public static final String EXPORT_USAGE = "Usage: export [/all] /o {FILE_PATH}\n"
+            + "Writes a binary backup of the current deck, or of all decks with /all. "
+            + "Backups are for safekeeping only: import reads CSV and TSV files, not backups.";
+    public static final String EXPORT_MISSING_FILE = "Missing /o {FILE_PATH}: a binary backup cannot be shown here.";
+    public static final String EXPORT_INVALID_ARGUMENTS = "Only /all and /o {FILE_PATH} are allowed.";
+    public static final String EXPORT_FILE_ERROR = "Unable to export to %s.";
+    public static final String SEARCH_USAGE = "Usage: search {QUERY}";
+    public static final String SEARCH_MISSING_QUERY = "Search query cannot be empty.";
+    public static final String SEARCH_NO_MATCH = "No flashcards match \"%s\".";
+    public static final String FIND_USAGE = "Usage: find {TEXT}";
+    public static final String QUIZ_USAGE = "Usage: quiz [SEED] [/t {SECONDS_PER_QUESTION}] [/total {SECONDS}]";
+    public static final String QUIZ_INVALID_SEED = "Quiz seed must be a whole number.";
+    public static final String QUIZ_INVALID_TIME_LIMIT = "Time limits must be a positive number of seconds.";
+    public static final String STATS_USAGE = "Usage: stats [INDEX]";
+    public static final String REVIEW_USAGE = "Usage: review [LIMIT]";
+    public static final String REVIEW_INVALID_LIMIT = "Review limit must be a positive number.";
+    public static final String IMPORT_USAGE = "Usage: import {FILE_PATH}";
+    public static final String IMPORT_MISSING_FILE = "Missing file to import.";
+    public static final String IMPORT_FILE_ERROR = "Unable to read file \"%s\".";
+    public static final String IMPORT_PARTIAL_ERROR = "Unable to read file \"%s\" past its first rows: "
+            + "%d flashcard(s) read before the error were imported.";
+    public static final String GRADE_USAGE = "Usage: grade {ANSWER_FILE} [/o {SCORE_FILE}]";
+    public static final String GRADE_MISSING_FILE = "Missing answer file to grade.";
+    public static final String GRADE_FILE_ERROR = "Unable to grade answers from \"%s\".";
 }
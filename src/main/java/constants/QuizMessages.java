@@ -10,6 +10,7 @@ public class QuizMessages {
             "Entering quiz mode... get ready!\n" +
             "Type 'exit_quiz' to cancel the quiz and leave at anytime\n" +
             "Cancelling the quiz would not save your results";
+    public static final String QUIZ_SEED = "Question order seed: %d (type '%s' to repeat this order)";
     public static final String QUIZ_END =
             "You finished the test! You took: %s seconds!\n" +
             "Type " + VIEW_RESULTS + " to check your test result";
@@ -18,6 +19,20 @@ public class QuizMessages {
     public static final String QUIZ_CANCEL_MESSAGE = "Quiz stopped! Exiting quiz...";
     public static final String QUIZ_CORRECT = "Correct!";
     public static final String QUIZ_INCORRECT = "Incorrect.";
+    public static final String QUIZ_TIME_LIMITS = "Time limit: %s per question, %s for the whole quiz.";
+    public static final String QUIZ_NO_TIME_LIMIT = "none";
+    public static final String QUIZ_TIMED_OUT = "Time is up for this question! The answer is: %s";
+    public static final String QUIZ_PRESS_ENTER = "Press Enter to continue.";
+    public static final String QUIZ_TIMED_OUT_ANSWER = "(no answer in time)";
+    public static final String QUIZ_TIME_UP = "Time is up for the quiz! %d question(s) left unanswered.";
     public static final String QUIZ_QUESTIONS_LEFT = "You have %s questions left:";
+    public static final String QUIZ_ALL_QUESTION = "[%s] %s";
     public static final String QUIZ_LAST_QUESTION = "You have 1 question left:";
+    public static final String LEITNER_START = "Leitner session %d: studying box(es) %s, %d flashcard(s) due.";
+    public static final String REVIEW_START =
+            "Reviewing due flashcards...\n" +
+            "Type '" + QUIZ_CANCEL + "' to stop reviewing at anytime";
+    public static final String REVIEW_QUESTION = "Flashcard %d:\n%s\n%s";
+    public static final String REVIEW_CORRECT_ANSWER = "The answer is: %s";
+    public static final String REVIEW_NEXT_INTERVAL = "Next review in %d day(s).";
 }
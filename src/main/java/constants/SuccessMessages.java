@@ -23,6 +23,12 @@ public class SuccessMessages {
 
     public static final String LIST_SUCCESS = "List of flashcards:\n%s";
 
+    public static final String SEARCH_SUCCESS = "Found %d flashcard(s) matching \"%s\":\n%s";
+
+    public static final String FIND_SUCCESS = "Found %d flashcard(s) containing \"%s\":\n%s";
+    public static final String FIND_APPROXIMATE_SUCCESS = "No exact matches. "
+            + "Found %d flashcard(s) containing something close to \"%s\":\n%s";
+
     public static final String DELETE_SUCCESS = "Deleted flashcard: %s";
     public static final String CREATE_DECK_SUCCESS = "Deck \"%s\" created, number of decks: %d";
     public static final String SWITCH_DECK_SUCCESS = "Switched to deck \"%s\"";
@@ -32,6 +38,31 @@ public class SuccessMessages {
             "Question: %s\n" +
             "Answer: %s\n" +
             "Code Snippet: %s\n";
+    public static final String IMPORT_SUCCESS = "Imported %d flashcard(s) into deck \"%s\", skipped %d row(s).\n" +
+            "Took %.3f s (%.0f rows/s). You have %d flashcard(s) in your deck.";
+    public static final String GRADE_SUCCESS = "Graded %d answer(s) from %d learner(s) against deck \"%s\", " +
+            "skipped %d row(s).\nTook %.3f s (%.0f rows/s). Scores written to %s.";
+    public static final String EXPORT_SUCCESS = "Exported %d deck(s), %d bytes, to %s.";
+    public static final String REVIEW_SUCCESS = "Reviewed %d flashcard(s), %d correct. Next review is due %s.";
+    public static final String REVIEW_NOTHING_DUE = "No flashcards are due for review. Next review is due %s.";
+    public static final String REVIEW_DUE_NOW = "now";
+    public static final String REVIEW_DUE_IN_HOURS = "in %d hour(s)";
+    public static final String REVIEW_DUE_IN_DAYS = "in %d day(s)";
+    public static final String REVIEW_NONE_SCHEDULED = "never, as there are no flashcards";
+    public static final String STATS_DECK =
+            "Deck \"%s\": %d attempt(s), %.1f%% correct, current streak %d, best streak %d, last practised %s.";
+    public static final String STATS_FLASHCARD =
+            "Flashcard %d: %d attempt(s), %.1f%% correct, current streak %d, last seen %s.";
+    public static final String STATS_NEVER = "never";
+    public static final String QUIZRESULT_ANSWER_TIMES = "Answer times: p50 %s, p90 %s, p99 %s.";
+    public static final String QUIZRESULT_DECK_ANSWER_TIMES = "All %d answers in this deck: p50 %s, p90 %s, p99 %s.";
+    public static final String QUIZRESULT_SLOWEST = "Slowest flashcards:";
+    public static final String QUIZRESULT_SLOW_FLASHCARD = "  %s  %s";
+    public static final String LEITNER_BOXES = "Flashcards in each Leitner box: %s.";
+    public static final String QUIZ_ALL_RESULT =
+            "You got %d of %d questions correct across %d deck(s) in %.1f seconds.";
     public static final String QUIZRESULT_FULL_MARKS = "Great job! You have answered all of questions correctly.";
+    public static final String QUIZRESULT_RETRY_HINT = "Type 'another' to retry the questions you got wrong.";
     public static final String VIEW_QUIZRESULT_SUCCESS = "This is the end of the test report.";
+    public static final String STORAGE_DISABLED = "Running without a data directory, changes will not be saved.";
 }
@@ -0,0 +1,222 @@
+package deck;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * The precomputed form of a flashcard answer that answer matchers grade against.
+ *
+ * <p>The answer is normalized once: lower-cased, with runs of whitespace collapsed to a single
+ * space and trailing sentence punctuation dropped. The key also keeps the sorted distinct
+ * tokens of the answer and the character bitmasks that Myers' bit-parallel edit distance needs,
+ * so grading a reply never has to look at the raw answer again. Tokens are words and runs of
+ * operator and sign characters such as {@code ++} or {@code <=}, so {@code -1} and {@code 1}
+ * never have the same tokens.</p>
+ */
+public final class AnswerKey {
+    /** Longest normalized answer whose bitmasks fit in a single {@code long}. */
+    static final int MAX_BIT_PARALLEL_LENGTH = Long.SIZE;
+    private static final String OPERATOR_CHARACTERS = "+-*/%<>=!&|^~";
+    private static final int SEPARATOR = 0;
+    private static final int WORD = 1;
+    private static final int OPERATOR = 2;
+
+    private final String normalized;
+    private final String[] tokens;
+    private final char[] maskChars;
+    private final long[] masks;
+
+    /**
+     * Precomputes the key of an answer.
+     *
+     * @param answer the answer of the flashcard.
+     */
+    public AnswerKey(String answer) {
+        normalized = normalize(answer);
+        tokens = tokenize(normalized);
+        if (normalized.length() <= MAX_BIT_PARALLEL_LENGTH) {
+            char[] sortedChars = normalized.toCharArray();
+            Arrays.sort(sortedChars);
+            int distinctCount = 0;
+            for (char c : sortedChars) {
+                if (distinctCount == 0 || sortedChars[distinctCount - 1] != c) {
+                    sortedChars[distinctCount++] = c;
+                }
+            }
+            maskChars = Arrays.copyOf(sortedChars, distinctCount);
+            masks = new long[distinctCount];
+            for (int i = 0; i < normalized.length(); i++) {
+                masks[Arrays.binarySearch(maskChars, normalized.charAt(i))] |= 1L << i;
+            }
+        } else {
+            maskChars = new char[0];
+            masks = new long[0];
+        }
+    }
+
+    /**
+     * Returns the normalized answer.
+     *
+     * @return the answer after normalization.
+     */
+    public String getNormalized() {
+        return normalized;
+    }
+
+    /**
+     * Returns the distinct tokens of the normalized answer.
+     *
+     * @return the tokens in sorted order.
+     */
+    public String[] getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Returns whether a normalized reply has exactly the distinct tokens of the answer, in any order.
+     *
+     * <p>Each token of the reply is looked up in the sorted tokens of the answer in place, and the
+     * tokens found are ticked off in a bitmask, so the check does not allocate.</p>
+     *
+     * @param normalizedReply the normalized reply.
+     * @return true if both have the same set of tokens.
+     */
+    boolean hasSameTokens(String normalizedReply) {
+        if (tokens.length == 0) {
+            return false;
+        }
+        if (tokens.length > Long.SIZE) {
+            return Arrays.equals(tokens, tokenize(normalizedReply));
+        }
+        long foundTokens = 0;
+        int start = 0;
+        int tokenKind = SEPARATOR;
+        for (int i = 0; i <= normalizedReply.length(); i++) {
+            int kind = i < normalizedReply.length() ? kindOf(normalizedReply.charAt(i)) : SEPARATOR;
+            if (kind == tokenKind) {
+                continue;
+            }
+            if (tokenKind != SEPARATOR) {
+                int index = findToken(normalizedReply, start, i);
+                if (index < 0) {
+                    return false;
+                }
+                foundTokens |= 1L << index;
+            }
+            start = i;
+            tokenKind = kind;
+        }
+        return Long.bitCount(foundTokens) == tokens.length;
+    }
+
+    /**
+     * Binary searches the sorted tokens for the given region of the reply.
+     */
+    private int findToken(String reply, int start, int end) {
+        int low = 0;
+        int high = tokens.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareRegion(tokens[middle], reply, start, end);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int compareRegion(String token, String reply, int start, int end) {
+        int length = Math.min(token.length(), end - start);
+        for (int i = 0; i < length; i++) {
+            int difference = token.charAt(i) - reply.charAt(start + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return token.length() - (end - start);
+    }
+
+    /**
+     * Returns the bitmask of the positions where a character occurs in the normalized answer.
+     *
+     * @param c the character to look up.
+     * @return bit {@code i} is set if the answer has {@code c} at position {@code i}.
+     */
+    long maskOf(char c) {
+        int index = Arrays.binarySearch(maskChars, c);
+        return index >= 0 ? masks[index] : 0;
+    }
+
+    /**
+     * Normalizes text so that case, spacing and a trailing full stop do not affect grading.
+     *
+     * @param text the text to normalize.
+     * @return the normalized text.
+     */
+    public static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean isPendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                isPendingSpace = normalized.length() > 0;
+            } else {
+                if (isPendingSpace) {
+                    normalized.append(' ');
+                    isPendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        int end = normalized.length();
+        while (end > 0 && isSentencePunctuation(normalized.charAt(end - 1))) {
+            end--;
+        }
+        normalized.setLength(end);
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits normalized text into its sorted distinct tokens, being the runs of letters and digits
+     * and the runs of operator and sign characters. Other punctuation separates tokens.
+     *
+     * @param normalized the normalized text.
+     * @return the tokens in sorted order.
+     */
+    static String[] tokenize(String normalized) {
+        TreeSet<String> distinctTokens = new TreeSet<>();
+        int start = 0;
+        int tokenKind = SEPARATOR;
+        for (int i = 0; i <= normalized.length(); i++) {
+            int kind = i < normalized.length() ? kindOf(normalized.charAt(i)) : SEPARATOR;
+            if (kind == tokenKind) {
+                continue;
+            }
+            if (tokenKind != SEPARATOR) {
+                distinctTokens.add(normalized.substring(start, i));
+            }
+            start = i;
+            tokenKind = kind;
+        }
+        return distinctTokens.toArray(new String[0]);
+    }
+
+    private static int kindOf(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return WORD;
+        }
+        if (OPERATOR_CHARACTERS.indexOf(c) >= 0 || Character.getType(c) == Character.MATH_SYMBOL) {
+            return OPERATOR;
+        }
+        return SEPARATOR;
+    }
+
+    private static boolean isSentencePunctuation(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+}
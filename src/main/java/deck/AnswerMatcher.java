@@ -0,0 +1,68 @@
+package deck;
+
+/**
+ * Decides whether a reply to a flashcard counts as its answer.
+ *
+ * <p>Matchers compare a normalized reply against the {@link AnswerKey} precomputed for the
+ * flashcard, so the answer is never normalized again while grading. Matchers are stateless
+ * and can grade from several threads at once.</p>
+ */
+public interface AnswerMatcher {
+    /** Accepts a reply equal to the answer after normalization. */
+    AnswerMatcher EXACT = (key, normalizedReply) -> key.getNormalized().equals(normalizedReply);
+
+    /**
+     * Accepts a reply with the same distinct words and operators as the answer, in any order.
+     * Word order can carry the meaning, so this is only used when turned on.
+     */
+    AnswerMatcher TOKEN_SET = (key, normalizedReply) -> key.hasSameTokens(normalizedReply);
+
+    /** Accepts a reply within a few typos of the answer, allowing one edit per eight characters. */
+    AnswerMatcher TYPO_TOLERANT = new EditDistanceMatcher(8, 3);
+
+    /** The matcher decks grade with unless told otherwise. */
+    AnswerMatcher DEFAULT = anyOf(EXACT, TYPO_TOLERANT);
+
+    /** Accepts what {@link #DEFAULT} does, and also the words of the answer in any order. */
+    AnswerMatcher ANY_WORD_ORDER = anyOf(EXACT, TYPO_TOLERANT, TOKEN_SET);
+
+    /** The system property that makes decks accept the words of an answer in any order when {@code true}. */
+    String ANY_WORD_ORDER_PROPERTY = "flashcli.anyWordOrder";
+
+    /**
+     * Returns the matcher new decks grade with, {@link #ANY_WORD_ORDER} if turned on with
+     * {@value #ANY_WORD_ORDER_PROPERTY} and {@link #DEFAULT} otherwise.
+     *
+     * @return the configured matcher.
+     */
+    static AnswerMatcher configured() {
+        return Boolean.getBoolean(ANY_WORD_ORDER_PROPERTY) ? ANY_WORD_ORDER : DEFAULT;
+    }
+
+    /**
+     * Returns whether the reply counts as the answer.
+     *
+     * @param key             the precomputed answer of the flashcard.
+     * @param normalizedReply the reply, normalized with {@link AnswerKey#normalize(String)}.
+     * @return true if the reply is accepted.
+     */
+    boolean matches(AnswerKey key, String normalizedReply);
+
+    /**
+     * Returns a matcher that accepts a reply if any of the given matchers does, trying them in order.
+     *
+     * @param matchers the matchers to combine, cheapest first.
+     * @return the combined matcher.
+     */
+    static AnswerMatcher anyOf(AnswerMatcher... matchers) {
+        AnswerMatcher[] combined = matchers.clone();
+        return (key, normalizedReply) -> {
+            for (AnswerMatcher matcher : combined) {
+                if (matcher.matches(key, normalizedReply)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
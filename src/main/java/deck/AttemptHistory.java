@@ -0,0 +1,231 @@
+package deck;
+
+import java.util.Arrays;
+
+/**
+ * An append-only log of every answer given to the flashcards of a deck, stored by column.
+ *
+ * <p>Each attempt is a row of flashcard id, time, correctness, latency and the answer given.
+ * Every column is a primitive array, correctness is a bitset and all answers share a single
+ * {@code char[]}, so an attempt costs a few dozen bytes and no object of its own. Rows are
+ * never changed once written, which lets {@link #freeze()} hand a consistent prefix of the
+ * log to a background writer without copying it.</p>
+ *
+ * <p>Statistics per flashcard and for the whole deck are updated as each attempt is appended,
+ * so reading them is O(1) however long the log grows.</p>
+ */
+public class AttemptHistory {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private int[] flashcardIds;
+    private long[] times;
+    private int[] latencyMillis;
+    private long[] correctBits;
+    private int[] answerEnds;
+    private char[] answerChars;
+    private final boolean isFrozen;
+
+    private int[] cardAttempts = new int[0];
+    private int[] cardCorrect = new int[0];
+    private int[] cardStreaks = new int[0];
+    private long[] cardLastSeen = new long[0];
+    private int correctCount;
+    private int streak;
+    private int bestStreak;
+    private long lastSeen;
+
+    /**
+     * Creates an empty history.
+     */
+    public AttemptHistory() {
+        flashcardIds = new int[INITIAL_CAPACITY];
+        times = new long[INITIAL_CAPACITY];
+        latencyMillis = new int[INITIAL_CAPACITY];
+        correctBits = new long[1];
+        answerEnds = new int[INITIAL_CAPACITY];
+        answerChars = new char[INITIAL_CAPACITY * 8];
+        isFrozen = false;
+    }
+
+    private AttemptHistory(AttemptHistory history) {
+        size = history.size;
+        flashcardIds = history.flashcardIds;
+        times = history.times;
+        latencyMillis = history.latencyMillis;
+        correctBits = Arrays.copyOf(history.correctBits, wordCount(size));
+        answerEnds = history.answerEnds;
+        answerChars = history.answerChars;
+        isFrozen = true;
+    }
+
+    /**
+     * Appends an attempt and updates the statistics.
+     *
+     * @param flashcardId  the id of the flashcard answered.
+     * @param time         when the answer was given, in epoch milliseconds.
+     * @param isCorrect    whether the answer was accepted.
+     * @param latencyNanos how long the answer took, in nanoseconds.
+     * @param answer       the answer given.
+     */
+    public void append(int flashcardId, long time, boolean isCorrect, long latencyNanos, String answer) {
+        assert !isFrozen : "A frozen history is read-only";
+        if (size == flashcardIds.length) {
+            int capacity = size * 2;
+            flashcardIds = Arrays.copyOf(flashcardIds, capacity);
+            times = Arrays.copyOf(times, capacity);
+            latencyMillis = Arrays.copyOf(latencyMillis, capacity);
+            answerEnds = Arrays.copyOf(answerEnds, capacity);
+        }
+        if (wordCount(size + 1) > correctBits.length) {
+            correctBits = Arrays.copyOf(correctBits, correctBits.length * 2);
+        }
+        int answerStart = size == 0 ? 0 : answerEnds[size - 1];
+        if (answerStart + answer.length() > answerChars.length) {
+            answerChars = Arrays.copyOf(answerChars, Math.max(answerChars.length * 2, answerStart + answer.length()));
+        }
+
+        flashcardIds[size] = flashcardId;
+        times[size] = time;
+        latencyMillis[size] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, latencyNanos / 1_000_000));
+        if (isCorrect) {
+            correctBits[size >>> 6] |= 1L << size;
+        }
+        answer.getChars(0, answer.length(), answerChars, answerStart);
+        answerEnds[size] = answerStart + answer.length();
+        size++;
+        updateStatistics(flashcardId, time, isCorrect);
+    }
+
+    /**
+     * Returns a read-only view of the attempts appended so far, which later appends do not affect.
+     *
+     * @return the frozen view, without statistics.
+     */
+    public AttemptHistory freeze() {
+        return new AttemptHistory(this);
+    }
+
+    /**
+     * Returns the number of attempts.
+     *
+     * @return the attempt count.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getFlashcardId(int row) {
+        return flashcardIds[checkedRow(row)];
+    }
+
+    public long getTime(int row) {
+        return times[checkedRow(row)];
+    }
+
+    public boolean isCorrect(int row) {
+        return (correctBits[checkedRow(row) >>> 6] & (1L << row)) != 0;
+    }
+
+    public int getLatencyMillis(int row) {
+        return latencyMillis[checkedRow(row)];
+    }
+
+    public String getAnswer(int row) {
+        int start = checkedRow(row) == 0 ? 0 : answerEnds[row - 1];
+        return new String(answerChars, start, answerEnds[row] - start);
+    }
+
+    /**
+     * Returns the number of correct attempts in the whole deck.
+     *
+     * @return the correct attempt count.
+     */
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    /**
+     * Returns the number of correct answers in a row up to the latest attempt in the deck.
+     *
+     * @return the current streak.
+     */
+    public int getStreak() {
+        return streak;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    /**
+     * Returns when the deck was last practised.
+     *
+     * @return the time of the latest attempt in epoch milliseconds, or 0 if there is none.
+     */
+    public long getLastSeen() {
+        return lastSeen;
+    }
+
+    public int getAttempts(int flashcardId) {
+        return flashcardId < cardAttempts.length ? cardAttempts[flashcardId] : 0;
+    }
+
+    public int getCorrectCount(int flashcardId) {
+        return flashcardId < cardCorrect.length ? cardCorrect[flashcardId] : 0;
+    }
+
+    /**
+     * Returns the number of correct answers in a row up to the latest attempt at a flashcard.
+     *
+     * @param flashcardId the id of the flashcard.
+     * @return the current streak of the flashcard.
+     */
+    public int getStreak(int flashcardId) {
+        return flashcardId < cardStreaks.length ? cardStreaks[flashcardId] : 0;
+    }
+
+    /**
+     * Returns when a flashcard was last answered.
+     *
+     * @param flashcardId the id of the flashcard.
+     * @return the time of its latest attempt in epoch milliseconds, or 0 if there is none.
+     */
+    public long getLastSeen(int flashcardId) {
+        return flashcardId < cardLastSeen.length ? cardLastSeen[flashcardId] : 0;
+    }
+
+    private void updateStatistics(int flashcardId, long time, boolean isCorrect) {
+        if (flashcardId >= cardAttempts.length) {
+            int capacity = Math.max(flashcardId + 1, cardAttempts.length * 2);
+            cardAttempts = Arrays.copyOf(cardAttempts, capacity);
+            cardCorrect = Arrays.copyOf(cardCorrect, capacity);
+            cardStreaks = Arrays.copyOf(cardStreaks, capacity);
+            cardLastSeen = Arrays.copyOf(cardLastSeen, capacity);
+        }
+        cardAttempts[flashcardId]++;
+        cardLastSeen[flashcardId] = Math.max(cardLastSeen[flashcardId], time);
+        lastSeen = Math.max(lastSeen, time);
+        if (isCorrect) {
+            cardCorrect[flashcardId]++;
+            cardStreaks[flashcardId]++;
+            correctCount++;
+            streak++;
+            bestStreak = Math.max(bestStreak, streak);
+        } else {
+            cardStreaks[flashcardId] = 0;
+            streak = 0;
+        }
+    }
+
+    private int checkedRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Attempt out of range: " + row);
+        }
+        return row;
+    }
+
+    private static int wordCount(int bitCount) {
+        return (bitCount + Long.SIZE - 1) / Long.SIZE;
+    }
+}
@@ -4,16 +4,31 @@ import exceptions.EmptyListException;
 import exceptions.FlashCLIArgumentException;
 import exceptions.QuizCancelledException;
 
-import static constants.CommandConstants.ANOTHER;
+import static constants.CommandConstants.ANSWER_FLAG;
+import static constants.CommandConstants.CODE_FLAG;
+import static constants.CommandConstants.OUTPUT_FLAG;
+import static constants.CommandConstants.QUIZ;
+import static constants.CommandConstants.QUESTION_FLAG;
 import static constants.ErrorMessages.CREATE_INVALID_ORDER;
 import static constants.ErrorMessages.CREATE_MISSING_DESCRIPTION;
 import static constants.ErrorMessages.CREATE_MISSING_FIELD;
 import static constants.ErrorMessages.EMPTY_LIST;
+import static constants.ErrorMessages.GRADE_FILE_ERROR;
+import static constants.ErrorMessages.GRADE_MISSING_FILE;
+import static constants.ErrorMessages.IMPORT_FILE_ERROR;
+import static constants.ErrorMessages.IMPORT_MISSING_FILE;
+import static constants.ErrorMessages.IMPORT_PARTIAL_ERROR;
 import static constants.ErrorMessages.INSERT_MISSING_CODE;
 import static constants.ErrorMessages.INSERT_MISSING_FIELD;
+import static constants.ErrorMessages.PROGRESS_LOAD_ERROR;
+import static constants.ErrorMessages.SEARCH_MISSING_QUERY;
+import static constants.ErrorMessages.SEARCH_NO_MATCH;
 import static constants.ErrorMessages.VIEW_OUT_OF_BOUNDS;
 import static constants.ErrorMessages.INCOMPLETED_QUIZ;
-import static constants.ErrorMessages.MISMATCHED_ARRAYS;
+import static constants.ErrorMessages.RETRY_NO_MISTAKES;
+import static constants.ErrorMessages.REVIEW_INVALID_LIMIT;
+import static constants.QuizMessages.LEITNER_START;
+import static constants.QuizMessages.QUIZ_ALL_QUESTION;
 import static constants.QuizMessages.QUIZ_CANCEL;
 import static constants.QuizMessages.QUIZ_CANCEL_MESSAGE;
 import static constants.QuizMessages.QUIZ_CORRECT;
@@ -22,23 +37,72 @@ import static constants.QuizMessages.QUIZ_INCORRECT;
 import static constants.QuizMessages.QUIZ_LAST_QUESTION;
 import static constants.QuizMessages.QUIZ_NO_ANSWER_DETECTED;
 import static constants.QuizMessages.QUIZ_QUESTIONS_LEFT;
+import static constants.QuizMessages.QUIZ_SEED;
+import static constants.QuizMessages.QUIZ_NO_TIME_LIMIT;
+import static constants.QuizMessages.QUIZ_PRESS_ENTER;
 import static constants.QuizMessages.QUIZ_START;
+import static constants.QuizMessages.QUIZ_TIME_LIMITS;
+import static constants.QuizMessages.QUIZ_TIMED_OUT;
+import static constants.QuizMessages.QUIZ_TIMED_OUT_ANSWER;
+import static constants.QuizMessages.QUIZ_TIME_UP;
+import static constants.QuizMessages.REVIEW_CORRECT_ANSWER;
+import static constants.QuizMessages.REVIEW_NEXT_INTERVAL;
+import static constants.QuizMessages.REVIEW_QUESTION;
+import static constants.QuizMessages.REVIEW_START;
 import static constants.SuccessMessages.CREATE_SUCCESS;
 import static constants.SuccessMessages.DELETE_SUCCESS;
 import static constants.SuccessMessages.EDIT_SUCCESS;
+import static constants.SuccessMessages.FIND_APPROXIMATE_SUCCESS;
+import static constants.SuccessMessages.FIND_SUCCESS;
+import static constants.SuccessMessages.GRADE_SUCCESS;
+import static constants.SuccessMessages.IMPORT_SUCCESS;
 import static constants.SuccessMessages.INSERT_SUCCESS;
+import static constants.SuccessMessages.LEITNER_BOXES;
 import static constants.SuccessMessages.LIST_SUCCESS;
+import static constants.SuccessMessages.SEARCH_SUCCESS;
+import static constants.SuccessMessages.STATS_DECK;
+import static constants.SuccessMessages.STATS_FLASHCARD;
+import static constants.SuccessMessages.STATS_NEVER;
 import static constants.SuccessMessages.VIEW_ANSWER_SUCCESS;
 import static constants.SuccessMessages.VIEW_QUESTION_SUCCESS;
 import static constants.SuccessMessages.VIEW_QUIZRESULT_SUCCESS;
+import static constants.SuccessMessages.QUIZRESULT_ANSWER_TIMES;
+import static constants.SuccessMessages.QUIZRESULT_DECK_ANSWER_TIMES;
 import static constants.SuccessMessages.QUIZRESULT_FULL_MARKS;
+import static constants.SuccessMessages.QUIZRESULT_RETRY_HINT;
+import static constants.SuccessMessages.QUIZRESULT_SLOWEST;
+import static constants.SuccessMessages.QUIZRESULT_SLOW_FLASHCARD;
+import static constants.SuccessMessages.REVIEW_DUE_IN_DAYS;
+import static constants.SuccessMessages.REVIEW_DUE_IN_HOURS;
+import static constants.SuccessMessages.REVIEW_DUE_NOW;
+import static constants.SuccessMessages.REVIEW_NONE_SCHEDULED;
+import static constants.SuccessMessages.REVIEW_NOTHING_DUE;
+import static constants.SuccessMessages.REVIEW_SUCCESS;
 import static deck.DeckManager.currentDeck;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.logging.Logger;
+import java.util.List;
+import java.util.SplittableRandom;
 
 import exceptions.QuizCancelledException;
+import logger.LazyLogger;
+import parser.ArgumentLexer;
 import parser.Parser;
+import storage.AnswerGrader;
+import storage.BoxesFile;
+import storage.DeckFile;
+import storage.DeckImporter;
+import storage.HistoryFile;
+import storage.JournalRecord;
+import storage.Storage;
 import ui.Ui;
 /**
  * Represents a deck that contains a collection of flashcards.
@@ -58,14 +122,33 @@ import ui.Ui;
 
 public class Deck {
 
-    private static final Logger logger = Logger.getLogger(Deck.class.getName());
+    private static final LazyLogger logger = LazyLogger.getLogger(Deck.class);
+    private static final long FLASHCARD_OVERHEAD_BYTES = 160;
+    private static final int MIN_APPROXIMATE_FIND_LENGTH = 3;
+    private static final int LONG_FIND_LENGTH = 12;
+    private static final int DEFAULT_REVIEW_LIMIT = 20;
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+    private static final int SLOWEST_FLASHCARDS_SHOWN = 3;
+    private static final String SCORE_FILE_SUFFIX = "-scores.csv";
+    private static final DateTimeFormatter LAST_SEEN_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     private String name;
-    private final ArrayList<Flashcard> flashcards = new ArrayList<>();
-    private final ArrayList<Flashcard> incorrectFlashcards = new ArrayList<>();
-    private final ArrayList<Integer> incorrectIndexes = new ArrayList<>();
-    private final ArrayList<String> incorrectAnswers = new ArrayList<>();
-    private static ArrayList<Flashcard> queue = new ArrayList<>();
-    private static boolean isQuizCompleted = false;
+    private FlashcardSlots flashcards;
+    private int nextId;
+    private Path sourcePath;
+    private DeckFile source;
+    private boolean isModified;
+    private int modificationCount;
+    private boolean isProgressModified;
+    private int progressModificationCount;
+    private long heapBytes;
+    private SearchIndex searchIndex;
+    private TrigramIndex trigramIndex;
+    private ReviewScheduler reviewScheduler;
+    private QuizSession lastQuizSession;
+    private AnswerMatcher answerMatcher = AnswerMatcher.configured();
+    private final LatencyHistogram answerLatencies = new LatencyHistogram();
+    private AttemptHistory attemptHistory;
+    private LeitnerBoxes leitnerBoxes;
 
 
     /**
@@ -75,6 +158,33 @@ public class Deck {
      */
     public Deck(String name) {
         this.name = name.trim();
+        this.flashcards = new FlashcardSlots(0);
+    }
+
+    /**
+     * Creates a lightweight handle to a deck saved in a deck file.
+     *
+     * <p>Nothing is read until the deck is first accessed. Viewing and listing then read
+     * the flashcards through the mapped file, and the deck is only materialized into
+     * memory when it is modified or its flashcards are requested as a list.</p>
+     *
+     * @param name       the name of the deck.
+     * @param sourcePath the deck file holding the flashcards.
+     */
+    public Deck(String name, Path sourcePath) {
+        this.name = name.trim();
+        this.sourcePath = sourcePath;
+    }
+
+    /**
+     * Creates a deck backed by an already mapped deck file.
+     *
+     * @param name   the name of the deck.
+     * @param source the mapped deck file holding the flashcards.
+     */
+    public Deck(String name, DeckFile source) {
+        this(name, source.getPath());
+        this.source = source;
     }
 
     /**
@@ -96,19 +206,299 @@ public class Deck {
     }
 
     /**
-     * Returns the list of flashcards in the deck.
+     * Returns the flashcards in the deck.
      *
-     * @return an {@code ArrayList} of {@code Flashcard} objects.
+     * <p>The list is a copy, so changing it does not change the deck.</p>
+     *
+     * @return an {@code ArrayList} of {@code Flashcard} objects, in deck order.
      */
     public ArrayList<Flashcard> getFlashcards() {
-        return flashcards;
+        materialize();
+        return flashcards.toList();
+    }
+
+    /**
+     * Returns the flashcard with the given permanent id in O(1).
+     *
+     * @param id the id of the flashcard.
+     * @return the flashcard, or {@code null} if it was deleted or never existed.
+     */
+    public Flashcard getFlashcardById(int id) {
+        materialize();
+        return flashcards.getById(id);
+    }
+
+    /**
+     * Returns the current 1-based index of a flashcard in this deck.
+     *
+     * @param flashcard the flashcard to locate.
+     * @return its index, or 0 if the flashcard is no longer in the deck.
+     */
+    public int indexOf(Flashcard flashcard) {
+        materialize();
+        return flashcards.positionOf(flashcard) + 1;
+    }
+
+    /**
+     * Returns the id that the next flashcard added to this deck will get.
+     *
+     * @return the next free flashcard id.
+     */
+    public int getNextId() {
+        return flashcards != null ? nextId : openSource().getNextId();
+    }
+
+    /**
+     * Returns the number of flashcards in the deck without materializing it.
+     *
+     * @return the flashcard count.
+     */
+    public int getFlashcardCount() {
+        return flashcards != null ? flashcards.size() : openSource().size();
+    }
+
+    /**
+     * Returns the deck file this deck was loaded from.
+     *
+     * @return the path of the backing deck file, or {@code null} if the deck was never saved.
+     */
+    public Path getSourcePath() {
+        return sourcePath;
+    }
+
+    /**
+     * Returns whether the flashcards differ from the backing deck file.
+     *
+     * @return true if the deck has no backing file or was modified since it was loaded.
+     */
+    public boolean hasUnsavedChanges() {
+        return sourcePath == null || isModified;
+    }
+
+    /**
+     * Returns a counter that changes every time the flashcards of this deck are modified.
+     *
+     * @return the modification count.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns whether the attempt history or Leitner boxes differ from the files next to the
+     * backing deck file. Answering questions changes only these, not the flashcards.
+     *
+     * @return true if the deck has no backing file or its history or boxes changed since it was loaded.
+     */
+    public boolean hasUnsavedProgress() {
+        return sourcePath == null || isProgressModified;
+    }
+
+    /**
+     * Returns a counter that changes every time the attempt history or Leitner boxes of this deck change.
+     *
+     * @return the progress modification count.
+     */
+    public int getProgressModificationCount() {
+        return progressModificationCount;
+    }
+
+    /**
+     * Records that the flashcards have been written to the given deck file, unless the
+     * deck was modified again after the state that was written. The history and boxes
+     * written next to it are saved too, unless they changed after that state.
+     *
+     * @param savedPath                      the deck file the flashcards were written to.
+     * @param savedModificationCount         the modification count of the state that was written.
+     * @param savedProgressModificationCount the progress modification count of the state that was written.
+     * @return true if the deck is now backed by the saved file.
+     */
+    public boolean markSaved(Path savedPath, int savedModificationCount, int savedProgressModificationCount) {
+        if (modificationCount != savedModificationCount) {
+            return false;
+        }
+        sourcePath = savedPath;
+        isModified = false;
+        isProgressModified = progressModificationCount != savedProgressModificationCount;
+        if (flashcards != null) {
+            source = null;
+        }
+        return true;
+    }
+
+    /**
+     * Maps the backing deck file so the deck can be read, if not done yet.
+     *
+     * @throws UncheckedIOException if the deck file cannot be opened.
+     */
+    public void load() {
+        if (flashcards == null) {
+            openSource();
+        }
+    }
+
+    /**
+     * Returns whether the deck currently holds its flashcards or its mapping in memory.
+     *
+     * @return true if the deck is loaded.
+     */
+    public boolean isLoaded() {
+        return flashcards != null || source != null;
+    }
+
+    /**
+     * Returns an estimate of the heap used by the materialized flashcards of this deck.
+     *
+     * @return the estimated size in bytes, or 0 if the deck is not materialized.
+     */
+    public long getHeapBytes() {
+        return flashcards == null ? 0 : heapBytes;
+    }
+
+    /**
+     * Drops the in-memory flashcards and mapping of an unmodified deck, so that only
+     * the handle remains. The deck is transparently reloaded on its next access.
+     *
+     * @return true if the deck was evicted, false if it has unsaved changes or progress.
+     */
+    public boolean evict() {
+        if (hasUnsavedChanges() || hasUnsavedProgress()) {
+            return false;
+        }
+        flashcards = null;
+        source = null;
+        searchIndex = null;
+        trigramIndex = null;
+        reviewScheduler = null;
+        attemptHistory = null;
+        leitnerBoxes = null;
+        heapBytes = 0;
+        logger.info(() -> "Evicted deck " + name);
+        return true;
+    }
+
+    private DeckFile openSource() {
+        if (source == null) {
+            assert sourcePath != null : "A deck without flashcards in memory must have a deck file";
+            try {
+                source = DeckFile.open(sourcePath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Decodes every flashcard from the backing deck file into memory, if not done yet.
+     */
+    private void materialize() {
+        if (flashcards != null) {
+            return;
+        }
+        DeckFile deckFile = openSource();
+        int count = deckFile.size();
+        FlashcardSlots loaded = new FlashcardSlots(count);
+        long loadedBytes = 0;
+        for (int i = 0; i < count; i++) {
+            Flashcard flashcard = deckFile.getFlashcard(i);
+            loaded.add(flashcard);
+            loadedBytes += estimateHeapBytes(flashcard);
+        }
+        flashcards = loaded;
+        nextId = deckFile.getNextId();
+        heapBytes = loadedBytes;
+        logger.info(() -> "Materialized deck " + name + " with " + count + " flashcards");
+    }
+
+    /**
+     * Materializes the deck and marks it as diverged from its backing file, before a mutation.
+     */
+    private void prepareForChange() {
+        materialize();
+        isModified = true;
+        modificationCount++;
+    }
+
+    /**
+     * Marks the attempt history or Leitner boxes as diverged from their files, before they change.
+     * The flashcards stay as saved, so the next snapshot links their deck file instead of re-encoding it.
+     */
+    private void prepareForProgressChange() {
+        isProgressModified = true;
+        progressModificationCount++;
+    }
+
+    /**
+     * Adds a new or updated flashcard to the search indexes that have been built.
+     */
+    private void addToIndexes(Flashcard flashcard) {
+        if (searchIndex != null) {
+            searchIndex.add(flashcard);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(flashcard);
+        }
+        if (reviewScheduler != null) {
+            reviewScheduler.add(flashcard);
+        }
+    }
+
+    /**
+     * Removes a flashcard from the search indexes that have been built, before it changes.
+     */
+    private void removeFromIndexes(Flashcard flashcard) {
+        if (searchIndex != null) {
+            searchIndex.remove(flashcard);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(flashcard);
+        }
+        if (reviewScheduler != null) {
+            reviewScheduler.remove(flashcard);
+        }
+    }
+
+    /**
+     * Estimates the heap retained by a flashcard, its strings and its list slot.
+     */
+    private static long estimateHeapBytes(Flashcard flashcard) {
+        long characters = flashcard.getQuestion().length() + flashcard.getAnswer().length()
+                + flashcard.getCodeSnippet().length();
+        return FLASHCARD_OVERHEAD_BYTES + 2 * characters;
+    }
+
+    private String questionAt(int arrayIndex) {
+        return flashcards != null ? flashcards.get(arrayIndex).getQuestion() : openSource().getQuestion(arrayIndex);
+    }
+
+    /**
+     * Returns the flashcard at a position of the deck, decoding only that flashcard if the deck is not materialized.
+     */
+    Flashcard flashcardAt(int arrayIndex) {
+        return flashcards != null ? flashcards.get(arrayIndex) : openSource().getFlashcard(arrayIndex);
+    }
+
+    private int flashcardIdAt(int arrayIndex) {
+        return flashcards != null ? flashcards.get(arrayIndex).getId() : openSource().getId(arrayIndex);
+    }
+
+    private String answerAt(int arrayIndex) {
+        return flashcards != null ? flashcards.get(arrayIndex).getAnswer() : openSource().getAnswer(arrayIndex);
+    }
+
+    private String codeSnippetAt(int arrayIndex) {
+        return flashcards != null
+                ? flashcards.get(arrayIndex).getCodeSnippet()
+                : openSource().getCodeSnippet(arrayIndex);
     }
 
     /**
      * Creates a new flashcard
      *
      * <p>The arguments must contain both a question (denoted by "/q") and an answer (denoted by "/a").
-     * The question must appear before the answer in the input string.</p>
+     * The question must appear before the answer in the input string. Either may contain the text
+     * of a flag written as "\/q" or "\/a".</p>
      *
      * @param arguments A string with the flashcard details
      * @return A success message indicating the flashcard has been created.
@@ -117,44 +507,151 @@ public class Deck {
      */
 
     public String createFlashcard(String arguments) throws FlashCLIArgumentException {
-        logger.info("Starting to create a flashcard with arguments: " + arguments);
+        logger.info(() -> "Starting to create a flashcard with arguments: " + arguments);
 
-        boolean containsAllArguments = arguments.contains("/q") && arguments.contains("/a");
-        if (!containsAllArguments) {
-            logger.warning("Missing required fields: /q or /a");
-            throw new FlashCLIArgumentException(CREATE_MISSING_FIELD);
-        }
+        String[] questionAndAnswer = lexQuestionAndAnswer(arguments);
+        String question = questionAndAnswer[0];
+        String answer = questionAndAnswer[1];
 
-        int questionStart = arguments.indexOf("/q");
-        int answerStart = arguments.indexOf("/a");
+        Flashcard newFlashcard = addFlashcard(question, answer);
+        Storage.record(JournalRecord.createFlashcard(name, question, answer));
 
-        assert questionStart >= 0 : "Index of /q should be valid";
-        assert answerStart >= 0 : "Index of /a should be valid";
+        logger.info(() -> "Successfully created a flashcard: Question: " + question + ", Answer: " + answer);
+        return String.format(CREATE_SUCCESS,
+                newFlashcard.getQuestion(), newFlashcard.getAnswer(), getFlashcardCount());
+    }
 
-        logger.fine("Index of /q: " + questionStart + ", Index of /a: " + answerStart);
+    /**
+     * Appends a new flashcard with the given question and answer to the deck.
+     *
+     * @param question the question of the new flashcard.
+     * @param answer   the answer of the new flashcard.
+     * @return the flashcard that was added.
+     */
+    public Flashcard addFlashcard(String question, String answer) {
+        prepareForChange();
+        Flashcard newFlashcard = new Flashcard(nextId++, question, answer);
+        flashcards.add(newFlashcard);
+        heapBytes += estimateHeapBytes(newFlashcard);
+        addToIndexes(newFlashcard);
+        if (leitnerBoxes != null) {
+            leitnerBoxes.add(newFlashcard.getId());
+        }
+        return newFlashcard;
+    }
 
-        if (questionStart > answerStart) {
-            logger.warning("Invalid order: /q comes after /a");
-            throw new FlashCLIArgumentException(CREATE_INVALID_ORDER);
+    /**
+     * Imports flashcards from a CSV or TSV file into the deck.
+     *
+     * <p>The file is streamed and parsed by {@link DeckImporter}; every parsed chunk is appended
+     * to the deck in one batch and journalled, so the whole import is persisted by a single
+     * commit once the command finishes. If the file cannot be read to the end, the flashcards
+     * appended so far are kept and the error says how many there are.</p>
+     *
+     * @param arguments the path of the file to import.
+     * @return a success message with the number of imported flashcards and the throughput.
+     * @throws FlashCLIArgumentException if the path is missing or the file cannot be read.
+     */
+    public String importFlashcards(String arguments) throws FlashCLIArgumentException {
+        String fileName = arguments.trim();
+        if (fileName.isEmpty()) {
+            throw new FlashCLIArgumentException(IMPORT_MISSING_FILE);
         }
 
-        assert questionStart < answerStart : "Question should come before answer in arguments";
+        int countBefore = getFlashcardCount();
+        long startTime = System.nanoTime();
+        int skippedRows;
+        try {
+            skippedRows = DeckImporter.read(Paths.get(fileName), this::appendFlashcards);
+        } catch (IOException | InvalidPathException e) {
+            logger.warning(() -> "Failed to import " + fileName + ": " + e.getMessage());
+            int importedCount = getFlashcardCount() - countBefore;
+            throw new FlashCLIArgumentException(importedCount == 0
+                    ? String.format(IMPORT_FILE_ERROR, fileName)
+                    : String.format(IMPORT_PARTIAL_ERROR, fileName, importedCount));
+        }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        int importedCount = getFlashcardCount() - countBefore;
+        logger.info(() -> "Imported " + importedCount + " flashcards from " + fileName);
+        int rowCount = importedCount + skippedRows;
+        double rowsPerSecond = elapsedSeconds > 0 ? rowCount / elapsedSeconds : rowCount;
+        return String.format(IMPORT_SUCCESS, importedCount, name, skippedRows, elapsedSeconds, rowsPerSecond,
+                getFlashcardCount());
+    }
 
-        String question = arguments.substring(questionStart + "/q".length(), answerStart).trim();
-        String answer = arguments.substring(answerStart + "/a".length()).trim();
+    /**
+     * Grades a file of learner answers against this deck without quizzing, and writes a score per learner.
+     *
+     * <p>Answers are checked in parallel by {@link AnswerGrader} with {@link #isCorrectAnswer(Flashcard, String)},
+     * the same check a quiz uses, but nothing is shown per answer and the attempt history is left alone.</p>
+     *
+     * @param arguments the path of the answer file, optionally followed by {@code /o} and the score file.
+     * @return a success message with the number of answers and learners graded and the throughput.
+     * @throws FlashCLIArgumentException if a path is missing or a file cannot be read or written.
+     */
+    public String gradeAnswers(String arguments) throws FlashCLIArgumentException {
+        ArgumentLexer lexer = new ArgumentLexer(arguments, OUTPUT_FLAG);
+        String fileName = lexer.getPreamble().toString();
+        CharSequence output = lexer.get(OUTPUT_FLAG);
+        String outputName = output == null ? "" : output.toString();
+        if (fileName.isEmpty() || (output != null && outputName.isEmpty())) {
+            throw new FlashCLIArgumentException(GRADE_MISSING_FILE);
+        }
 
-        if (question.isEmpty() || answer.isEmpty()) {
-            logger.warning("Missing description: question or answer is empty");
-            throw new FlashCLIArgumentException(CREATE_MISSING_DESCRIPTION);
+        long startTime = System.nanoTime();
+        AnswerGrader.Summary summary;
+        Path outputPath;
+        try {
+            Path inputPath = Paths.get(fileName);
+            outputPath = outputName.isEmpty() ? defaultScorePath(inputPath) : Paths.get(outputName);
+            summary = AnswerGrader.grade(inputPath, outputPath, getFlashcards(), this::isCorrectAnswer);
+        } catch (IOException | InvalidPathException e) {
+            logger.warning(() -> "Failed to grade " + fileName + ": " + e.getMessage());
+            throw new FlashCLIArgumentException(String.format(GRADE_FILE_ERROR, fileName));
         }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
 
-        int flashcardIndex = flashcards.size();
-        Flashcard newFlashcard = new Flashcard(flashcardIndex, question, answer);
-        flashcards.add(newFlashcard);
+        int rowCount = summary.getGradedRows() + summary.getSkippedRows();
+        logger.info(() -> "Graded " + rowCount + " rows from " + fileName);
+        double rowsPerSecond = elapsedSeconds > 0 ? rowCount / elapsedSeconds : rowCount;
+        return String.format(GRADE_SUCCESS, summary.getGradedRows(), summary.getLearnerCount(), name,
+                summary.getSkippedRows(), elapsedSeconds, rowsPerSecond, outputPath);
+    }
 
-        logger.info("Successfully created a flashcard: Question: " + question + ", Answer: " + answer);
-        return String.format(CREATE_SUCCESS,
-                newFlashcard.getQuestion(), newFlashcard.getAnswer(), flashcards.size());
+    private static Path defaultScorePath(Path inputPath) {
+        String fileName = inputPath.getFileName().toString();
+        int extensionStart = fileName.lastIndexOf('.');
+        String baseName = extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+        return inputPath.resolveSibling(baseName + SCORE_FILE_SUFFIX);
+    }
+
+    /**
+     * Appends a batch of imported rows to the deck as new flashcards and journals them.
+     *
+     * <p>The flashcards are given new ids following the existing ones. Code snippets are kept.</p>
+     *
+     * @param rows the rows to append.
+     */
+    public void appendFlashcards(List<DeckImporter.Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        prepareForChange();
+        flashcards.ensureCapacity(rows.size());
+        for (DeckImporter.Row row : rows) {
+            Flashcard newFlashcard = new Flashcard(nextId++, row.getQuestion(), row.getAnswer(), row.getCodeSnippet());
+            flashcards.add(newFlashcard);
+            heapBytes += estimateHeapBytes(newFlashcard);
+            addToIndexes(newFlashcard);
+            if (leitnerBoxes != null) {
+                leitnerBoxes.add(newFlashcard.getId());
+            }
+            Storage.record(JournalRecord.createFlashcard(name, newFlashcard.getQuestion(), newFlashcard.getAnswer()));
+            if (!newFlashcard.getCodeSnippet().isEmpty()) {
+                Storage.record(JournalRecord.insertCode(name, flashcards.size(), newFlashcard.getCodeSnippet()));
+            }
+        }
     }
 
     /**
@@ -165,15 +662,13 @@ public class Deck {
      * @throws ArrayIndexOutOfBoundsException if the index is outside of list size
      */
     public String viewFlashcardQuestion(int index) throws ArrayIndexOutOfBoundsException {
-        if (index <= 0 || index > flashcards.size()) {
+        if (index <= 0 || index > getFlashcardCount()) {
             throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
         }
         int arrayIndex = index - 1;
-        Flashcard flashcardToView = flashcards.get(arrayIndex);
-        assert flashcardToView != null : "flashcard object should not be null";
-        String question = flashcardToView.getQuestion();
+        String question = questionAt(arrayIndex);
         assert !question.isEmpty() : "Question should not be empty when viewing flashcards";
-        String codeSnippet = flashcardToView.getCodeSnippet();
+        String codeSnippet = codeSnippetAt(arrayIndex);
         return String.format(VIEW_QUESTION_SUCCESS, index, question, codeSnippet);
     }
 
@@ -184,13 +679,11 @@ public class Deck {
      * @throws ArrayIndexOutOfBoundsException if the index is outside of list size
      */
     public String viewFlashcardAnswer(int index) throws ArrayIndexOutOfBoundsException {
-        if (index <= 0 || index > flashcards.size()) {
+        if (index <= 0 || index > getFlashcardCount()) {
             throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
         }
         int arrayIndex = index - 1;
-        Flashcard flashcardToView = flashcards.get(arrayIndex);
-        assert flashcardToView != null : "flashcard object should not be null";
-        String answer = flashcardToView.getAnswer();
+        String answer = answerAt(arrayIndex);
         assert !answer.isEmpty() : "Answer should not be empty when viewing flashcards";
         return String.format(VIEW_ANSWER_SUCCESS, index, answer);
     }
@@ -206,36 +699,284 @@ public class Deck {
     public String editFlashcard(int index, String arguments)
             throws ArrayIndexOutOfBoundsException,
             FlashCLIArgumentException {
-        boolean containsAllArguments = arguments.contains("/q") && arguments.contains("/a");
-        if (!containsAllArguments) {
+        String[] questionAndAnswer = lexQuestionAndAnswer(arguments);
+        String updatedQuestion = questionAndAnswer[0];
+        String updatedAnswer = questionAndAnswer[1];
+
+        Flashcard oldFlashcard = replaceFlashcard(index, updatedQuestion, updatedAnswer);
+        Storage.record(JournalRecord.editFlashcard(name, index, updatedQuestion, updatedAnswer));
+
+        String oldQuestion = oldFlashcard.getQuestion();
+        String oldAnswer = oldFlashcard.getAnswer();
+        return String.format(EDIT_SUCCESS,
+                oldQuestion, updatedQuestion, oldAnswer, updatedAnswer);
+    }
+
+    /**
+     * Reads the question and answer of a flashcard from arguments such as {@code 1 /q Question /a Answer}.
+     *
+     * @param arguments the arguments, in which the question must come before the answer.
+     * @return the question and the answer.
+     * @throws FlashCLIArgumentException if either is missing, empty, given twice or out of order.
+     */
+    private static String[] lexQuestionAndAnswer(String arguments) throws FlashCLIArgumentException {
+        ArgumentLexer lexer = new ArgumentLexer(arguments, QUESTION_FLAG, ANSWER_FLAG);
+        int questionStart = lexer.indexOf(QUESTION_FLAG);
+        int answerStart = lexer.indexOf(ANSWER_FLAG);
+        if (questionStart < 0 || answerStart < 0) {
+            logger.warning(() -> "Missing required fields: /q or /a");
             throw new FlashCLIArgumentException(CREATE_MISSING_FIELD);
         }
-        int questionStart = arguments.indexOf("/q");
-        int answerStart = arguments.indexOf("/a");
+
+        logger.fine(() -> "Index of /q: " + questionStart + ", Index of /a: " + answerStart);
 
         if (questionStart > answerStart) {
+            logger.warning(() -> "Invalid order: /q comes after /a");
             throw new FlashCLIArgumentException(CREATE_INVALID_ORDER);
         }
 
-        String updatedQuestion = arguments.substring(questionStart + "/q".length(), answerStart).trim();
-        String updatedAnswer = arguments.substring(answerStart + "/a".length()).trim();
-        if (updatedQuestion.isEmpty() || updatedAnswer.isEmpty()) {
+        CharSequence question = lexer.get(QUESTION_FLAG);
+        CharSequence answer = lexer.get(ANSWER_FLAG);
+        if (question.length() == 0 || answer.length() == 0) {
+            logger.warning(() -> "Missing description: question or answer is empty");
             throw new FlashCLIArgumentException(CREATE_MISSING_DESCRIPTION);
         }
+        return new String[] {question.toString(), answer.toString()};
+    }
 
-        Flashcard updatedFlashcard = new Flashcard(index, updatedQuestion, updatedAnswer);
-
-        if (index <= 0 || index > flashcards.size()) {
+    /**
+     * Replaces the question and answer of the flashcard at the given index.
+     *
+     * @param index    1-based index of the flashcard to replace.
+     * @param question the updated question.
+     * @param answer   the updated answer.
+     * @return the flashcard that was replaced.
+     * @throws ArrayIndexOutOfBoundsException if the index is outside of list size
+     */
+    public Flashcard replaceFlashcard(int index, String question, String answer)
+            throws ArrayIndexOutOfBoundsException {
+        if (index <= 0 || index > getFlashcardCount()) {
             throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
         }
+        prepareForChange();
         int arrayIndex = index - 1;
+        Flashcard currentFlashcard = flashcards.get(arrayIndex);
+        Flashcard updatedFlashcard = new Flashcard(currentFlashcard.getId(), question, answer);
+        updatedFlashcard.setSchedule(currentFlashcard.getRepetitions(), currentFlashcard.getIntervalDays(),
+                currentFlashcard.getEasePermille(), currentFlashcard.getDueTime());
+        Flashcard oldFlashcard = flashcards.set(arrayIndex, updatedFlashcard);
+        heapBytes += estimateHeapBytes(updatedFlashcard) - estimateHeapBytes(oldFlashcard);
+        removeFromIndexes(oldFlashcard);
+        addToIndexes(updatedFlashcard);
+        return oldFlashcard;
+    }
 
-        Flashcard oldFlashcard = flashcards.get(arrayIndex);
-        String oldQuestion = oldFlashcard.getQuestion();
-        String oldAnswer = oldFlashcard.getAnswer();
-        flashcards.set(arrayIndex, updatedFlashcard);
-        return String.format(EDIT_SUCCESS,
-                oldQuestion, updatedQuestion, oldAnswer, updatedAnswer);
+    /**
+     * Searches the flashcards for the terms of the query.
+     *
+     * <p>The inverted index is built on the first search and kept up to date by every later
+     * change, so each query only costs time proportional to the matching postings.</p>
+     *
+     * @param arguments the search query.
+     * @return the matching flashcards in the format of SEARCH_SUCCESS.
+     * @throws FlashCLIArgumentException if the query is empty or nothing matches.
+     */
+    public String searchFlashcards(String arguments) throws FlashCLIArgumentException {
+        String query = arguments.trim();
+        if (query.isEmpty()) {
+            throw new FlashCLIArgumentException(SEARCH_MISSING_QUERY);
+        }
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex(getFlashcards());
+            logger.info(() -> "Built search index for deck " + name);
+        }
+
+        List<Flashcard> results = searchIndex.search(query);
+        if (results.isEmpty()) {
+            throw new FlashCLIArgumentException(String.format(SEARCH_NO_MATCH, query));
+        }
+        return String.format(SEARCH_SUCCESS, results.size(), query, formatSearchResults(results));
+    }
+
+    /**
+     * Finds the flashcards whose question or code snippet contains the text, ignoring case.
+     *
+     * <p>Uses a trigram index that is built on the first call and kept up to date by every
+     * later change. If nothing contains the text exactly, flashcards containing it with a
+     * small number of typos are returned instead.</p>
+     *
+     * @param arguments the text to find.
+     * @return the matching flashcards in the format of FIND_SUCCESS or FIND_APPROXIMATE_SUCCESS.
+     * @throws FlashCLIArgumentException if the text is empty or nothing matches.
+     */
+    public String findFlashcards(String arguments) throws FlashCLIArgumentException {
+        String text = arguments.trim();
+        if (text.isEmpty()) {
+            throw new FlashCLIArgumentException(SEARCH_MISSING_QUERY);
+        }
+        if (trigramIndex == null) {
+            trigramIndex = new TrigramIndex(getFlashcards());
+            logger.info(() -> "Built trigram index for deck " + name);
+        }
+
+        List<Flashcard> results = trigramIndex.findSubstring(text);
+        if (!results.isEmpty()) {
+            return String.format(FIND_SUCCESS, results.size(), text, formatSearchResults(results));
+        }
+        if (text.length() > MIN_APPROXIMATE_FIND_LENGTH) {
+            int maxErrors = text.length() < LONG_FIND_LENGTH ? 1 : 2;
+            results = trigramIndex.findApproximate(text, maxErrors);
+        }
+        if (results.isEmpty()) {
+            throw new FlashCLIArgumentException(String.format(SEARCH_NO_MATCH, text));
+        }
+        return String.format(FIND_APPROXIMATE_SUCCESS, results.size(), text, formatSearchResults(results));
+    }
+
+    /**
+     * Reviews the flashcards that are due, soonest due first, with SM-2 spaced repetition.
+     *
+     * <p>Due flashcards are taken from a heap ordered by due time, built on the first review,
+     * so a session only touches the flashcards it asks. Flashcards that were never reviewed
+     * are due immediately. A correct answer spaces the next review further apart, while an
+     * incorrect one brings the flashcard back the next day.</p>
+     *
+     * @param arguments the optional maximum number of flashcards to review.
+     * @return a summary of the session in the format of REVIEW_SUCCESS, or REVIEW_NOTHING_DUE.
+     * @throws FlashCLIArgumentException if the limit is not a positive number.
+     * @throws EmptyListException if the deck has no flashcards.
+     */
+    public String reviewFlashcards(String arguments) throws FlashCLIArgumentException, EmptyListException {
+        int limit;
+        try {
+            limit = arguments.isBlank() ? DEFAULT_REVIEW_LIMIT : Integer.parseInt(arguments.trim());
+        } catch (NumberFormatException e) {
+            throw new FlashCLIArgumentException(REVIEW_INVALID_LIMIT);
+        }
+        if (limit <= 0) {
+            throw new FlashCLIArgumentException(REVIEW_INVALID_LIMIT);
+        }
+        if (getFlashcardCount() == 0) {
+            throw new EmptyListException(EMPTY_LIST);
+        }
+        if (reviewScheduler == null) {
+            reviewScheduler = new ReviewScheduler(getFlashcards());
+            logger.info(() -> "Built review schedule for deck " + name);
+        }
+
+        int reviewedCount = 0;
+        int correctCount = 0;
+        Flashcard dueFlashcard = reviewScheduler.peek();
+        if (dueFlashcard == null || dueFlashcard.getDueTime() > System.currentTimeMillis()) {
+            return String.format(REVIEW_NOTHING_DUE, formatTimeUntilDue(dueFlashcard));
+        }
+        Ui.showToUser(REVIEW_START);
+        while (reviewedCount < limit && dueFlashcard != null
+                && dueFlashcard.getDueTime() <= System.currentTimeMillis()) {
+            Ui.showToUser(String.format(REVIEW_QUESTION, indexOf(dueFlashcard), dueFlashcard.getQuestion(),
+                    dueFlashcard.getCodeSnippet()));
+            long questionShownTime = System.nanoTime();
+            String userAnswer = Ui.getUserCommand().trim();
+            while (userAnswer.isEmpty()) {
+                Ui.showError(QUIZ_NO_ANSWER_DETECTED);
+                userAnswer = Ui.getUserCommand().trim();
+            }
+            if (userAnswer.equals(QUIZ_CANCEL)) {
+                break;
+            }
+            long latencyNanos = System.nanoTime() - questionShownTime;
+
+            boolean isCorrect = isCorrectAnswer(dueFlashcard, userAnswer);
+            int quality = isCorrect ? ReviewScheduler.CORRECT_QUALITY : ReviewScheduler.INCORRECT_QUALITY;
+            long reviewTime = System.currentTimeMillis();
+            reviewFlashcard(dueFlashcard.getId(), quality, reviewTime);
+            Storage.record(JournalRecord.scheduleFlashcard(name, dueFlashcard.getId(), dueFlashcard.getRepetitions(),
+                    dueFlashcard.getIntervalDays(), dueFlashcard.getEasePermille(), dueFlashcard.getDueTime()));
+            logAttempt(dueFlashcard, reviewTime, isCorrect, latencyNanos, userAnswer);
+            Ui.showToUser(isCorrect
+                    ? QUIZ_CORRECT
+                    : QUIZ_INCORRECT + " " + String.format(REVIEW_CORRECT_ANSWER, dueFlashcard.getAnswer()));
+            Ui.showToUser(String.format(REVIEW_NEXT_INTERVAL, dueFlashcard.getIntervalDays()));
+
+            reviewedCount++;
+            correctCount += isCorrect ? 1 : 0;
+            dueFlashcard = reviewScheduler.peek();
+        }
+        int flashcardsReviewed = reviewedCount;
+        logger.info(() -> "Reviewed " + flashcardsReviewed + " flashcards in deck " + name);
+        return String.format(REVIEW_SUCCESS, reviewedCount, correctCount, formatTimeUntilDue(reviewScheduler.peek()));
+    }
+
+    /**
+     * Records a review of the flashcard with the given id and reschedules it.
+     *
+     * @param id         the id of the reviewed flashcard.
+     * @param quality    the SM-2 quality of the answer, from 0 to 5.
+     * @param reviewTime the time of the review in epoch milliseconds.
+     * @return the reviewed flashcard.
+     * @throws ArrayIndexOutOfBoundsException if no flashcard has this id.
+     */
+    public Flashcard reviewFlashcard(int id, int quality, long reviewTime) throws ArrayIndexOutOfBoundsException {
+        Flashcard reviewedFlashcard = getFlashcardById(id);
+        if (reviewedFlashcard == null) {
+            throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
+        }
+        prepareForChange();
+        ReviewScheduler.grade(reviewedFlashcard, quality, reviewTime);
+        if (reviewScheduler != null) {
+            reviewScheduler.add(reviewedFlashcard);
+        }
+        return reviewedFlashcard;
+    }
+
+    /**
+     * Sets the schedule of the flashcard with the given id, as it was after a review.
+     *
+     * <p>Replaying this twice leaves the same schedule, unlike replaying the review itself.</p>
+     *
+     * @param id           the id of the flashcard.
+     * @param repetitions  the number of consecutive successful reviews.
+     * @param intervalDays the review interval in days.
+     * @param easePermille the ease factor in thousandths.
+     * @param dueTime      the next due time in epoch milliseconds.
+     * @throws ArrayIndexOutOfBoundsException if no flashcard has this id.
+     */
+    public void setSchedule(int id, int repetitions, int intervalDays, int easePermille, long dueTime)
+            throws ArrayIndexOutOfBoundsException {
+        Flashcard scheduledFlashcard = getFlashcardById(id);
+        if (scheduledFlashcard == null) {
+            throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
+        }
+        prepareForChange();
+        scheduledFlashcard.setSchedule(repetitions, intervalDays, easePermille, dueTime);
+        if (reviewScheduler != null) {
+            reviewScheduler.add(scheduledFlashcard);
+        }
+    }
+
+    private static String formatTimeUntilDue(Flashcard nextFlashcard) {
+        if (nextFlashcard == null) {
+            return REVIEW_NONE_SCHEDULED;
+        }
+        long millisUntilDue = nextFlashcard.getDueTime() - System.currentTimeMillis();
+        if (millisUntilDue <= 0) {
+            return REVIEW_DUE_NOW;
+        }
+        long hours = (millisUntilDue + HOUR_MILLIS - 1) / HOUR_MILLIS;
+        return hours < 24
+                ? String.format(REVIEW_DUE_IN_HOURS, hours)
+                : String.format(REVIEW_DUE_IN_DAYS, (hours + 23) / 24);
+    }
+
+    private String formatSearchResults(List<Flashcard> results) {
+        StringBuilder resultList = new StringBuilder();
+        for (Flashcard result : results) {
+            if (resultList.length() > 0) {
+                resultList.append("\n");
+            }
+            resultList.append(indexOf(result)).append(". ").append(result.getQuestion());
+        }
+        return resultList.toString();
     }
 
     /**
@@ -244,19 +985,18 @@ public class Deck {
      * @throws EmptyListException if the list is empty
      */
     public String listFlashcards() throws EmptyListException {
-        if (flashcards.isEmpty()) {
+        int count = getFlashcardCount();
+        if (count == 0) {
             throw new EmptyListException(EMPTY_LIST);
         }
 
         StringBuilder list = new StringBuilder();
-        int i = 1;
-        for (Flashcard question : flashcards) {
-            String currentQuestion = question.getQuestion();
+        for (int i = 1; i <= count; i++) {
+            String currentQuestion = questionAt(i - 1);
             list.append(i).append(". ").append(currentQuestion);
-            if (i != flashcards.size()) {
+            if (i != count) {
                 list.append("\n");
             }
-            i++;
         }
 
         return String.format(LIST_SUCCESS, list);
@@ -269,101 +1009,499 @@ public class Deck {
      * @throws ArrayIndexOutOfBoundsException if the index is outside of list size
      */
     public String deleteFlashcard(int index) throws ArrayIndexOutOfBoundsException {
-        if (index <= 0 || index > flashcards.size()) {
+        Flashcard flashcardToDelete = removeFlashcard(index);
+        assert flashcardToDelete != null : "flashcard object should not be null";
+        Storage.record(JournalRecord.deleteFlashcard(name, index));
+        return String.format(DELETE_SUCCESS, flashcardToDelete);
+    }
+
+    /**
+     * Removes the flashcard at the given index from the deck.
+     *
+     * @param index 1-based index of the flashcard to remove.
+     * @return the flashcard that was removed.
+     * @throws ArrayIndexOutOfBoundsException if the index is outside of list size
+     */
+    public Flashcard removeFlashcard(int index) throws ArrayIndexOutOfBoundsException {
+        if (index <= 0 || index > getFlashcardCount()) {
             throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
         }
+        prepareForChange();
         int arrayIndex = index - 1;
-        Flashcard flashcardToDelete = flashcards.get(arrayIndex);
-        assert flashcardToDelete != null : "flashcard object should not be null";
-        flashcards.remove(arrayIndex);
-        return String.format(DELETE_SUCCESS, flashcardToDelete);
+        Flashcard removedFlashcard = flashcards.remove(arrayIndex);
+        heapBytes -= estimateHeapBytes(removedFlashcard);
+        removeFromIndexes(removedFlashcard);
+        if (leitnerBoxes != null) {
+            leitnerBoxes.remove(removedFlashcard.getId());
+        }
+        return removedFlashcard;
+    }
+
+    /**
+     * quizzes all the flashcards within the current deck in a random order.
+     * @see #quizFlashcards(boolean, long)
+     */
+    public boolean quizFlashcards() throws EmptyListException, FlashCLIArgumentException, QuizCancelledException {
+        return quizFlashcards(true);
+    }
+
+    /**
+     * quizzes flashcards within the current deck in a random order.
+     * @see #quizFlashcards(boolean, long)
+     */
+    public boolean quizFlashcards(boolean isFullDeckTest)
+            throws EmptyListException, FlashCLIArgumentException, QuizCancelledException {
+        return quizFlashcards(isFullDeckTest, new SplittableRandom().nextLong());
     }
 
     /**
      * quizzes flashcards within the current deck
-     * clears incorrect_flashcards, incorrect_card_indexes and incorrect_answers if quiz starts.
-     * adds into incorrect_flashcards, incorrect_card_indexes and incorrect_answers if incorrect answers are given.
+     * quizzes the whole deck, or only the flashcards answered incorrectly in the last completed quiz.
+     * @param seed the seed of the question order, the same seed always asks the same deck in the same order
      * @throws EmptyListException if there are no flashcards in the deck
+     * @throws FlashCLIArgumentException if the history or boxes file of the deck cannot be read
      */
     //@@author felfelyuen
-    public boolean quizFlashcards(boolean isFullDeckTest) throws EmptyListException, QuizCancelledException {
+    public boolean quizFlashcards(boolean isFullDeckTest, long seed)
+            throws EmptyListException, FlashCLIArgumentException, QuizCancelledException {
+        return quizFlashcards(newQuizSession(isFullDeckTest, seed));
+    }
+
+    /**
+     * Creates a quiz session over this deck, without asking any question yet.
+     *
+     * <p>Only a quiz of the whole deck shows the seed as a command to repeat its order.</p>
+     *
+     * @param isFullDeckTest true to quiz the whole deck, false to quiz the wrong answers of the last quiz.
+     * @param seed           the seed of the question order.
+     * @return the new session.
+     * @throws EmptyListException if there are no flashcards to quiz.
+     * @throws FlashCLIArgumentException if the history or boxes file, where the answers are recorded, cannot be read.
+     */
+    public QuizSession newQuizSession(boolean isFullDeckTest, long seed)
+            throws EmptyListException, FlashCLIArgumentException {
         ArrayList<Flashcard> testedflashcards;
         if (isFullDeckTest == true) {
-            testedflashcards = flashcards;
-
+            testedflashcards = getFlashcards();
         } else {
-            testedflashcards = incorrectFlashcards;
+            testedflashcards = getLastQuizMistakes();
         }
 
-        logger.info("starting to enter quiz mode:");
         if (testedflashcards.isEmpty()) {
             throw new EmptyListException(EMPTY_LIST);
         }
+        loadProgress();
+        logger.info(() -> "There are " + testedflashcards.size() + " flashcards in this test, shuffled with seed "
+                + seed);
+        QuizSession session = new QuizSession(this, testedflashcards, seed);
+        if (isFullDeckTest) {
+            // a retry asks the mistakes of the last quiz, which the same seed would not ask again
+            session.setRepeatCommand(QUIZ + " " + seed);
+        }
+        return session;
+    }
 
-        incorrectIndexes.clear();
-        incorrectFlashcards.clear();
-        incorrectAnswers.clear();
-
-        logger.info("There are " + testedflashcards.size() + " flashcards in this test");
-        logger.info("starting shuffling:");
-        queue = testedflashcards;
-        logger.info("There are " + queue.size() + " flashcards in this test");
+    /**
+     * Collects the flashcards answered incorrectly in the last quiz, skipping any deleted since.
+     *
+     * @return the flashcards, found in O(mistakes) from the id bitset of the last quiz.
+     * @throws EmptyListException if no quiz has been completed or it had no mistakes.
+     */
+    private ArrayList<Flashcard> getLastQuizMistakes() throws EmptyListException {
+        if (lastQuizSession == null) {
+            throw new EmptyListException(INCOMPLETED_QUIZ);
+        }
+        ArrayList<Flashcard> mistakes = new ArrayList<>(lastQuizSession.getIncorrectCount());
+        lastQuizSession.incorrectIdStream(this).forEach(id -> {
+            Flashcard flashcard = getFlashcardById(id);
+            if (flashcard != null) {
+                mistakes.add(flashcard);
+            }
+        });
+        if (mistakes.isEmpty()) {
+            throw new EmptyListException(RETRY_NO_MISTAKES);
+        }
+        return mistakes;
+    }
 
+    /**
+     * asks every question of a quiz session and records the answers in it.
+     * each answer is graded and recorded by the deck its flashcard belongs to, so a session interleaving
+     * several decks is run the same way as a quiz of one deck.
+     * the session becomes the last quiz of every deck in it once all of its questions are answered.
+     * @param session the session to run
+     * @throws QuizCancelledException if user wants to cancel halfway through the quiz
+     */
+    public static boolean quizFlashcards(QuizSession session) throws QuizCancelledException {
+        logger.info(() -> "starting to enter quiz mode:");
         Ui.showToUser(QUIZ_START);
-        int lastIndex = queue.size() - 1;
-        assert lastIndex >= 0 : "Queue size should not be zero";
-        for (int i = 0; i < lastIndex; i++) {
-            int questionsLeft = queue.size() - i;
-            Ui.showToUser(String.format(QUIZ_QUESTIONS_LEFT, questionsLeft));
-            Ui.showToUser(queue.get(i).getQuestion());
-            handleQuestionForQuiz(queue.get(i));
-        }
-        logger.info("Last question:");
-        Ui.showToUser(queue.get(lastIndex).getQuestion());
-        Ui.showToUser(QUIZ_LAST_QUESTION);
-        Ui.showToUser(queue.get(lastIndex).getQuestion());
-        handleQuestionForQuiz(queue.get(lastIndex));
-
-        logger.info("Finished asking questions, tabulating timer amount:");
-        //DELETE THESE COMMENTS ONCE DONE:
-        //HANDLE TIMER HERE
-        //placeholder code (5 is an arbitrary value):
-        int timerAmount = 5;
-        assert timerAmount > 0 : "Timer_amount should not be zero";
-
-        logger.info("Exiting quiz mode:");
-        Ui.showToUser(String.format(QUIZ_END, timerAmount));
-        isQuizCompleted = true;
+        if (session.getRepeatCommand() != null) {
+            Ui.showToUser(String.format(QUIZ_SEED, session.getSeed(), session.getRepeatCommand()));
+        }
+        if (session.isTimed()) {
+            Ui.showToUser(String.format(QUIZ_TIME_LIMITS, formatTimeLimit(session.getQuestionLimitNanos()),
+                    formatTimeLimit(session.getQuizLimitNanos())));
+        }
+        session.start();
+        while (session.hasNextQuestion()) {
+            if (session.isOutOfTime(System.nanoTime())) {
+                Ui.showToUser(String.format(QUIZ_TIME_UP, session.skipRemaining(QUIZ_TIMED_OUT_ANSWER)));
+                break;
+            }
+            String question = formatQuestion(session);
+            if (session.getQuestionsLeft() > 1) {
+                Ui.showToUser(String.format(QUIZ_QUESTIONS_LEFT, session.getQuestionsLeft()));
+                Ui.showToUser(question);
+            } else {
+                logger.info(() -> "Last question:");
+                Ui.showToUser(question);
+                Ui.showToUser(QUIZ_LAST_QUESTION);
+                Ui.showToUser(question);
+            }
+            handleQuestionForQuiz(session);
+        }
+        session.complete();
+        for (int question = 0; question < session.getAnsweredCount(); question++) {
+            session.getDeckAt(question).answerLatencies.record(session.getLatencyAt(question));
+        }
+        for (Deck quizzedDeck : session.getDecks()) {
+            quizzedDeck.lastQuizSession = session;
+        }
+
+        logger.info(() -> "Exiting quiz mode:");
+        Ui.showToUser(String.format(QUIZ_END, String.format("%.1f", session.getElapsedSeconds())));
         return true;
     }
 
     /**
-     * handles asking the flashcard's question and taking in the input
-     * function specific for quiz, as incorrect answer would affect the arrays for incorrect answers
-     * @param indexCard to ask the question from
+     * handles asking the current question of a quiz session and taking in the input
+     * function specific for quiz, as incorrect answers are recorded in the session
+     * @param session the session to ask the question from
      * @throws QuizCancelledException if user wants to cancel halfway through the quiz
      */
     //@@author felfelyuen
-    public void handleQuestionForQuiz(Flashcard indexCard) throws QuizCancelledException {
+    public static void handleQuestionForQuiz(QuizSession session) throws QuizCancelledException {
+        Flashcard indexCard = session.getCurrentFlashcard();
+        Deck deck = session.getCurrentDeck();
         Ui.showToUser("The line before qus");
-        Ui.showToUser(indexCard.getQuestion());
+        Ui.showToUser(formatQuestion(session));
         Ui.showToUser("THe line after qus");
 
-        String userAnswer = Ui.getUserCommand().trim();
-        while (userAnswer.isEmpty()) {
-            logger.info("no answer detected");
+        long questionShownTime = System.nanoTime();
+        long deadline = session.getAnswerDeadline(questionShownTime);
+        String userAnswer = readAnswer(deadline);
+        while (userAnswer != null && userAnswer.isEmpty()) {
+            logger.info(() -> "no answer detected");
             Ui.showError(QUIZ_NO_ANSWER_DETECTED);
-            userAnswer = Ui.getUserCommand().trim();
+            userAnswer = readAnswer(deadline);
+        }
+        long latencyNanos = System.nanoTime() - questionShownTime;
+
+        if (userAnswer == null) {
+            logger.info(() -> "Question timed out");
+            Ui.showToUser(String.format(QUIZ_TIMED_OUT, indexCard.getAnswer()));
+            session.recordAnswer(QUIZ_TIMED_OUT_ANSWER, false, latencyNanos);
+            deck.logQuizAnswer(indexCard, false, latencyNanos, "");
+            // the answer being typed when the time ran out would otherwise answer the next question
+            if (Ui.isInteractive()) {
+                Ui.showToUser(QUIZ_PRESS_ENTER);
+                Ui.discardLateInput(session.getAnswerDeadline(System.nanoTime()));
+            }
+            return;
         }
 
-        boolean answerCorrect = handleAnswerForFlashcard(indexCard, userAnswer);
+        boolean answerCorrect = deck.handleAnswerForFlashcard(indexCard, userAnswer);
         if (!answerCorrect) {
-            logger.info("Adding into incorrect answer arrays:");
-            int incorrectIndex = indexCard.getIndex();
-            incorrectIndexes.add(incorrectIndex);
-            incorrectFlashcards.add(indexCard);
-            incorrectAnswers.add(userAnswer);
+            logger.info(() -> "Adding into incorrect answer arrays:");
+        }
+        session.recordAnswer(userAnswer, answerCorrect, latencyNanos);
+        deck.logQuizAnswer(indexCard, answerCorrect, latencyNanos, userAnswer);
+    }
+
+    /**
+     * Returns the question to show for the current flashcard of a session, naming its deck if the
+     * session interleaves several decks.
+     */
+    private static String formatQuestion(QuizSession session) {
+        String question = session.getCurrentFlashcard().getQuestion();
+        return session.isInterleaved()
+                ? String.format(QUIZ_ALL_QUESTION, session.getCurrentDeck().getName(), question)
+                : question;
+    }
+
+    /**
+     * Reads an answer, waiting no later than the deadline.
+     *
+     * @param deadlineNanos the deadline from {@link QuizSession#getAnswerDeadline(long)}.
+     * @return the trimmed answer, or {@code null} if the deadline passed first.
+     */
+    private static String readAnswer(long deadlineNanos) {
+        String userAnswer = deadlineNanos == Long.MAX_VALUE
+                ? Ui.getUserCommand()
+                : Ui.getUserCommand(deadlineNanos - System.nanoTime());
+        return userAnswer == null ? null : userAnswer.trim();
+    }
+
+    /**
+     * Returns the Leitner boxes of this deck, reading them from the boxes file on first use.
+     *
+     * <p>Flashcards that are not in the file yet start in the first box, and flashcards deleted
+     * since the file was written are dropped.</p>
+     *
+     * @return the boxes.
+     * @throws FlashCLIArgumentException if the boxes file cannot be read.
+     */
+    public LeitnerBoxes getLeitnerBoxes() throws FlashCLIArgumentException {
+        if (leitnerBoxes == null) {
+            LeitnerBoxes boxes = new LeitnerBoxes();
+            if (sourcePath != null) {
+                try {
+                    BoxesFile.read(BoxesFile.pathFor(sourcePath), boxes);
+                } catch (IOException e) {
+                    logger.warning(() -> "Failed to read the boxes of deck " + name + ": " + e.getMessage());
+                    throw new FlashCLIArgumentException(String.format(PROGRESS_LOAD_ERROR, name));
+                }
+            }
+            for (int box = 1; box <= LeitnerBoxes.BOX_COUNT; box++) {
+                for (int id : boxes.getIds(box)) {
+                    if (getFlashcardById(id) == null) {
+                        boxes.remove(id);
+                    }
+                }
+            }
+            for (int i = 0; i < getFlashcardCount(); i++) {
+                boxes.add(flashcardIdAt(i));
+            }
+            leitnerBoxes = boxes;
+        }
+        return leitnerBoxes;
+    }
+
+    /**
+     * Returns copies of the flashcards for a snapshot.
+     *
+     * <p>Code snippets and schedules are set on flashcards in place, so the snapshot must not
+     * share them with the deck while it is written on another thread.</p>
+     *
+     * @return the copies, in deck order.
+     */
+    public List<Flashcard> captureFlashcards() {
+        List<Flashcard> copies = getFlashcards();
+        copies.replaceAll(Flashcard::copy);
+        return copies;
+    }
+
+    /**
+     * Returns a copy of the Leitner boxes for a snapshot.
+     *
+     * @return the copy, or {@code null} if the boxes were never loaded and are unchanged on disk.
+     */
+    public LeitnerBoxes captureLeitnerBoxes() {
+        return leitnerBoxes == null ? null : leitnerBoxes.copy();
+    }
+
+    /**
+     * Puts a flashcard in a Leitner box.
+     *
+     * @param id  the id of the flashcard.
+     * @param box the box from 1 to {@value LeitnerBoxes#BOX_COUNT}.
+     * @throws FlashCLIArgumentException if the boxes file cannot be read.
+     */
+    public void moveToBox(int id, int box) throws FlashCLIArgumentException {
+        LeitnerBoxes boxes = getLeitnerBoxes();
+        prepareForProgressChange();
+        boxes.moveTo(id, box);
+    }
+
+    /**
+     * Sets the number of the last Leitner session started.
+     *
+     * @param session the session number.
+     * @throws FlashCLIArgumentException if the boxes file cannot be read.
+     */
+    public void setBoxSession(int session) throws FlashCLIArgumentException {
+        LeitnerBoxes boxes = getLeitnerBoxes();
+        prepareForProgressChange();
+        boxes.setSession(session);
+    }
+
+    private void logBoxMove(Flashcard flashcard, boolean isCorrect) throws FlashCLIArgumentException {
+        LeitnerBoxes boxes = getLeitnerBoxes();
+        prepareForProgressChange();
+        int box = isCorrect ? boxes.promote(flashcard.getId()) : boxes.demote(flashcard.getId());
+        Storage.record(JournalRecord.moveToBox(name, flashcard.getId(), box));
+    }
+
+    /**
+     * Starts the next Leitner session and quizzes the flashcards in the boxes due in it.
+     *
+     * <p>Box {@code b} is due every {@code 2^(b-1)} sessions, so the first box comes up every
+     * session and the last one every sixteenth. The due flashcards are read from the front of
+     * their boxes, so no other flashcard is touched.</p>
+     *
+     * @return the number of flashcards in each box after the session, in the format of LEITNER_BOXES.
+     * @throws EmptyListException if the deck has no flashcards.
+     * @throws FlashCLIArgumentException if the boxes or history file cannot be read.
+     * @throws QuizCancelledException if the user cancels the session.
+     */
+    public String studyLeitnerBoxes() throws EmptyListException, FlashCLIArgumentException, QuizCancelledException {
+        if (getFlashcardCount() == 0) {
+            throw new EmptyListException(EMPTY_LIST);
+        }
+        loadProgress();
+        int session = getLeitnerBoxes().getSession() + 1;
+        setBoxSession(session);
+        Storage.record(JournalRecord.startBoxSession(name, session));
+
+        ArrayList<Flashcard> dueFlashcards = new ArrayList<>();
+        StringBuilder dueBoxes = new StringBuilder();
+        for (int box = 1; box <= LeitnerBoxes.BOX_COUNT; box++) {
+            if (LeitnerBoxes.isDue(box, session)) {
+                for (int id : leitnerBoxes.getIds(box)) {
+                    dueFlashcards.add(getFlashcardById(id));
+                }
+                dueBoxes.append(dueBoxes.length() == 0 ? "" : ", ").append(box);
+            }
+        }
+        Ui.showToUser(String.format(LEITNER_START, session, dueBoxes, dueFlashcards.size()));
+        if (!dueFlashcards.isEmpty()) {
+            quizFlashcards(new QuizSession(this, dueFlashcards, new SplittableRandom().nextLong()));
+        }
+        return String.format(LEITNER_BOXES, formatBoxCounts());
+    }
+
+    private String formatBoxCounts() {
+        StringBuilder counts = new StringBuilder();
+        for (int box = 1; box <= LeitnerBoxes.BOX_COUNT; box++) {
+            counts.append(box == 1 ? "" : ", ").append(box).append(": ").append(leitnerBoxes.getCount(box));
+        }
+        return counts.toString();
+    }
+
+    /**
+     * Returns the log of every answer given in this deck, reading it from the history file on first use.
+     *
+     * @return the attempt history.
+     * @throws FlashCLIArgumentException if the history file cannot be read.
+     */
+    public AttemptHistory getAttemptHistory() throws FlashCLIArgumentException {
+        if (attemptHistory == null) {
+            try {
+                attemptHistory = sourcePath == null
+                        ? new AttemptHistory()
+                        : HistoryFile.read(HistoryFile.pathFor(sourcePath));
+            } catch (IOException e) {
+                logger.warning(() -> "Failed to read the history of deck " + name + ": " + e.getMessage());
+                throw new FlashCLIArgumentException(String.format(PROGRESS_LOAD_ERROR, name));
+            }
+        }
+        return attemptHistory;
+    }
+
+    /**
+     * Reads the attempt history and Leitner boxes of this deck if not done yet, so a quiz fails
+     * before its first question rather than when its first answer is recorded.
+     *
+     * @throws FlashCLIArgumentException if the history or boxes file cannot be read.
+     */
+    public void loadProgress() throws FlashCLIArgumentException {
+        getAttemptHistory();
+        getLeitnerBoxes();
+    }
+
+    /**
+     * Returns a frozen view of the attempt history for a snapshot.
+     *
+     * @return the view, or {@code null} if the history was never loaded and is unchanged on disk.
+     */
+    public AttemptHistory captureAttemptHistory() {
+        return attemptHistory == null ? null : attemptHistory.freeze();
+    }
+
+    /**
+     * Appends an answer to the attempt history of this deck.
+     *
+     * @param flashcardId  the id of the flashcard answered.
+     * @param time         when the answer was given, in epoch milliseconds.
+     * @param isCorrect    whether the answer was accepted.
+     * @param latencyNanos how long the answer took, in nanoseconds.
+     * @param answer       the answer given.
+     * @throws FlashCLIArgumentException if the history file cannot be read.
+     */
+    public void recordAttempt(int flashcardId, long time, boolean isCorrect, long latencyNanos, String answer)
+            throws FlashCLIArgumentException {
+        AttemptHistory history = getAttemptHistory();
+        prepareForProgressChange();
+        history.append(flashcardId, time, isCorrect, latencyNanos, answer);
+    }
+
+    /**
+     * Records a graded quiz answer: appends it to the attempt history and moves the flashcard
+     * between Leitner boxes, journalling both. Every quiz mode grades through here. If the history or
+     * boxes file cannot be read, the error is shown and the quiz goes on without recording the answer.
+     *
+     * @param flashcard    the flashcard answered.
+     * @param isCorrect    whether the answer was accepted.
+     * @param latencyNanos how long the answer took, in nanoseconds.
+     * @param answer       the answer given, empty if none was given in time.
+     */
+    void logQuizAnswer(Flashcard flashcard, boolean isCorrect, long latencyNanos, String answer) {
+        try {
+            loadProgress();
+            logAttempt(flashcard, System.currentTimeMillis(), isCorrect, latencyNanos, answer);
+            logBoxMove(flashcard, isCorrect);
+        } catch (FlashCLIArgumentException e) {
+            Ui.showError(e.getMessage());
+        }
+    }
+
+    private void logAttempt(Flashcard flashcard, long time, boolean isCorrect, long latencyNanos, String answer)
+            throws FlashCLIArgumentException {
+        recordAttempt(flashcard.getId(), time, isCorrect, latencyNanos, answer);
+        int latencyMillis = (int) Math.min(Integer.MAX_VALUE, latencyNanos / 1_000_000);
+        Storage.record(JournalRecord.recordAttempt(name, flashcard.getId(), time, isCorrect, latencyMillis, answer));
+    }
+
+    /**
+     * Shows the practice statistics of this deck, read from the running totals of its attempt history.
+     *
+     * @return the statistics in the format of STATS_DECK.
+     * @throws FlashCLIArgumentException if the history file cannot be read.
+     */
+    public String showStatistics() throws FlashCLIArgumentException {
+        AttemptHistory history = getAttemptHistory();
+        return String.format(STATS_DECK, name, history.size(), percentage(history.getCorrectCount(), history.size()),
+                history.getStreak(), history.getBestStreak(), formatLastSeen(history.getLastSeen()));
+    }
+
+    /**
+     * Shows the practice statistics of one flashcard, read from the running totals of the attempt history.
+     *
+     * @param index the 1-based index of the flashcard.
+     * @return the statistics in the format of STATS_FLASHCARD.
+     * @throws ArrayIndexOutOfBoundsException if the index is outside of list size.
+     * @throws FlashCLIArgumentException if the history file cannot be read.
+     */
+    public String showFlashcardStatistics(int index) throws ArrayIndexOutOfBoundsException, FlashCLIArgumentException {
+        if (index <= 0 || index > getFlashcardCount()) {
+            throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
         }
+        int id = flashcardIdAt(index - 1);
+        AttemptHistory history = getAttemptHistory();
+        int attempts = history.getAttempts(id);
+        return String.format(STATS_FLASHCARD, index, attempts, percentage(history.getCorrectCount(id), attempts),
+                history.getStreak(id), formatLastSeen(history.getLastSeen(id)));
+    }
+
+    private static double percentage(int part, int total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+
+    private static String formatLastSeen(long time) {
+        if (time == 0) {
+            return STATS_NEVER;
+        }
+        return LAST_SEEN_FORMAT.format(Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()));
     }
 
     /**
@@ -377,52 +1515,73 @@ public class Deck {
     public boolean handleAnswerForFlashcard (Flashcard indexCard, String userAnswer)
             throws QuizCancelledException {
         if(userAnswer.equals(QUIZ_CANCEL)) {
-            logger.info("Quiz cancelled by user. Exiting quiz:");
-            incorrectIndexes.clear();
-            incorrectFlashcards.clear();
-            incorrectAnswers.clear();
+            logger.info(() -> "Quiz cancelled by user. Exiting quiz:");
             throw new QuizCancelledException(QUIZ_CANCEL_MESSAGE);
         }
 
-        logger.info("answer detected:" + userAnswer);
-        if (userAnswer.equals(indexCard.getAnswer())) {
-            logger.info("Correct answer detected");
+        logger.info(() -> "answer detected:" + userAnswer);
+        if (isCorrectAnswer(indexCard, userAnswer)) {
+            logger.info(() -> "Correct answer detected");
             Ui.showToUser(QUIZ_CORRECT);
             return true;
         } else {
-            logger.info("Wrong answer detected, should be:" +
+            logger.info(() -> "Wrong answer detected, should be:" +
                     indexCard.getAnswer());
             Ui.showToUser(QUIZ_INCORRECT);
             return false;
         }
     }
 
+    /**
+     * Returns whether a reply counts as the answer of a flashcard under the answer matcher of this deck.
+     *
+     * @param flashcard the flashcard being answered.
+     * @param reply     the reply as typed by the user.
+     * @return true if the reply is accepted.
+     */
+    public boolean isCorrectAnswer(Flashcard flashcard, String reply) {
+        return answerMatcher.matches(flashcard.getAnswerKey(), AnswerKey.normalize(reply));
+    }
+
+    /**
+     * Sets how replies are graded in quizzes and reviews of this deck.
+     *
+     * @param answerMatcher the matcher to grade with.
+     */
+    public void setAnswerMatcher(AnswerMatcher answerMatcher) {
+        this.answerMatcher = answerMatcher;
+    }
+
+    /**
+     * Handles showing the result of the last completed quiz of this deck
+     *
+     * @return a success message indicating the result has been shown.
+     * @throws  FlashCLIArgumentException if no quiz is completed
+     */
+    public String showQuizResult() throws FlashCLIArgumentException {
+        return showQuizResult(lastQuizSession);
+    }
 
     /**
-     <<<<<<< HEAD
      * Handles showing result upon the completion of a quiz
      *
+     * @param session the quiz session to show, may be null if there is none
      * @return a success message indicating the result has been shown.
-     * @throws  FlashCLIArgumentException if the quiz is not completed or mismatched arrays
+     * @throws  FlashCLIArgumentException if the quiz is not completed
      */
     //@@author shunyang12
-    public String showQuizResult() throws FlashCLIArgumentException {
-        logger.info("Trying to generate your quiz result...");
+    public String showQuizResult(QuizSession session) throws FlashCLIArgumentException {
+        logger.info(() -> "Trying to generate your quiz result...");
 
-        if (isQuizCompleted == false) {
+        if (session == null || !session.isCompleted()) {
             throw new FlashCLIArgumentException(INCOMPLETED_QUIZ);
         }
 
-        int incorrectAnswersSize = incorrectAnswers.size();
-        int incorrectIndexesSize = incorrectIndexes.size();
-        int incorrectFlashcardsSize = incorrectFlashcards.size();
-        int totalQuestionsSize = queue.size();
-
-        if (incorrectAnswersSize != incorrectIndexesSize | incorrectAnswersSize != incorrectFlashcardsSize | incorrectIndexesSize != incorrectFlashcardsSize) {
-            throw new FlashCLIArgumentException(MISMATCHED_ARRAYS);
-        }
+        int incorrectAnswersSize = session.getIncorrectCount();
+        int totalQuestionsSize = session.getQuestionCount();
 
         Ui.showToUser("You have answered " + totalQuestionsSize + " questions in the quiz.");
+        showAnswerTimes(session);
 
         if (incorrectAnswersSize == 0) {
             return QUIZRESULT_FULL_MARKS;
@@ -433,53 +1592,67 @@ public class Deck {
 
         Ui.showToUser("Review your mistakes: ");
 
-        showMistakes();
-
-//        ChooseToEnterAnotherRound();
+        showMistakes(session);
+        Ui.showToUser(QUIZRESULT_RETRY_HINT);
 
         return VIEW_QUIZRESULT_SUCCESS;
     }
 
     /**
-     * Handles showing result upon the completion of a quiz
+     * Shows the answer time percentiles of a quiz and of every quiz of this deck, then the slowest flashcards.
      *
-     * @throws  FlashCLIArgumentException if the quiz is not completed or mismatched arrays
+     * @param session the completed quiz session
      */
-    //@@author shunyang12
-    public void showMistakes() throws ArrayIndexOutOfBoundsException {
-        int wrongAnswerCount = 0;
-        for (Integer indexIncorrect: incorrectIndexes) {
-            if(indexIncorrect < 0 | indexIncorrect >= queue.size() ) {
-                throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
-            }
+    private void showAnswerTimes(QuizSession session) {
+        LatencyHistogram latencies = session.getLatencyHistogram();
+        Ui.showToUser(String.format(QUIZRESULT_ANSWER_TIMES, formatLatency(latencies.getPercentile(50)),
+                formatLatency(latencies.getPercentile(90)), formatLatency(latencies.getPercentile(99))));
+        if (answerLatencies.getCount() > latencies.getCount()) {
+            Ui.showToUser(String.format(QUIZRESULT_DECK_ANSWER_TIMES, answerLatencies.getCount(),
+                    formatLatency(answerLatencies.getPercentile(50)), formatLatency(answerLatencies.getPercentile(90)),
+                    formatLatency(answerLatencies.getPercentile(99))));
+        }
 
-            Ui.showToUser("FlashCard " + indexIncorrect + " question: " + flashcards.get(indexIncorrect).getQuestion() +
-                    " correct answer: " + flashcards.get(indexIncorrect).getAnswer() + " Your answer: " +
-                    incorrectAnswers.get(wrongAnswerCount));
-            wrongAnswerCount++;
+        Ui.showToUser(QUIZRESULT_SLOWEST);
+        for (int question : session.getSlowestQuestions(SLOWEST_FLASHCARDS_SHOWN)) {
+            Flashcard slowFlashcard = session.getFlashcardAt(question);
+            Ui.showToUser(String.format(QUIZRESULT_SLOW_FLASHCARD, formatLatency(session.getLatencyAt(question)),
+                    slowFlashcard.getQuestion()));
         }
     }
 
+    private static String formatTimeLimit(long nanos) {
+        return nanos > 0 ? formatLatency(nanos) : QUIZ_NO_TIME_LIMIT;
+    }
+
+    private static String formatLatency(long nanos) {
+        double seconds = nanos / 1e9;
+        return seconds >= 1 ? String.format("%.1fs", seconds) : String.format("%dms", nanos / 1_000_000);
+    }
+
     /**
-     * Give user another chance to take the quiz with only wrong answers from the last round, enhancing their understanding
+     * Handles showing the mistakes of a completed quiz
      *
+     * @param session the completed quiz session
      */
-//    //@@author shunyang12
-//    public void ChooseToEnterAnotherRound() {
-//        Ui.showToUser("Enter another to have a second quiz reviewing only your wrong questions. enter any message to continue");
-//        String fullInputLine = Ui.getUserCommand();
-//        if(fullInputLine.equals(ANOTHER)) {
-//            try {
-//                quizFlashcards(false);;
-//            } catch (EmptyListException e) {
-//                Ui.showError(e.getMessage());
-//            } catch (QuizCancelledException e) {
-//                Ui.showToUser(e.getMessage());
-//            }
-//        } else {
-//            Ui.showToUser("Continue...");
-//        }
-//    }
+    //@@author shunyang12
+    public void showMistakes(QuizSession session) {
+        for (int question = 0; question < session.getQuestionCount(); question++) {
+            String incorrectAnswer = session.getIncorrectAnswerAt(question);
+            if (incorrectAnswer == null) {
+                continue;
+            }
+            Flashcard incorrectFlashcard = getFlashcardById(session.getFlashcardAt(question).getId());
+            if (incorrectFlashcard == null) {
+                // deleted since the quiz, show it as it was asked
+                incorrectFlashcard = session.getFlashcardAt(question);
+            }
+            int indexIncorrect = indexOf(incorrectFlashcard);
+            Ui.showToUser("FlashCard " + indexIncorrect + " question: " + incorrectFlashcard.getQuestion() +
+                    " correct answer: " + incorrectFlashcard.getAnswer() + " Your answer: " + incorrectAnswer);
+        }
+    }
+
     /**
      * Inserts code snippets to the flashcard
      *
@@ -492,30 +1665,50 @@ public class Deck {
     public String insertCodeSnippet(int index, String arguments)
             throws ArrayIndexOutOfBoundsException,
             FlashCLIArgumentException {
-        boolean containsAllArguments = arguments.contains("/c");
-        if (!containsAllArguments) {
+        ArgumentLexer lexer = new ArgumentLexer(arguments, CODE_FLAG);
+        CharSequence code = lexer.get(CODE_FLAG);
+        if (code == null) {
             throw new FlashCLIArgumentException(INSERT_MISSING_FIELD);
         }
-        int codeStart = arguments.indexOf("/c");
 
-        if (index <= 0 || index > flashcards.size()) {
+        if (index <= 0 || index > getFlashcardCount()) {
             throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
         }
-        String codeSnippet = arguments.substring(codeStart + "/c".length()).trim();
+        String codeSnippet = code.toString();
         if (codeSnippet.isEmpty()) {
             throw new FlashCLIArgumentException(INSERT_MISSING_CODE);
         }
         String formattedCodeSnippet = Parser.parseCodeSnippet(codeSnippet);
 
-        int arrayIndex = index - 1;
-        Flashcard insertFlashcard = flashcards.get(arrayIndex);
-
-        insertFlashcard.setCodeSnippet(formattedCodeSnippet);
+        Flashcard insertFlashcard = setCodeSnippet(index, formattedCodeSnippet);
+        Storage.record(JournalRecord.insertCode(name, index, formattedCodeSnippet));
         return String.format(INSERT_SUCCESS,
                 insertFlashcard.getQuestion(), insertFlashcard.getAnswer(),
                 formattedCodeSnippet);
     }
 
+    /**
+     * Sets the code snippet of the flashcard at the given index.
+     *
+     * @param index       1-based index of the flashcard.
+     * @param codeSnippet the formatted code snippet.
+     * @return the flashcard that was updated.
+     * @throws ArrayIndexOutOfBoundsException if the index is outside of list size
+     */
+    public Flashcard setCodeSnippet(int index, String codeSnippet) throws ArrayIndexOutOfBoundsException {
+        if (index <= 0 || index > getFlashcardCount()) {
+            throw new ArrayIndexOutOfBoundsException(VIEW_OUT_OF_BOUNDS);
+        }
+        prepareForChange();
+        Flashcard insertFlashcard = flashcards.get(index - 1);
+        heapBytes -= estimateHeapBytes(insertFlashcard);
+        removeFromIndexes(insertFlashcard);
+        insertFlashcard.setCodeSnippet(codeSnippet);
+        addToIndexes(insertFlashcard);
+        heapBytes += estimateHeapBytes(insertFlashcard);
+        return insertFlashcard;
+    }
+
     /**
      * Inserts code snippets to the flashcard
      *
@@ -554,9 +1747,28 @@ public class Deck {
 
 
 
-    public ArrayList<Flashcard> shuffleDeck (ArrayList<Flashcard> deck) {
-        //add shuffle deck code here
-
-        return deck;
+    /**
+     * Returns a random order of the positions {@code 0} to {@code size - 1}, using a Fisher-Yates shuffle.
+     *
+     * <p>Only the positions are shuffled, so the flashcards themselves are neither copied nor
+     * moved, and the order costs a single {@code int[]}. The same seed always gives the same order.</p>
+     *
+     * @param size the number of flashcards to order.
+     * @param seed the seed of the order.
+     * @return the shuffled positions.
+     */
+    public static int[] shuffleOrder(int size, long seed) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
     }
 }
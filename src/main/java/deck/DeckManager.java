@@ -1,22 +1,52 @@
 package deck;
 
+import static constants.CommandConstants.ALL_FLAG;
+import static constants.CommandConstants.OUTPUT_FLAG;
+import static constants.CommandConstants.QUIZ_ALL;
+import static constants.ErrorMessages.DECK_LOAD_ERROR;
 import static constants.ErrorMessages.DUPLICATE_DECK_NAME;
 import static constants.ErrorMessages.EMPTY_DECK_NAME;
+import static constants.ErrorMessages.EMPTY_LIST;
+import static constants.ErrorMessages.EXPORT_FILE_ERROR;
+import static constants.ErrorMessages.EXPORT_INVALID_ARGUMENTS;
+import static constants.ErrorMessages.EXPORT_MISSING_FILE;
 import static constants.ErrorMessages.MISSING_DECK_NAME;
+import static constants.ErrorMessages.NO_DECK_ERROR;
 import static constants.ErrorMessages.NO_DECK_TO_SWITCH;
 import static constants.ErrorMessages.NO_DECK_TO_VIEW;
 import static constants.ErrorMessages.NO_SUCH_DECK;
+import static constants.ErrorMessages.QUIZ_ALL_NO_SUCH_DECK;
 import static constants.ErrorMessages.UNCHANGED_DECK_NAME;
 import static constants.SuccessMessages.CREATE_DECK_SUCCESS;
+import static constants.SuccessMessages.EXPORT_SUCCESS;
+import static constants.SuccessMessages.QUIZ_ALL_RESULT;
 import static constants.SuccessMessages.RENAME_DECK_SUCCESS;
 import static constants.SuccessMessages.SWITCH_DECK_SUCCESS;
 import static constants.SuccessMessages.VIEW_DECKS_SUCCESS;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
+import java.util.SplittableRandom;
 
+import exceptions.EmptyListException;
 import exceptions.FlashCLIArgumentException;
+import exceptions.QuizCancelledException;
+import logger.LazyLogger;
+import parser.ArgumentLexer;
+import storage.DeckExporter;
+import storage.JournalRecord;
+import storage.Storage;
+import ui.Ui;
 
 /**
  * Manages a collection of Deck objects, allowing operations such as creation,
@@ -26,6 +56,10 @@ import exceptions.FlashCLIArgumentException;
  * all available decks. It provides methods to manage decks and enforce
  * constraints like unique deck names.</p>
  *
+ * <p>Decks loaded from disk are only lightweight handles until they are selected. Loaded
+ * decks are tracked in least-recently-used order, and cold decks without unsaved changes
+ * are evicted whenever their estimated heap usage exceeds the configurable budget.</p>
+ *
  * <p>Throws {@code FlashCLIArgumentException} for invalid input conditions.</p>
  */
 
@@ -33,7 +67,10 @@ import exceptions.FlashCLIArgumentException;
 public class DeckManager {
     public static Deck currentDeck;
     public static LinkedHashMap<String, Deck> decks = new LinkedHashMap<>();
-    private static final Logger logger = Logger.getLogger(DeckManager.class.getName());
+    public static final String HEAP_BUDGET_PROPERTY = "flashcli.deckHeapBudget";
+    private static final LazyLogger logger = LazyLogger.getLogger(DeckManager.class);
+    private static final LinkedHashMap<Deck, Deck> recentlyUsedDecks = new LinkedHashMap<>(16, 0.75f, true);
+    private static long heapBudgetBytes = parseHeapBudget(System.getProperty(HEAP_BUDGET_PROPERTY));
 
     /**
      * Returns the number of decks currently stored.
@@ -52,22 +89,25 @@ public class DeckManager {
      * @throws FlashCLIArgumentException if the name is empty or already exists.
      */
     public static String createDeck(String arguments) throws FlashCLIArgumentException {
-        logger.info("Entering createDeck method with arguments: " + arguments);
+        logger.info(() -> "Entering createDeck method with arguments: " + arguments);
 
         String newDeckName = arguments.trim();
 
         if (newDeckName.isEmpty()) {
-            logger.warning("Deck name is empty.");
+            logger.warning(() -> "Deck name is empty.");
             throw new FlashCLIArgumentException(MISSING_DECK_NAME);
         }
 
         if (decks.containsKey(newDeckName)) {
-            logger.warning("Attempt to create duplicate deck: " + newDeckName);
+            logger.warning(() -> "Attempt to create duplicate deck: " + newDeckName);
             throw new FlashCLIArgumentException(DUPLICATE_DECK_NAME);
         }
 
-        decks.put(newDeckName, new Deck(newDeckName));
-        logger.info("Deck created successfully: " + newDeckName);
+        Deck newDeck = new Deck(newDeckName);
+        decks.put(newDeckName, newDeck);
+        loadDeck(newDeck);
+        Storage.record(JournalRecord.createDeck(newDeckName));
+        logger.info(() -> "Deck created successfully: " + newDeckName);
 
         assert decks.containsKey(newDeckName) : "Deck was not added successfully!";
 
@@ -82,11 +122,11 @@ public class DeckManager {
      * @throws FlashCLIArgumentException if the name is empty or already exists.
      */
     public static String renameDeck(String arguments) throws FlashCLIArgumentException {
-        logger.info("Entering renameDeck method with arguments: " + arguments);
+        logger.info(() -> "Entering renameDeck method with arguments: " + arguments);
 
         String newDeckName = arguments.trim();
         if (newDeckName.isEmpty()) {
-            logger.warning("Deck name is empty.");
+            logger.warning(() -> "Deck name is empty.");
             throw new FlashCLIArgumentException(EMPTY_DECK_NAME);
         }
 
@@ -94,30 +134,45 @@ public class DeckManager {
         boolean isDeckNameDuplicate = decks.containsKey(newDeckName);
 
         if (isNewDeckNameSameAsCurrent) {
-            logger.warning("Deck name is unchanged");
+            logger.warning(() -> "Deck name is unchanged");
             throw new FlashCLIArgumentException(UNCHANGED_DECK_NAME);
         }
 
         if (isDeckNameDuplicate) {
-            logger.warning("Attempt to rename deck to an existing deck name: " + newDeckName);
+            logger.warning(() -> "Attempt to rename deck to an existing deck name: " + newDeckName);
             throw new FlashCLIArgumentException(DUPLICATE_DECK_NAME);
         }
 
         String oldDeckName = currentDeck.getName();
-        logger.info("Renaming deck: " + oldDeckName + " -> " + newDeckName);
+        logger.info(() -> "Renaming deck: " + oldDeckName + " -> " + newDeckName);
 
-        decks.remove(oldDeckName);
-        createDeck(newDeckName);
+        renameDeck(currentDeck, newDeckName);
+        Storage.record(JournalRecord.renameDeck(oldDeckName, newDeckName));
         switchDeck(newDeckName);
 
         assert !decks.containsKey(oldDeckName) : "Old deck name still exists after renaming!";
         assert decks.containsKey(newDeckName) : "New deck name was not successfully added!";
         assert currentDeck.getName().equals(newDeckName) : "Current deck name was not updated properly!";
 
-        logger.info("Deck renamed successfully: " + oldDeckName + " -> " + newDeckName);
+        logger.info(() -> "Deck renamed successfully: " + oldDeckName + " -> " + newDeckName);
         return String.format(RENAME_DECK_SUCCESS, oldDeckName, currentDeck.getName());
     }
 
+    /**
+     * Renames the given deck, keeping its flashcards.
+     *
+     * <p>Unlike {@link #renameDeck(String)}, this does not validate the new name
+     * and is used to re-apply renames that were already validated.</p>
+     *
+     * @param deck        the deck to rename.
+     * @param newDeckName the new name for the deck.
+     */
+    public static void renameDeck(Deck deck, String newDeckName) {
+        decks.remove(deck.getName());
+        deck.setName(newDeckName);
+        decks.put(newDeckName, deck);
+    }
+
     /**
      * Returns a formatted list of all decks.
      *
@@ -125,10 +180,10 @@ public class DeckManager {
      * @throws FlashCLIArgumentException if there are no decks to view.
      */
     public static String viewDecks() throws FlashCLIArgumentException {
-        logger.info("Entering viewDecks method");
+        logger.info(() -> "Entering viewDecks method");
 
         if (decks.isEmpty()) {
-            logger.warning("Attempted to view decks, but no decks are available.");
+            logger.warning(() -> "Attempted to view decks, but no decks are available.");
             throw new FlashCLIArgumentException(NO_DECK_TO_VIEW);
         }
 
@@ -147,10 +202,173 @@ public class DeckManager {
         assert actualDeckCount == expectedDeckCount :
                 "Mismatch in deck count! Expected: " + expectedDeckCount + ", Found: " + actualDeckCount;
 
-        logger.info("Decks viewed successfully. Total decks: " + expectedDeckCount);
+        logger.info(() -> "Decks viewed successfully. Total decks: " + expectedDeckCount);
         return String.format(VIEW_DECKS_SUCCESS, deckList);
     }
 
+    /**
+     * Exports the current deck, or all decks with {@code /all}, to a file given with {@code /o}.
+     * The flags may be given in either order.
+     *
+     * <p>The file is a binary backup in the format of {@link DeckExporter}. It is never written to
+     * standard output, and {@code import} does not read it back.</p>
+     *
+     * @param arguments the optional {@code /all} flag and the {@code /o} file path.
+     * @return a success message with the number of decks and bytes exported.
+     * @throws FlashCLIArgumentException if there is nothing to export, no file is given or it cannot be written.
+     */
+    public static String exportDecks(String arguments) throws FlashCLIArgumentException {
+        logger.info(() -> "Entering exportDecks method with arguments: " + arguments);
+
+        ArgumentLexer lexer = new ArgumentLexer(arguments, ALL_FLAG, OUTPUT_FLAG);
+        CharSequence all = lexer.get(ALL_FLAG);
+        CharSequence outputFile = lexer.get(OUTPUT_FLAG);
+        boolean isAllDecks = all != null;
+        String fileName = outputFile == null ? "" : outputFile.toString();
+        if (lexer.getPreamble().length() > 0 || (isAllDecks && all.length() > 0)
+                || (outputFile != null && fileName.isEmpty())) {
+            throw new FlashCLIArgumentException(EXPORT_INVALID_ARGUMENTS);
+        }
+        if (outputFile == null) {
+            throw new FlashCLIArgumentException(EXPORT_MISSING_FILE);
+        }
+        if (isAllDecks && decks.isEmpty()) {
+            throw new FlashCLIArgumentException(NO_DECK_TO_VIEW);
+        }
+        if (!isAllDecks && currentDeck == null) {
+            throw new FlashCLIArgumentException(NO_DECK_ERROR);
+        }
+
+        int deckCount = isAllDecks ? decks.size() : 1;
+        long byteCount;
+        try (FileChannel output = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            byteCount = export(isAllDecks, output);
+        } catch (IOException | UncheckedIOException | InvalidPathException e) {
+            logger.warning(() -> "Failed to export decks: " + e.getMessage());
+            throw new FlashCLIArgumentException(String.format(EXPORT_FILE_ERROR, fileName));
+        }
+
+        logger.info(() -> "Exported " + deckCount + " deck(s), " + byteCount + " bytes");
+        return String.format(EXPORT_SUCCESS, deckCount, byteCount, fileName);
+    }
+
+    private static long export(boolean isAllDecks, WritableByteChannel output) throws IOException {
+        return isAllDecks
+                ? DeckExporter.exportArchive(decks.values(), output)
+                : DeckExporter.exportDeck(currentDeck, output);
+    }
+
+    /**
+     * Quizzes the flashcards of several decks in one session, interleaving the decks evenly.
+     *
+     * <p>The quiz is run as a {@link QuizSession} like a quiz of one deck, with the same seed and
+     * time limits, and each answer is graded and recorded by the deck the flashcard belongs to. The
+     * session becomes the last quiz of every deck in it, for viewing its result and retrying its
+     * mistakes deck by deck.</p>
+     *
+     * <p>Each deck file is mapped to count its flashcards, one deck at a time with the heap budget
+     * enforced in between, and a flashcard is only decoded when it is asked. A deck evicted during
+     * the quiz is loaded again when its next flashcard is asked, evicting others to meet the budget.</p>
+     *
+     * @param arguments the names of the decks to quiz, or nothing for every deck, then an optional seed
+     *                  and time limits.
+     * @return a summary of the quiz in the format of QUIZ_ALL_RESULT.
+     * @throws FlashCLIArgumentException if a deck does not exist or cannot be loaded, or a time limit is invalid.
+     * @throws EmptyListException if the decks have no flashcards.
+     * @throws QuizCancelledException if the user cancels the quiz.
+     */
+    public static String quizDecks(String arguments)
+            throws FlashCLIArgumentException, EmptyListException, QuizCancelledException {
+        logger.info(() -> "Entering quizDecks method with arguments: " + arguments);
+
+        List<Deck> quizzedDecks = new ArrayList<>();
+        StringBuilder deckNames = new StringBuilder();
+        long seed = new SplittableRandom().nextLong();
+        long questionLimitNanos = 0;
+        long quizLimitNanos = 0;
+        String[] tokens = arguments.trim().split("\\s+");
+        for (int i = 0; i < tokens.length; i++) {
+            switch (tokens[i]) {
+            case "":
+                break;
+            case "/t":
+                questionLimitNanos = QuizSession.parseTimeLimit(tokens, ++i);
+                break;
+            case "/total":
+                quizLimitNanos = QuizSession.parseTimeLimit(tokens, ++i);
+                break;
+            default:
+                Deck deck = decks.get(tokens[i]);
+                if (deck != null) {
+                    if (!quizzedDecks.contains(deck)) {
+                        quizzedDecks.add(deck);
+                        deckNames.append(' ').append(deck.getName());
+                    }
+                } else {
+                    seed = parseSeed(tokens[i]);
+                }
+                break;
+            }
+        }
+        if (quizzedDecks.isEmpty()) {
+            quizzedDecks.addAll(decks.values());
+        }
+        for (Deck deck : quizzedDecks) {
+            loadDeck(deck);
+            enforceHeapBudget();
+        }
+
+        InterleavedQuiz quiz = new InterleavedQuiz(quizzedDecks, seed, DeckManager::readQuizDeck);
+        int questionCount = quiz.getQuestionsLeft();
+        if (questionCount == 0) {
+            throw new EmptyListException(EMPTY_LIST);
+        }
+        QuizSession session = new QuizSession(quiz, seed);
+        session.setTimeLimits(questionLimitNanos, quizLimitNanos);
+        session.setRepeatCommand(QUIZ_ALL + deckNames + " " + seed);
+        try {
+            Deck.quizFlashcards(session);
+        } catch (UncheckedIOException e) {
+            String deckName = quiz.getCurrentDeck().getName();
+            logger.warning(() -> "Failed to load deck '" + deckName + "': " + e.getMessage());
+            throw new FlashCLIArgumentException(String.format(DECK_LOAD_ERROR, deckName));
+        }
+
+        int deckCount = session.getDecks().size();
+        logger.info(() -> "Quizzed " + questionCount + " flashcards from " + deckCount + " decks");
+        return String.format(QUIZ_ALL_RESULT, questionCount - session.getIncorrectCount(), questionCount,
+                deckCount, session.getElapsedSeconds());
+    }
+
+    /**
+     * Parses an argument of quiz_all that is not a deck name as the seed of the question order.
+     *
+     * @throws FlashCLIArgumentException if the argument is not a whole number either.
+     */
+    private static long parseSeed(String argument) throws FlashCLIArgumentException {
+        try {
+            return Long.parseLong(argument);
+        } catch (NumberFormatException e) {
+            logger.warning(() -> "Deck '" + argument + "' does not exist.");
+            throw new FlashCLIArgumentException(String.format(QUIZ_ALL_NO_SUCH_DECK, argument));
+        }
+    }
+
+    /**
+     * Tracks a deck a quiz of several decks reads a flashcard from as the most recently used,
+     * loading it again if it was evicted during the quiz after evicting others to meet the budget.
+     *
+     * @throws UncheckedIOException if the deck file cannot be opened.
+     */
+    private static void readQuizDeck(Deck deck) {
+        if (!deck.isLoaded()) {
+            enforceHeapBudget();
+            deck.load();
+        }
+        recentlyUsedDecks.put(deck, deck);
+    }
+
     /**
      * Switches the current deck to the specified deck.
      *
@@ -159,32 +377,143 @@ public class DeckManager {
      * @throws FlashCLIArgumentException if the deck does not exist or input is invalid.
      */
     public static String switchDeck(String arguments) throws FlashCLIArgumentException {
-        logger.info("Entering switchDeck method with arguments: " + arguments);
+        logger.info(() -> "Entering switchDeck method with arguments: " + arguments);
 
         String deckName = arguments.trim();
 
         if (decks.isEmpty()) {
-            logger.warning("Attempted to switch decks, but no decks are available.");
+            logger.warning(() -> "Attempted to switch decks, but no decks are available.");
             throw new FlashCLIArgumentException(NO_DECK_TO_SWITCH);
         }
         if (deckName.isEmpty()) {
-            logger.warning("Deck name is empty.");
+            logger.warning(() -> "Deck name is empty.");
             throw new FlashCLIArgumentException(EMPTY_DECK_NAME);
         }
 
         if (!decks.containsKey(deckName)) {
-            logger.warning("Deck '" + deckName + "' does not exist.");
+            logger.warning(() -> "Deck '" + deckName + "' does not exist.");
             throw new FlashCLIArgumentException(NO_SUCH_DECK);
         }
 
-        currentDeck = decks.get(deckName);
-        logger.info("Switched to deck: " + currentDeck.getName());
+        Deck selectedDeck = decks.get(deckName);
+        loadDeck(selectedDeck);
+        currentDeck = selectedDeck;
+        enforceHeapBudget();
+        logger.info(() -> "Switched to deck: " + currentDeck.getName());
 
         assert currentDeck != null : "Current deck should not be null after switching!";
         assert decks.containsKey(currentDeck.getName()) : "Switched deck does not exist in decks!";
 
-        logger.info("Deck switched successfully: " + currentDeck.getName());
+        logger.info(() -> "Deck switched successfully: " + currentDeck.getName());
         return String.format(SWITCH_DECK_SUCCESS, currentDeck.getName());
     }
-}
 
+    /**
+     * Loads a deck for use and marks it as the most recently used.
+     *
+     * <p>Every deck that is read or changed outside the current deck is loaded through here,
+     * so all decks held in memory are tracked for eviction.</p>
+     *
+     * @param deck the deck to load.
+     * @throws FlashCLIArgumentException if the deck file cannot be opened.
+     */
+    public static void loadDeck(Deck deck) throws FlashCLIArgumentException {
+        try {
+            deck.load();
+        } catch (UncheckedIOException e) {
+            logger.warning(() -> "Failed to load deck '" + deck.getName() + "': " + e.getMessage());
+            throw new FlashCLIArgumentException(String.format(DECK_LOAD_ERROR, deck.getName()));
+        }
+        recentlyUsedDecks.put(deck, deck);
+    }
+
+    /**
+     * Returns the heap budget for materialized decks.
+     *
+     * @return the budget in bytes.
+     */
+    public static long getHeapBudget() {
+        return heapBudgetBytes;
+    }
+
+    /**
+     * Sets the heap budget for materialized decks and evicts decks to meet it.
+     *
+     * @param budgetBytes the new budget in bytes.
+     */
+    public static void setHeapBudget(long budgetBytes) {
+        assert budgetBytes >= 0 : "Heap budget should not be negative";
+        heapBudgetBytes = budgetBytes;
+        enforceHeapBudget();
+    }
+
+    /**
+     * Evicts the least recently used decks until the estimated heap used by all loaded
+     * decks fits in the budget.
+     *
+     * <p>The current deck and decks with unsaved changes are never evicted, so the budget
+     * is a target rather than a hard limit.</p>
+     *
+     * @return the number of decks evicted.
+     */
+    public static int enforceHeapBudget() {
+        long usedBytes = 0;
+        for (Deck deck : recentlyUsedDecks.keySet()) {
+            usedBytes += deck.getHeapBytes();
+        }
+
+        int evictedCount = 0;
+        Iterator<Deck> leastRecentlyUsed = recentlyUsedDecks.keySet().iterator();
+        while (usedBytes > heapBudgetBytes && leastRecentlyUsed.hasNext()) {
+            Deck deck = leastRecentlyUsed.next();
+            if (deck == currentDeck) {
+                continue;
+            }
+            long deckBytes = deck.getHeapBytes();
+            if (deck.evict()) {
+                leastRecentlyUsed.remove();
+                usedBytes -= deckBytes;
+                evictedCount++;
+            }
+        }
+        if (evictedCount > 0) {
+            int decksEvicted = evictedCount;
+            long bytesInUse = usedBytes;
+            logger.info(() -> "Evicted " + decksEvicted + " decks, estimated heap in use: " + bytesInUse + " bytes");
+        }
+        return evictedCount;
+    }
+
+    /**
+     * Parses a heap budget such as {@code 67108864}, {@code 512k}, {@code 64m} or {@code 1g}.
+     * Defaults to a quarter of the maximum heap if the value is missing or invalid.
+     */
+    private static long parseHeapBudget(String value) {
+        long defaultBudget = Runtime.getRuntime().maxMemory() / 4;
+        if (value == null || value.isBlank()) {
+            return defaultBudget;
+        }
+        String trimmed = value.trim().toLowerCase();
+        long multiplier = 1;
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+        case 'k':
+            multiplier = 1L << 10;
+            break;
+        case 'm':
+            multiplier = 1L << 20;
+            break;
+        case 'g':
+            multiplier = 1L << 30;
+            break;
+        default:
+            break;
+        }
+        String digits = multiplier == 1 ? trimmed : trimmed.substring(0, trimmed.length() - 1);
+        try {
+            return Long.parseLong(digits) * multiplier;
+        } catch (NumberFormatException e) {
+            logger.warning(() -> "Invalid " + HEAP_BUDGET_PROPERTY + " value: " + value);
+            return defaultBudget;
+        }
+    }
+}
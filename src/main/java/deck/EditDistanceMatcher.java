@@ -0,0 +1,109 @@
+package deck;
+
+/**
+ * Accepts replies within a bounded edit distance of the answer.
+ *
+ * <p>The allowed number of character insertions, deletions and substitutions grows with the
+ * length of the answer, so short answers still have to be exact. Answers of up to 64 characters
+ * are compared with Myers' bit-parallel algorithm, which processes a whole column of the edit
+ * distance table per reply character using the bitmasks in the {@link AnswerKey}. Longer answers
+ * fall back to a dynamic program restricted to the diagonal band the bound allows. Both stop
+ * as soon as the bound can no longer be met.</p>
+ */
+public class EditDistanceMatcher implements AnswerMatcher {
+    private final int charactersPerError;
+    private final int maxErrors;
+
+    /**
+     * Creates a matcher allowing one error for every {@code charactersPerError} characters of the answer.
+     *
+     * @param charactersPerError the answer length that earns one allowed error.
+     * @param maxErrors          the most errors allowed, however long the answer.
+     */
+    public EditDistanceMatcher(int charactersPerError, int maxErrors) {
+        assert charactersPerError > 0 : "Characters per error must be positive";
+        this.charactersPerError = charactersPerError;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public boolean matches(AnswerKey key, String normalizedReply) {
+        String answer = key.getNormalized();
+        int allowedErrors = Math.min(maxErrors, answer.length() / charactersPerError);
+        if (Math.abs(answer.length() - normalizedReply.length()) > allowedErrors) {
+            return false;
+        }
+        if (answer.length() <= AnswerKey.MAX_BIT_PARALLEL_LENGTH) {
+            return isWithinDistanceBitParallel(key, normalizedReply, allowedErrors);
+        }
+        return isWithinDistanceBanded(answer, normalizedReply, allowedErrors);
+    }
+
+    /**
+     * Runs Myers' algorithm in the formulation of Hyyro, tracking the score of the last answer row.
+     */
+    private static boolean isWithinDistanceBitParallel(AnswerKey key, String reply, int allowedErrors) {
+        int answerLength = key.getNormalized().length();
+        if (answerLength == 0) {
+            return reply.length() <= allowedErrors;
+        }
+        long lastRowBit = 1L << (answerLength - 1);
+        long positiveVertical = -1L;
+        long negativeVertical = 0;
+        int score = answerLength;
+        for (int j = 0; j < reply.length(); j++) {
+            long matches = key.maskOf(reply.charAt(j));
+            long verticalChange = matches | negativeVertical;
+            long horizontalChange = (((matches & positiveVertical) + positiveVertical) ^ positiveVertical) | matches;
+            long positiveHorizontal = negativeVertical | ~(horizontalChange | positiveVertical);
+            long negativeHorizontal = positiveVertical & horizontalChange;
+            if ((positiveHorizontal & lastRowBit) != 0) {
+                score++;
+            } else if ((negativeHorizontal & lastRowBit) != 0) {
+                score--;
+            }
+            if (score - (reply.length() - 1 - j) > allowedErrors) {
+                return false;
+            }
+            positiveHorizontal = (positiveHorizontal << 1) | 1;
+            negativeHorizontal <<= 1;
+            positiveVertical = negativeHorizontal | ~(verticalChange | positiveHorizontal);
+            negativeVertical = positiveHorizontal & verticalChange;
+        }
+        return score <= allowedErrors;
+    }
+
+    /**
+     * Computes the edit distance table only within {@code allowedErrors} of its diagonal.
+     */
+    private static boolean isWithinDistanceBanded(String answer, String reply, int allowedErrors) {
+        int outOfBand = allowedErrors + 1;
+        int[] previous = new int[reply.length() + 1];
+        int[] current = new int[reply.length() + 1];
+        for (int j = 0; j <= reply.length(); j++) {
+            previous[j] = Math.min(j, outOfBand);
+        }
+        for (int i = 1; i <= answer.length(); i++) {
+            int from = Math.max(1, i - allowedErrors);
+            int to = Math.min(reply.length(), i + allowedErrors);
+            current[0] = Math.min(i, outOfBand);
+            current[from - 1] = from == 1 ? current[0] : outOfBand;
+            int rowMinimum = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (answer.charAt(i - 1) == reply.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(outOfBand, Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1));
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < reply.length()) {
+                current[to + 1] = outOfBand;
+            }
+            if (rowMinimum > allowedErrors) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[reply.length()] <= allowedErrors;
+    }
+}
@@ -2,32 +2,54 @@ package deck;
 
 /**
  * Represents a flashcard with a question and an answer.
+ *
+ * <p>Every flashcard has an id that is unique within its deck and never changes, even when
+ * the flashcard is edited or earlier flashcards are deleted.</p>
  */
 public class Flashcard {
-    protected int index;
+    protected final int id;
     protected String question;
     protected String answer;
     protected String codeSnippet;
+    protected int repetitions;
+    protected int intervalDays;
+    protected int easePermille = ReviewScheduler.DEFAULT_EASE_PERMILLE;
+    protected long dueTime;
+    private AnswerKey answerKey;
 
     /**
-     * Constructs a Flashcard with the specified question and answer.
+     * Constructs a Flashcard with the specified id, question and answer.
      *
+     * @param id The permanent id of the flashcard within its deck.
      * @param question The question for the flashcard.
      * @param answer The answer to the flashcard question.
      */
-    public Flashcard(int index, String question, String answer) {
-        this.index = index;
+    public Flashcard(int id, String question, String answer) {
+        this.id = id;
         this.question = question;
         this.answer = answer;
     }
 
     /**
-     * Returns the index of the flashcard.
+     * Constructs a Flashcard with the specified id, question, answer and code snippet.
      *
-     * @return The flashcard index in the deck
+     * @param id The permanent id of the flashcard within its deck.
+     * @param question The question for the flashcard.
+     * @param answer The answer to the flashcard question.
+     * @param codeSnippet The code snippet of the flashcard, empty for none.
      */
-    public int getIndex() {
-        return index;
+    public Flashcard(int id, String question, String answer, String codeSnippet) {
+        this(id, question, answer);
+        this.codeSnippet = codeSnippet.isEmpty() ? null : codeSnippet;
+    }
+
+    /**
+     * Returns the permanent id of the flashcard.
+     *
+     * @return The flashcard id in the deck
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -48,6 +70,23 @@ public class Flashcard {
         return answer;
     }
 
+    /**
+     * Returns the precomputed form of the answer used for grading.
+     *
+     * <p>The key is built on first use, so loading a deck does not pay for flashcards that are
+     * never graded. The key is immutable, so concurrent graders at worst build it twice.</p>
+     *
+     * @return The answer key.
+     */
+    public AnswerKey getAnswerKey() {
+        AnswerKey key = answerKey;
+        if (key == null) {
+            key = new AnswerKey(answer);
+            answerKey = key;
+        }
+        return key;
+    }
+
     /**
      * Returns a string representation of the flashcard.
      *
@@ -75,5 +114,66 @@ public class Flashcard {
     public String getCodeSnippet() {
         return (codeSnippet == null) ? "" : codeSnippet;
     }
-}
 
+    /**
+     * Returns the number of consecutive successful reviews of the flashcard.
+     *
+     * @return The repetition count, 0 for a new or lapsed flashcard.
+     */
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    /**
+     * Returns the current review interval of the flashcard.
+     *
+     * @return The interval in days.
+     */
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    /**
+     * Returns the ease factor of the flashcard in thousandths.
+     *
+     * @return The ease factor, 2500 meaning 2.5.
+     */
+    public int getEasePermille() {
+        return easePermille;
+    }
+
+    /**
+     * Returns when the flashcard is next due for review.
+     *
+     * @return The due time in epoch milliseconds, 0 if the flashcard was never reviewed.
+     */
+    public long getDueTime() {
+        return dueTime;
+    }
+
+    /**
+     * Returns a copy of the flashcard with the same id, text, code snippet and schedule.
+     *
+     * @return A flashcard that does not change when this one does.
+     */
+    public Flashcard copy() {
+        Flashcard copy = new Flashcard(id, question, answer, getCodeSnippet());
+        copy.setSchedule(repetitions, intervalDays, easePermille, dueTime);
+        return copy;
+    }
+
+    /**
+     * Sets the spaced repetition state of the flashcard.
+     *
+     * @param repetitions  The number of consecutive successful reviews.
+     * @param intervalDays The review interval in days.
+     * @param easePermille The ease factor in thousandths.
+     * @param dueTime      The next due time in epoch milliseconds.
+     */
+    public void setSchedule(int repetitions, int intervalDays, int easePermille, long dueTime) {
+        this.repetitions = repetitions;
+        this.intervalDays = intervalDays;
+        this.easePermille = easePermille;
+        this.dueTime = dueTime;
+    }
+}
@@ -0,0 +1,256 @@
+package deck;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The flashcards of a deck, stored in slots with tombstoned deletes.
+ *
+ * <p>Every flashcard keeps its permanent id. Ids increase along the deck order, and
+ * {@code slotById} maps each id to its slot, so looking up a flashcard by id is O(1).
+ * Deleting a flashcard only clears its slot. A Fenwick tree over the live slots translates
+ * between the 1-based positions users see and slots in O(log n), so a delete no longer
+ * shifts or renumbers the following flashcards. Once tombstones make up more than half of
+ * the slots, the live flashcards are moved together, which keeps deletes amortized cheap.</p>
+ */
+class FlashcardSlots {
+    private static final int MIN_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
+
+    private Flashcard[] slots;
+    private int[] tree;
+    private int[] slotById = new int[MIN_CAPACITY];
+    private int slotCount;
+    private int liveCount;
+
+    /**
+     * Creates empty slots with room for the given number of flashcards.
+     *
+     * @param capacity the expected number of flashcards.
+     */
+    FlashcardSlots(int capacity) {
+        slots = new Flashcard[Math.max(MIN_CAPACITY, capacity)];
+        tree = new int[slots.length + 1];
+        Arrays.fill(slotById, NO_SLOT);
+    }
+
+    /**
+     * Returns the number of live flashcards.
+     *
+     * @return the flashcard count.
+     */
+    int size() {
+        return liveCount;
+    }
+
+    /**
+     * Returns the flashcard at the given position.
+     *
+     * @param position 0-based position among the live flashcards.
+     * @return the flashcard.
+     * @throws IndexOutOfBoundsException if the position is out of range.
+     */
+    Flashcard get(int position) {
+        return slots[slotAt(position)];
+    }
+
+    /**
+     * Returns the flashcard with the given id.
+     *
+     * @param id the id of the flashcard.
+     * @return the flashcard, or {@code null} if no live flashcard has this id.
+     */
+    Flashcard getById(int id) {
+        if (id < 0 || id >= slotById.length || slotById[id] == NO_SLOT) {
+            return null;
+        }
+        return slots[slotById[id]];
+    }
+
+    /**
+     * Returns the current position of a live flashcard.
+     *
+     * @param flashcard the flashcard to locate.
+     * @return its 0-based position, or -1 if it is not in the deck.
+     */
+    int positionOf(Flashcard flashcard) {
+        int id = flashcard.getId();
+        if (getById(id) != flashcard) {
+            return -1;
+        }
+        return prefixSum(slotById[id]);
+    }
+
+    /**
+     * Appends a flashcard after the last one.
+     *
+     * @param flashcard the flashcard to append, with an id greater than any in the deck.
+     */
+    void add(Flashcard flashcard) {
+        if (slotCount == slots.length) {
+            grow(slots.length * 2);
+        }
+        int slot = slotCount++;
+        slots[slot] = flashcard;
+        mapId(flashcard.getId(), slot);
+        liveCount++;
+        update(slot, 1);
+    }
+
+    /**
+     * Puts a flashcard with the same id in place of the one at the given position.
+     *
+     * @param position  0-based position of the flashcard to replace.
+     * @param flashcard the new flashcard.
+     * @return the replaced flashcard.
+     */
+    Flashcard set(int position, Flashcard flashcard) {
+        int slot = slotAt(position);
+        Flashcard oldFlashcard = slots[slot];
+        assert oldFlashcard.getId() == flashcard.getId() : "A replacement keeps the id of the flashcard";
+        slots[slot] = flashcard;
+        return oldFlashcard;
+    }
+
+    /**
+     * Tombstones the flashcard at the given position.
+     *
+     * @param position 0-based position of the flashcard to remove.
+     * @return the removed flashcard.
+     */
+    Flashcard remove(int position) {
+        int slot = slotAt(position);
+        Flashcard removedFlashcard = slots[slot];
+        slots[slot] = null;
+        slotById[removedFlashcard.getId()] = NO_SLOT;
+        liveCount--;
+        update(slot, -1);
+        if (slotCount - liveCount > slotCount / 2) {
+            compact();
+        }
+        return removedFlashcard;
+    }
+
+    /**
+     * Makes room for more flashcards ahead of a batch of appends.
+     *
+     * @param additionalCount the number of flashcards about to be appended.
+     */
+    void ensureCapacity(int additionalCount) {
+        if (slotCount + additionalCount > slots.length) {
+            grow(Math.max(slots.length * 2, slotCount + additionalCount));
+        }
+    }
+
+    /**
+     * Returns the live flashcards in deck order.
+     *
+     * @return a new list of the flashcards.
+     */
+    ArrayList<Flashcard> toList() {
+        ArrayList<Flashcard> flashcards = new ArrayList<>(liveCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                flashcards.add(slots[slot]);
+            }
+        }
+        return flashcards;
+    }
+
+    /**
+     * Creates slots holding the given flashcards, in order.
+     *
+     * @param flashcards the flashcards, with ids increasing along the list.
+     * @return the filled slots.
+     */
+    static FlashcardSlots of(List<Flashcard> flashcards) {
+        FlashcardSlots filled = new FlashcardSlots(flashcards.size());
+        for (Flashcard flashcard : flashcards) {
+            filled.add(flashcard);
+        }
+        return filled;
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            Flashcard flashcard = slots[slot];
+            if (flashcard != null) {
+                slots[live] = flashcard;
+                slotById[flashcard.getId()] = live;
+                live++;
+            }
+        }
+        Arrays.fill(slots, live, slotCount, null);
+        slotCount = live;
+        rebuildTree();
+    }
+
+    private void grow(int capacity) {
+        slots = Arrays.copyOf(slots, capacity);
+        tree = new int[capacity + 1];
+        rebuildTree();
+    }
+
+    /**
+     * Rebuilds the Fenwick tree over the live slots in O(n).
+     */
+    private void rebuildTree() {
+        Arrays.fill(tree, 0);
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= slotCount && slots[i - 1] != null) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void mapId(int id, int slot) {
+        if (id >= slotById.length) {
+            int oldLength = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(oldLength * 2, id + 1));
+            Arrays.fill(slotById, oldLength, slotById.length, NO_SLOT);
+        }
+        slotById[id] = slot;
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the number of live flashcards in the slots before the given one.
+     */
+    private int prefixSum(int slot) {
+        int sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the slot of the live flashcard at the given position by descending the Fenwick tree.
+     */
+    private int slotAt(int position) {
+        if (position < 0 || position >= liveCount) {
+            throw new IndexOutOfBoundsException("Flashcard position out of range: " + position);
+        }
+        int node = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next < tree.length && tree[next] < remaining) {
+                node = next;
+                remaining -= tree[next];
+            }
+        }
+        return node;
+    }
+}
@@ -0,0 +1,134 @@
+package deck;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Interleaves the flashcards of several decks into one quiz with a k-way merge.
+ *
+ * <p>Every deck keeps its own shuffled order, drawn one position at a time with a lazy
+ * Fisher-Yates shuffle that only remembers the positions it has swapped. The decks are merged
+ * through a min-heap keyed by how far each deck is through its order, so the flashcards of a
+ * deck are spread evenly over the quiz whatever the deck sizes. The decks are never copied or
+ * concatenated: starting a quiz costs O(k log k) for k decks, and each question O(log k).</p>
+ *
+ * <p>Only the number of flashcards of each deck is read up front. A flashcard is read from its
+ * deck when it is drawn, after the deck has been passed to the listener given at creation, so the
+ * deck can be loaded again if it was evicted since.</p>
+ */
+public class InterleavedQuiz {
+    private final PriorityQueue<DeckCursor> cursors;
+    private final Consumer<Deck> deckReadListener;
+    private int questionsLeft;
+    private Deck currentDeck;
+
+    /**
+     * Creates a quiz over the given decks, skipping empty ones.
+     *
+     * @param decks the decks to quiz.
+     * @param seed  the seed of the question order.
+     */
+    public InterleavedQuiz(List<Deck> decks, long seed) {
+        this(decks, seed, deck -> { });
+    }
+
+    /**
+     * Creates a quiz over the given decks, skipping empty ones, that reports every deck it reads a flashcard from.
+     *
+     * @param decks            the decks to quiz.
+     * @param seed             the seed of the question order.
+     * @param deckReadListener called with a deck before each flashcard is read from it.
+     */
+    public InterleavedQuiz(List<Deck> decks, long seed, Consumer<Deck> deckReadListener) {
+        this.deckReadListener = deckReadListener;
+        cursors = new PriorityQueue<>(Math.max(1, decks.size()));
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < decks.size(); i++) {
+            Deck deck = decks.get(i);
+            int size = deck.getFlashcardCount();
+            if (size > 0) {
+                cursors.add(new DeckCursor(deck, i, size, seeds.split()));
+                questionsLeft += size;
+            }
+        }
+    }
+
+    public boolean hasNextQuestion() {
+        return questionsLeft > 0;
+    }
+
+    public int getQuestionsLeft() {
+        return questionsLeft;
+    }
+
+    /**
+     * Moves on to the next question.
+     *
+     * @return the flashcard to ask, from the deck returned by {@link #getCurrentDeck()}.
+     */
+    public Flashcard nextFlashcard() {
+        assert hasNextQuestion() : "There are no questions left";
+        DeckCursor cursor = cursors.poll();
+        currentDeck = cursor.deck;
+        deckReadListener.accept(cursor.deck);
+        Flashcard flashcard = cursor.deck.flashcardAt(cursor.draw());
+        if (cursor.drawn < cursor.size) {
+            cursors.add(cursor);
+        }
+        questionsLeft--;
+        return flashcard;
+    }
+
+    /**
+     * Returns the deck of the flashcard last returned by {@link #nextFlashcard()}, or being read by it.
+     *
+     * @return the deck, or {@code null} before the first question.
+     */
+    public Deck getCurrentDeck() {
+        return currentDeck;
+    }
+
+    /**
+     * The position of one deck in its own shuffled order.
+     */
+    private static class DeckCursor implements Comparable<DeckCursor> {
+        private final Deck deck;
+        private final int deckNumber;
+        private final int size;
+        private final SplittableRandom random;
+        private final HashMap<Integer, Integer> swappedPositions = new HashMap<>();
+        private int drawn;
+
+        DeckCursor(Deck deck, int deckNumber, int size, SplittableRandom random) {
+            this.deck = deck;
+            this.deckNumber = deckNumber;
+            this.size = size;
+            this.random = random;
+        }
+
+        /**
+         * Draws the next position of a Fisher-Yates shuffle, keeping only the swapped slots.
+         */
+        int draw() {
+            int last = size - 1 - drawn;
+            int chosen = random.nextInt(last + 1);
+            int position = swappedPositions.getOrDefault(chosen, chosen);
+            swappedPositions.put(chosen, swappedPositions.getOrDefault(last, last));
+            swappedPositions.remove(last);
+            drawn++;
+            return position;
+        }
+
+        /**
+         * Orders cursors by the fraction of their deck drawn, (drawn + 1/2) / size, compared exactly.
+         */
+        @Override
+        public int compareTo(DeckCursor other) {
+            int byProgress = Long.compare((2L * drawn + 1) * other.size, (2L * other.drawn + 1) * size);
+            return byProgress != 0 ? byProgress : Integer.compare(deckNumber, other.deckNumber);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package deck;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of answer latencies in nanoseconds with fixed, log-linear buckets.
+ *
+ * <p>Every power of two is split into {@value #SUB_BUCKETS} equal buckets, so a percentile read
+ * from the histogram is within about 6% of the true latency over the whole range of a
+ * {@code long}. The buckets are a single {@code long[]} allocated up front, which makes
+ * recording a sample a few shifts and an increment with no allocation.</p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values being counted as zero.
+     */
+    public void record(long nanos) {
+        counts[bucketOf(Math.max(0, nanos))]++;
+        totalCount++;
+    }
+
+    /**
+     * Adds every sample of another histogram to this one.
+     *
+     * @param other the histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    /**
+     * Removes every sample.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the latency below which the given share of the samples fall.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     * @return the upper bound of the bucket holding the percentile, or 0 if there are no samples.
+     */
+    public long getPercentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "Percentile must be between 0 and 100";
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(BUCKET_COUNT - 1);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lowest = (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
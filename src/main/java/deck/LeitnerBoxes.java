@@ -0,0 +1,262 @@
+package deck;
+
+import java.util.Arrays;
+
+/**
+ * Sorts the flashcards of a deck into Leitner boxes, a lighter alternative to SM-2 scheduling.
+ *
+ * <p>Every flashcard sits in one of {@value #BOX_COUNT} boxes, starting in the first. A correct
+ * answer promotes it to the next box and a wrong one sends it back to the first. Box {@code b}
+ * is studied every {@code 2^(b-1)} sessions, so well-known flashcards come up less and less.</p>
+ *
+ * <p>Each box is a ring buffer of flashcard ids in the order they entered it. Moving a
+ * flashcard appends it to the new box in O(1) and leaves its old entry behind; the entry is
+ * recognized as stale by a per-flashcard stamp. Flashcards are studied from the front of a box,
+ * so stale entries there are simply popped, and a ring is compacted once stale entries elsewhere
+ * outnumber the live ones. The box and stamp of each flashcard are kept in arrays
+ * indexed by id.</p>
+ */
+public class LeitnerBoxes {
+    public static final int BOX_COUNT = 5;
+
+    private static final int INITIAL_RING_CAPACITY = 16;
+
+    private final Ring[] rings = new Ring[BOX_COUNT];
+    private final int[] counts = new int[BOX_COUNT];
+    private byte[] boxOf = new byte[0];
+    private int[] stampOf = new int[0];
+    private int session;
+
+    /**
+     * Creates empty boxes.
+     */
+    public LeitnerBoxes() {
+        for (int i = 0; i < BOX_COUNT; i++) {
+            rings[i] = new Ring(INITIAL_RING_CAPACITY);
+        }
+    }
+
+    /**
+     * Returns the box a flashcard is in.
+     *
+     * @param id the id of the flashcard.
+     * @return the box from 1 to {@value #BOX_COUNT}, or 0 if the flashcard is not in a box.
+     */
+    public int getBox(int id) {
+        return id < boxOf.length ? boxOf[id] : 0;
+    }
+
+    /**
+     * Puts a flashcard in the given box, at the back of its queue.
+     *
+     * @param id  the id of the flashcard.
+     * @param box the box from 1 to {@value #BOX_COUNT}.
+     */
+    public void moveTo(int id, int box) {
+        assert box >= 1 && box <= BOX_COUNT : "Leitner boxes are numbered from 1 to " + BOX_COUNT;
+        if (id >= boxOf.length) {
+            int capacity = Math.max(id + 1, boxOf.length * 2);
+            boxOf = Arrays.copyOf(boxOf, capacity);
+            stampOf = Arrays.copyOf(stampOf, capacity);
+        }
+        leave(id);
+        boxOf[id] = (byte) box;
+        counts[box - 1]++;
+        rings[box - 1].push(id, stampOf[id]);
+    }
+
+    /**
+     * Puts a flashcard in the first box if it is not in a box yet.
+     *
+     * @param id the id of the flashcard.
+     */
+    public void add(int id) {
+        if (getBox(id) == 0) {
+            moveTo(id, 1);
+        }
+    }
+
+    /**
+     * Moves a flashcard up one box, staying in the last box once it gets there.
+     *
+     * @param id the id of the flashcard.
+     * @return the box it is now in.
+     */
+    public int promote(int id) {
+        int box = Math.min(BOX_COUNT, Math.max(1, getBox(id) + 1));
+        moveTo(id, box);
+        return box;
+    }
+
+    /**
+     * Sends a flashcard back to the first box.
+     *
+     * @param id the id of the flashcard.
+     * @return the box it is now in.
+     */
+    public int demote(int id) {
+        moveTo(id, 1);
+        return 1;
+    }
+
+    /**
+     * Takes a flashcard out of its box, for example because it was deleted.
+     *
+     * @param id the id of the flashcard.
+     */
+    public void remove(int id) {
+        if (getBox(id) != 0) {
+            leave(id);
+            boxOf[id] = 0;
+        }
+    }
+
+    private void leave(int id) {
+        int box = boxOf[id];
+        stampOf[id]++;
+        if (box != 0) {
+            counts[box - 1]--;
+            Ring ring = rings[box - 1];
+            ring.dropStaleHead(box);
+            if (ring.size > 2 * counts[box - 1] + INITIAL_RING_CAPACITY) {
+                ring.retainLive(box);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of flashcards in a box.
+     *
+     * @param box the box from 1 to {@value #BOX_COUNT}.
+     * @return the flashcard count.
+     */
+    public int getCount(int box) {
+        return counts[box - 1];
+    }
+
+    /**
+     * Returns the ids in a box in the order they entered it.
+     *
+     * @param box the box from 1 to {@value #BOX_COUNT}.
+     * @return the ids of the flashcards in the box.
+     */
+    public int[] getIds(int box) {
+        Ring ring = rings[box - 1];
+        int[] ids = new int[counts[box - 1]];
+        int found = 0;
+        for (int i = 0; i < ring.size; i++) {
+            int slot = ring.slot(i);
+            if (isLive(ring.ids[slot], ring.stamps[slot], box)) {
+                ids[found++] = ring.ids[slot];
+            }
+        }
+        assert found == ids.length : "Box count out of step with its ring";
+        return ids;
+    }
+
+    public int getSession() {
+        return session;
+    }
+
+    public void setSession(int session) {
+        this.session = session;
+    }
+
+    /**
+     * Returns whether a box is studied in the given session.
+     *
+     * @param box     the box from 1 to {@value #BOX_COUNT}.
+     * @param session the session number, from 1.
+     * @return true if box {@code b} is due, which is every {@code 2^(b-1)} sessions.
+     */
+    public static boolean isDue(int box, int session) {
+        return session % (1 << (box - 1)) == 0;
+    }
+
+    /**
+     * Returns a copy of the boxes, for a snapshot to write while these keep changing.
+     *
+     * @return the copy.
+     */
+    public LeitnerBoxes copy() {
+        LeitnerBoxes copy = new LeitnerBoxes();
+        copy.session = session;
+        for (int box = 1; box <= BOX_COUNT; box++) {
+            for (int id : getIds(box)) {
+                copy.moveTo(id, box);
+            }
+        }
+        return copy;
+    }
+
+    private boolean isLive(int id, int stamp, int box) {
+        return boxOf[id] == box && stampOf[id] == stamp;
+    }
+
+    /**
+     * A growable ring buffer of flashcard ids with the stamp each had when it was pushed.
+     */
+    private class Ring {
+        private int[] ids;
+        private int[] stamps;
+        private int head;
+        private int size;
+
+        Ring(int capacity) {
+            ids = new int[capacity];
+            stamps = new int[capacity];
+        }
+
+        int slot(int i) {
+            return (head + i) & (ids.length - 1);
+        }
+
+        void push(int id, int stamp) {
+            if (size == ids.length) {
+                resize(ids.length * 2);
+            }
+            int slot = slot(size);
+            ids[slot] = id;
+            stamps[slot] = stamp;
+            size++;
+        }
+
+        /**
+         * Drops the stale entries at the front, which is where studied flashcards leave from.
+         */
+        void dropStaleHead(int box) {
+            while (size > 0 && !isLive(ids[head], stamps[head], box)) {
+                head = slot(1);
+                size--;
+            }
+        }
+
+        /**
+         * Drops the stale entries, keeping the live ones in order.
+         */
+        void retainLive(int box) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = slot(i);
+                if (isLive(ids[slot], stamps[slot], box)) {
+                    int target = slot(kept++);
+                    ids[target] = ids[slot];
+                    stamps[target] = stamps[slot];
+                }
+            }
+            size = kept;
+        }
+
+        private void resize(int capacity) {
+            int[] newIds = new int[capacity];
+            int[] newStamps = new int[capacity];
+            for (int i = 0; i < size; i++) {
+                newIds[i] = ids[slot(i)];
+                newStamps[i] = stamps[slot(i)];
+            }
+            ids = newIds;
+            stamps = newStamps;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package deck;
+
+import exceptions.FlashCLIArgumentException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static constants.ErrorMessages.QUIZ_INVALID_TIME_LIMIT;
+
+/**
+ * The state of one quiz over a fixed list of flashcards, from one deck or interleaved from several.
+ *
+ * <p>A session owns its question order, its cursor, the wrong answers given so far and its
+ * timing, so any number of sessions over different decks can be open at once. The flashcards
+ * of a single deck are asked through an {@code int[]} order from {@link Deck#shuffleOrder(int, long)}
+ * and are never copied or reordered. The flashcards of several decks are drawn one question at a
+ * time from an {@link InterleavedQuiz}, and only the flashcards drawn so far are remembered.</p>
+ *
+ * <p>The time taken to answer each question is kept in a {@code long[]} sized up front and in
+ * a {@link LatencyHistogram}, so recording an answer does not allocate. Mistakes are kept as a
+ * bitset of flashcard ids for each deck, with the wrong answer stored at its question number in
+ * a single {@code String[]}.</p>
+ *
+ * <p>A session may limit the time for each question and for the whole quiz. The limits only
+ * yield deadlines; waiting for an answer until a deadline is left to the caller.</p>
+ */
+public class QuizSession {
+    private final Deck deck;
+    private final List<Flashcard> flashcards;
+    private final int[] order;
+    private final InterleavedQuiz interleavedQuiz;
+    private final Flashcard[] drawnFlashcards;
+    private final Deck[] drawnDecks;
+    private int drawnCount;
+    private final long seed;
+    private final long[] latencies;
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private final String[] incorrectAnswers;
+    private final IdentityHashMap<Deck, BitSet> incorrectIds = new IdentityHashMap<>();
+    private int incorrectCount;
+    private String repeatCommand;
+    private long questionLimitNanos;
+    private long quizLimitNanos;
+    private int cursor;
+    private int answeredCount;
+    private long startNanos;
+    private long endNanos;
+    private boolean isCompleted;
+
+    /**
+     * Creates a session that asks the given flashcards of a deck in the order given by the seed.
+     *
+     * @param deck       the deck the flashcards belong to, which grades the answers.
+     * @param flashcards the flashcards to ask, which the session does not modify.
+     * @param seed       the seed of the question order.
+     */
+    public QuizSession(Deck deck, List<Flashcard> flashcards, long seed) {
+        assert !flashcards.isEmpty() : "A quiz needs at least one flashcard";
+        this.deck = deck;
+        this.flashcards = flashcards;
+        this.order = Deck.shuffleOrder(flashcards.size(), seed);
+        this.interleavedQuiz = null;
+        this.drawnFlashcards = null;
+        this.drawnDecks = null;
+        this.seed = seed;
+        this.latencies = new long[flashcards.size()];
+        this.incorrectAnswers = new String[flashcards.size()];
+    }
+
+    /**
+     * Creates a session that asks the flashcards of several decks, interleaved by the given quiz.
+     *
+     * @param interleavedQuiz the quiz to draw the questions from, which no one else draws from.
+     * @param seed            the seed the quiz was created with.
+     */
+    public QuizSession(InterleavedQuiz interleavedQuiz, long seed) {
+        int questionCount = interleavedQuiz.getQuestionsLeft();
+        assert questionCount > 0 : "A quiz needs at least one flashcard";
+        this.deck = null;
+        this.flashcards = null;
+        this.order = null;
+        this.interleavedQuiz = interleavedQuiz;
+        this.drawnFlashcards = new Flashcard[questionCount];
+        this.drawnDecks = new Deck[questionCount];
+        this.seed = seed;
+        this.latencies = new long[questionCount];
+        this.incorrectAnswers = new String[questionCount];
+    }
+
+    /**
+     * Parses a time limit given in seconds, for {@link #setTimeLimits(long, long)}.
+     *
+     * @param tokens the arguments of the quiz command.
+     * @param index  the position of the time limit in the arguments.
+     * @return the time limit in nanoseconds.
+     * @throws FlashCLIArgumentException if the time limit is missing or not a positive number.
+     */
+    public static long parseTimeLimit(String[] tokens, int index) throws FlashCLIArgumentException {
+        try {
+            double seconds = Double.parseDouble(tokens[index]);
+            if (seconds > 0 && seconds <= Long.MAX_VALUE / 1e9) {
+                return (long) (seconds * 1e9);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            // reported below
+        }
+        throw new FlashCLIArgumentException(QUIZ_INVALID_TIME_LIMIT);
+    }
+
+    /**
+     * Returns whether the questions are drawn from several decks.
+     *
+     * @return true for a session created from an {@link InterleavedQuiz}.
+     */
+    public boolean isInterleaved() {
+        return interleavedQuiz != null;
+    }
+
+    /**
+     * Sets the command that asks the same questions in the same order, to show when the quiz starts.
+     *
+     * @param repeatCommand the command, or {@code null} if the order cannot be repeated.
+     */
+    public void setRepeatCommand(String repeatCommand) {
+        this.repeatCommand = repeatCommand;
+    }
+
+    public String getRepeatCommand() {
+        return repeatCommand;
+    }
+
+    /**
+     * Starts the timer of the session.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Limits the time to answer each question and to finish the quiz.
+     *
+     * @param questionLimitNanos the time allowed per question in nanoseconds, or 0 for no limit.
+     * @param quizLimitNanos     the time allowed for the whole quiz in nanoseconds, or 0 for no limit.
+     */
+    public void setTimeLimits(long questionLimitNanos, long quizLimitNanos) {
+        assert questionLimitNanos >= 0 && quizLimitNanos >= 0 : "Time limits cannot be negative";
+        this.questionLimitNanos = questionLimitNanos;
+        this.quizLimitNanos = quizLimitNanos;
+    }
+
+    public boolean isTimed() {
+        return questionLimitNanos > 0 || quizLimitNanos > 0;
+    }
+
+    public long getQuestionLimitNanos() {
+        return questionLimitNanos;
+    }
+
+    public long getQuizLimitNanos() {
+        return quizLimitNanos;
+    }
+
+    /**
+     * Returns when the answer to a question is due, the earlier of its own limit and the end of the quiz.
+     *
+     * @param questionShownNanos when the question was shown, from {@link System#nanoTime()}.
+     * @return the deadline in {@link System#nanoTime()} units, or {@link Long#MAX_VALUE} if there is no limit.
+     */
+    public long getAnswerDeadline(long questionShownNanos) {
+        long deadline = Long.MAX_VALUE;
+        if (questionLimitNanos > 0) {
+            deadline = questionShownNanos + questionLimitNanos;
+        }
+        if (quizLimitNanos > 0) {
+            deadline = Math.min(deadline, startNanos + quizLimitNanos);
+        }
+        return deadline;
+    }
+
+    /**
+     * Returns whether the time for the whole quiz has run out.
+     *
+     * @param nowNanos the current time, from {@link System#nanoTime()}.
+     * @return true if the quiz has a limit and it has passed.
+     */
+    public boolean isOutOfTime(long nowNanos) {
+        return quizLimitNanos > 0 && nowNanos - startNanos >= quizLimitNanos;
+    }
+
+    /**
+     * Returns whether there are questions left to ask.
+     *
+     * @return true if the session has not reached its last question.
+     */
+    public boolean hasNextQuestion() {
+        return cursor < latencies.length;
+    }
+
+    /**
+     * Returns the flashcard of the current question.
+     *
+     * @return the flashcard to ask next.
+     */
+    public Flashcard getCurrentFlashcard() {
+        return getFlashcardAt(cursor);
+    }
+
+    /**
+     * Returns the deck of the current question, which grades and records its answer.
+     *
+     * @return the deck the flashcard to ask next belongs to.
+     */
+    public Deck getCurrentDeck() {
+        return getDeckAt(cursor);
+    }
+
+    /**
+     * Returns the number of questions left, including the current one.
+     *
+     * @return the number of questions left.
+     */
+    public int getQuestionsLeft() {
+        return latencies.length - cursor;
+    }
+
+    /**
+     * Records the answer to the current question and moves on to the next one.
+     *
+     * @param userAnswer   the answer given.
+     * @param isCorrect    whether the answer was correct.
+     * @param latencyNanos the time from showing the question to receiving the answer, in nanoseconds.
+     */
+    public void recordAnswer(String userAnswer, boolean isCorrect, long latencyNanos) {
+        latencies[cursor] = latencyNanos;
+        latencyHistogram.record(latencyNanos);
+        if (!isCorrect) {
+            recordMistake(userAnswer);
+        }
+        cursor++;
+        answeredCount = cursor;
+    }
+
+    private void recordMistake(String userAnswer) {
+        Flashcard flashcard = getCurrentFlashcard();
+        incorrectIds.computeIfAbsent(getCurrentDeck(), mistakenDeck -> new BitSet()).set(flashcard.getId());
+        incorrectAnswers[cursor] = userAnswer;
+        incorrectCount++;
+    }
+
+    /**
+     * Marks every question left as answered incorrectly without asking it, once the quiz is out of time.
+     *
+     * <p>The skipped questions count as mistakes but not towards the answer times.</p>
+     *
+     * @param answer the answer to record for each skipped question.
+     * @return the number of questions skipped.
+     */
+    public int skipRemaining(String answer) {
+        int skipped = getQuestionsLeft();
+        for (; cursor < latencies.length; cursor++) {
+            recordMistake(answer);
+        }
+        return skipped;
+    }
+
+    /**
+     * Stops the timer and marks the session as completed.
+     */
+    public void complete() {
+        assert !hasNextQuestion() : "Every question should be answered before completing";
+        endNanos = System.nanoTime();
+        isCompleted = true;
+    }
+
+    public boolean isCompleted() {
+        return isCompleted;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getQuestionCount() {
+        return latencies.length;
+    }
+
+    /**
+     * Returns the number of questions answered, not counting those skipped when the time ran out.
+     *
+     * @return the number of questions with an answer time.
+     */
+    public int getAnsweredCount() {
+        return answeredCount;
+    }
+
+    /**
+     * Returns the decks the questions of this session were drawn from so far.
+     *
+     * @return the decks, each once.
+     */
+    public List<Deck> getDecks() {
+        if (!isInterleaved()) {
+            return List.of(deck);
+        }
+        List<Deck> decks = new ArrayList<>();
+        for (int question = 0; question < drawnCount; question++) {
+            if (!decks.contains(drawnDecks[question])) {
+                decks.add(drawnDecks[question]);
+            }
+        }
+        return decks;
+    }
+
+    /**
+     * Returns the time taken to complete the session.
+     *
+     * @return the elapsed time in seconds, or the time so far if the session is not completed.
+     */
+    public double getElapsedSeconds() {
+        long endTime = isCompleted ? endNanos : System.nanoTime();
+        return (endTime - startNanos) / 1e9;
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Returns the questions that took longest to answer, slowest first.
+     *
+     * @param count the most questions to return.
+     * @return the 0-based question numbers, for {@link #getFlashcardAt(int)} and {@link #getLatencyAt(int)}.
+     */
+    public int[] getSlowestQuestions(int count) {
+        int[] slowest = new int[Math.min(count, answeredCount)];
+        int found = 0;
+        for (int question = 0; question < answeredCount; question++) {
+            int position = found < slowest.length ? found++ : slowest.length;
+            while (position > 0 && latencies[slowest[position - 1]] < latencies[question]) {
+                if (position < slowest.length) {
+                    slowest[position] = slowest[position - 1];
+                }
+                position--;
+            }
+            if (position < slowest.length) {
+                slowest[position] = question;
+            }
+        }
+        return slowest;
+    }
+
+    /**
+     * Returns the flashcard asked as the given question.
+     *
+     * @param question the 0-based question number.
+     * @return the flashcard.
+     */
+    public Flashcard getFlashcardAt(int question) {
+        if (!isInterleaved()) {
+            return flashcards.get(order[question]);
+        }
+        drawUpTo(question);
+        return drawnFlashcards[question];
+    }
+
+    /**
+     * Returns the deck of the flashcard asked as the given question.
+     *
+     * @param question the 0-based question number.
+     * @return the deck.
+     */
+    public Deck getDeckAt(int question) {
+        if (!isInterleaved()) {
+            return deck;
+        }
+        drawUpTo(question);
+        return drawnDecks[question];
+    }
+
+    /**
+     * Draws questions from the interleaved quiz until the given question has been drawn.
+     */
+    private void drawUpTo(int question) {
+        for (; drawnCount <= question; drawnCount++) {
+            drawnFlashcards[drawnCount] = interleavedQuiz.nextFlashcard();
+            drawnDecks[drawnCount] = interleavedQuiz.getCurrentDeck();
+        }
+    }
+
+    /**
+     * Returns the time taken to answer the given question.
+     *
+     * @param question the 0-based number of an answered question.
+     * @return the latency in nanoseconds.
+     */
+    public long getLatencyAt(int question) {
+        return latencies[question];
+    }
+
+    public int getIncorrectCount() {
+        return incorrectCount;
+    }
+
+    /**
+     * Returns the ids of the flashcards of a deck answered incorrectly, in increasing order.
+     *
+     * @param mistakenDeck the deck the flashcards belong to.
+     * @return the ids, visited in O(mistakes) plus one step per 64 possible ids.
+     */
+    public IntStream incorrectIdStream(Deck mistakenDeck) {
+        BitSet ids = incorrectIds.get(mistakenDeck);
+        return ids == null ? IntStream.empty() : ids.stream();
+    }
+
+    /**
+     * Returns the wrong answer given to a question.
+     *
+     * @param question the 0-based question number.
+     * @return the answer, or {@code null} if the question was answered correctly or not yet.
+     */
+    public String getIncorrectAnswerAt(int question) {
+        return incorrectAnswers[question];
+    }
+}
@@ -0,0 +1,147 @@
+package deck;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules flashcard reviews with the SM-2 spaced repetition algorithm.
+ *
+ * <p>The review state lives on each {@link Flashcard}. The scheduler keeps a min-heap of the
+ * flashcards ordered by due time, so taking the next due flashcard costs O(log n) and a review
+ * session never scans the deck. The heap is built once in O(n) and then updated as flashcards
+ * are added, changed and reviewed.</p>
+ *
+ * <p>Entries are invalidated lazily: only the latest entry pushed for a flashcard id counts,
+ * and stale entries are skipped when they reach the top. The heap is rebuilt once stale
+ * entries outnumber the live ones.</p>
+ */
+class ReviewScheduler {
+    static final int DEFAULT_EASE_PERMILLE = 2500;
+    static final int CORRECT_QUALITY = 4;
+    static final int INCORRECT_QUALITY = 1;
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static final int MIN_EASE_PERMILLE = 1300;
+    private static final int MAX_QUALITY = 5;
+    private static final int PASSING_QUALITY = 3;
+    private static final int FIRST_INTERVAL_DAYS = 1;
+    private static final int SECOND_INTERVAL_DAYS = 6;
+
+    private final HashMap<Integer, Entry> latestEntries = new HashMap<>();
+    private PriorityQueue<Entry> dueFlashcards;
+
+    /**
+     * Builds the due heap over the given flashcards.
+     *
+     * @param flashcards the flashcards of the deck.
+     */
+    ReviewScheduler(List<Flashcard> flashcards) {
+        List<Entry> entries = new ArrayList<>(flashcards.size());
+        for (Flashcard flashcard : flashcards) {
+            Entry entry = new Entry(flashcard);
+            latestEntries.put(flashcard.getId(), entry);
+            entries.add(entry);
+        }
+        dueFlashcards = new PriorityQueue<>(entries);
+    }
+
+    /**
+     * Adds a new flashcard, or a flashcard whose review state or content changed.
+     *
+     * @param flashcard the flashcard to schedule.
+     */
+    void add(Flashcard flashcard) {
+        Entry entry = new Entry(flashcard);
+        latestEntries.put(flashcard.getId(), entry);
+        dueFlashcards.add(entry);
+        if (dueFlashcards.size() > 2 * latestEntries.size() + 16) {
+            dueFlashcards = new PriorityQueue<>(latestEntries.values());
+        }
+    }
+
+    /**
+     * Stops scheduling a flashcard.
+     *
+     * @param flashcard the flashcard that was removed or is about to change.
+     */
+    void remove(Flashcard flashcard) {
+        Entry entry = latestEntries.get(flashcard.getId());
+        if (entry != null && entry.flashcard == flashcard) {
+            latestEntries.remove(flashcard.getId());
+        }
+    }
+
+    /**
+     * Returns the flashcard that is due soonest, without removing it.
+     *
+     * @return the flashcard, or {@code null} if nothing is scheduled.
+     */
+    Flashcard peek() {
+        while (!dueFlashcards.isEmpty() && latestEntries.get(dueFlashcards.peek().id) != dueFlashcards.peek()) {
+            dueFlashcards.poll();
+        }
+        return dueFlashcards.isEmpty() ? null : dueFlashcards.peek().flashcard;
+    }
+
+    /**
+     * Returns the number of flashcards that are scheduled.
+     *
+     * @return the scheduled flashcard count.
+     */
+    int size() {
+        return latestEntries.size();
+    }
+
+    /**
+     * Updates the review state of a flashcard after it was answered, following SM-2.
+     *
+     * @param flashcard the reviewed flashcard.
+     * @param quality   the quality of the answer from 0 (blackout) to 5 (perfect).
+     * @param now       the review time in epoch milliseconds.
+     */
+    static void grade(Flashcard flashcard, int quality, long now) {
+        assert quality >= 0 && quality <= MAX_QUALITY : "SM-2 quality must be between 0 and 5";
+        int repetitions;
+        int intervalDays;
+        if (quality < PASSING_QUALITY) {
+            repetitions = 0;
+            intervalDays = FIRST_INTERVAL_DAYS;
+        } else {
+            repetitions = flashcard.getRepetitions() + 1;
+            if (repetitions == 1) {
+                intervalDays = FIRST_INTERVAL_DAYS;
+            } else if (repetitions == 2) {
+                intervalDays = SECOND_INTERVAL_DAYS;
+            } else {
+                intervalDays = (int) Math.round(flashcard.getIntervalDays() * flashcard.getEasePermille() / 1000.0);
+            }
+        }
+        int mistakes = MAX_QUALITY - quality;
+        int easePermille = Math.max(MIN_EASE_PERMILLE,
+                flashcard.getEasePermille() + 100 - mistakes * (80 + mistakes * 20));
+        flashcard.setSchedule(repetitions, intervalDays, easePermille, now + intervalDays * DAY_MILLIS);
+    }
+
+    /**
+     * A heap entry holding the due time of a flashcard when it was pushed.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final Flashcard flashcard;
+        private final int id;
+        private final long dueTime;
+
+        Entry(Flashcard flashcard) {
+            this.flashcard = flashcard;
+            this.id = flashcard.getId();
+            this.dueTime = flashcard.getDueTime();
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDueTime = Long.compare(dueTime, other.dueTime);
+            return byDueTime != 0 ? byDueTime : Integer.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package deck;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An inverted index from the terms of a deck to the flashcards containing them.
+ *
+ * <p>Terms are the lower-cased runs of letters and digits in the question, answer and code
+ * snippet of a flashcard. The index is updated incrementally as flashcards are added, replaced
+ * and removed, so a query only touches the postings of its own terms.</p>
+ *
+ * <p>Flashcards are tracked by identity. A flashcard must be removed from the index before
+ * any of its fields change and added back afterwards.</p>
+ */
+class SearchIndex {
+    private final HashMap<String, Set<Flashcard>> postings = new HashMap<>();
+
+    /**
+     * Builds an index over the given flashcards.
+     *
+     * @param flashcards the flashcards to index.
+     */
+    SearchIndex(List<Flashcard> flashcards) {
+        for (Flashcard flashcard : flashcards) {
+            add(flashcard);
+        }
+    }
+
+    /**
+     * Adds a flashcard to the postings of all of its terms.
+     *
+     * @param flashcard the flashcard to add.
+     */
+    void add(Flashcard flashcard) {
+        for (String term : termsOf(flashcard)) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(flashcard);
+        }
+    }
+
+    /**
+     * Removes a flashcard from the postings of all of its terms.
+     *
+     * @param flashcard the flashcard to remove, with the same fields as when it was added.
+     */
+    void remove(Flashcard flashcard) {
+        for (String term : termsOf(flashcard)) {
+            Set<Flashcard> posting = postings.get(term);
+            if (posting != null && posting.remove(flashcard) && posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Returns the flashcards that contain every term of the query, in deck order.
+     *
+     * <p>The shortest posting list is scanned and every candidate is checked against the
+     * other postings, so the cost depends on the matching postings and not on the deck size.</p>
+     *
+     * @param query the search query.
+     * @return the matching flashcards, in deck order since ids increase along the deck.
+     */
+    List<Flashcard> search(String query) {
+        List<Set<Flashcard>> matchingPostings = new ArrayList<>();
+        for (String term : tokenize(query)) {
+            Set<Flashcard> posting = postings.get(term);
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            matchingPostings.add(posting);
+        }
+        if (matchingPostings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        matchingPostings.sort(Comparator.comparingInt(Set::size));
+
+        List<Flashcard> results = new ArrayList<>();
+        for (Flashcard candidate : matchingPostings.get(0)) {
+            if (containsInAll(matchingPostings, candidate)) {
+                results.add(candidate);
+            }
+        }
+        results.sort(Comparator.comparingInt(Flashcard::getId));
+        return results;
+    }
+
+    /**
+     * Splits text into its distinct lower-cased terms.
+     *
+     * @param text the text to split.
+     * @return the terms in order of first occurrence.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isTermCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTermCharacter && start < 0) {
+                start = i;
+            } else if (!isTermCharacter && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> termsOf(Flashcard flashcard) {
+        Set<String> terms = tokenize(flashcard.getQuestion());
+        terms.addAll(tokenize(flashcard.getAnswer()));
+        terms.addAll(tokenize(flashcard.getCodeSnippet()));
+        return terms;
+    }
+
+    private static boolean containsInAll(List<Set<Flashcard>> matchingPostings, Flashcard candidate) {
+        for (int i = 1; i < matchingPostings.size(); i++) {
+            if (!matchingPostings.get(i).contains(candidate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,303 @@
+package deck;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A trigram index over the question and code snippet of every flashcard in a deck.
+ *
+ * <p>Every indexed flashcard gets a slot number, and every trigram of its lower-cased question
+ * and code snippet maps to a sorted list of slots. A substring query intersects the lists of
+ * its trigrams, starting from the shortest, and only verifies the surviving candidates. An
+ * approximate query relies on the fact that each edit destroys at most three trigrams, so a
+ * match with {@code k} errors shares at least {@code t - 3k} of the {@code t} query trigrams.</p>
+ *
+ * <p>Removed flashcards leave a tombstone in their slot, which queries skip. The slots and
+ * postings are rebuilt once tombstones outnumber the live flashcards.</p>
+ */
+class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final HashMap<Long, Posting> postings = new HashMap<>();
+    private final IdentityHashMap<Flashcard, Integer> slots = new IdentityHashMap<>();
+    private final ArrayList<Flashcard> flashcardsBySlot = new ArrayList<>();
+    private int tombstoneCount;
+
+    /**
+     * Builds an index over the given flashcards.
+     *
+     * @param flashcards the flashcards to index.
+     */
+    TrigramIndex(List<Flashcard> flashcards) {
+        for (Flashcard flashcard : flashcards) {
+            add(flashcard);
+        }
+    }
+
+    /**
+     * Adds a flashcard under a new slot.
+     *
+     * @param flashcard the flashcard to add.
+     */
+    void add(Flashcard flashcard) {
+        int slot = flashcardsBySlot.size();
+        flashcardsBySlot.add(flashcard);
+        slots.put(flashcard, slot);
+        addGrams(flashcard.getQuestion(), slot);
+        addGrams(flashcard.getCodeSnippet(), slot);
+    }
+
+    /**
+     * Tombstones the slot of a flashcard.
+     *
+     * @param flashcard the flashcard to remove.
+     */
+    void remove(Flashcard flashcard) {
+        Integer slot = slots.remove(flashcard);
+        if (slot == null) {
+            return;
+        }
+        flashcardsBySlot.set(slot, null);
+        tombstoneCount++;
+        if (tombstoneCount >= MIN_TOMBSTONES_TO_COMPACT && tombstoneCount > slots.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the flashcards whose question or code snippet contains the text, ignoring case.
+     *
+     * @param text the text to look for.
+     * @return the matching flashcards, in deck order since ids increase along the deck.
+     */
+    List<Flashcard> findSubstring(String text) {
+        String query = text.toLowerCase();
+        List<Flashcard> results = new ArrayList<>();
+        for (Flashcard candidate : candidatesContainingAllGrams(query)) {
+            if (containsIgnoreCase(candidate.getQuestion(), query)
+                    || containsIgnoreCase(candidate.getCodeSnippet(), query)) {
+                results.add(candidate);
+            }
+        }
+        results.sort(Comparator.comparingInt(Flashcard::getId));
+        return results;
+    }
+
+    /**
+     * Returns the flashcards whose question or code snippet contains the text with at most
+     * the given number of character insertions, deletions or substitutions, ignoring case.
+     *
+     * @param text      the text to look for.
+     * @param maxErrors the maximum edit distance of a match.
+     * @return the matching flashcards, in deck order since ids increase along the deck.
+     */
+    List<Flashcard> findApproximate(String text, int maxErrors) {
+        String query = text.toLowerCase();
+        List<Flashcard> results = new ArrayList<>();
+        for (Flashcard candidate : candidatesSharingGrams(query, maxErrors)) {
+            if (containsApproximately(candidate.getQuestion(), query, maxErrors)
+                    || containsApproximately(candidate.getCodeSnippet(), query, maxErrors)) {
+                results.add(candidate);
+            }
+        }
+        results.sort(Comparator.comparingInt(Flashcard::getId));
+        return results;
+    }
+
+    private List<Flashcard> candidatesContainingAllGrams(String query) {
+        long[] grams = distinctGrams(query);
+        if (grams.length == 0) {
+            return liveFlashcards();
+        }
+        Posting[] queryPostings = new Posting[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            queryPostings[i] = postings.get(grams[i]);
+            if (queryPostings[i] == null) {
+                return new ArrayList<>();
+            }
+        }
+        Arrays.sort(queryPostings, Comparator.comparingInt(posting -> posting.size));
+
+        int[] candidates = Arrays.copyOf(queryPostings[0].slots, queryPostings[0].size);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < queryPostings.length && candidateCount > 0; i++) {
+            candidateCount = intersect(candidates, candidateCount, queryPostings[i]);
+        }
+        return flashcardsAt(candidates, candidateCount);
+    }
+
+    private List<Flashcard> candidatesSharingGrams(String query, int maxErrors) {
+        long[] grams = distinctGrams(query);
+        int minSharedGrams = grams.length - GRAM_LENGTH * maxErrors;
+        if (minSharedGrams <= 0) {
+            return liveFlashcards();
+        }
+        HashMap<Integer, Integer> sharedGramCounts = new HashMap<>();
+        for (long gram : grams) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                continue;
+            }
+            for (int i = 0; i < posting.size; i++) {
+                sharedGramCounts.merge(posting.slots[i], 1, Integer::sum);
+            }
+        }
+        List<Flashcard> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : sharedGramCounts.entrySet()) {
+            Flashcard flashcard = flashcardsBySlot.get(entry.getKey());
+            if (entry.getValue() >= minSharedGrams && flashcard != null) {
+                candidates.add(flashcard);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Keeps the candidates that also appear in the posting, both being sorted ascending.
+     *
+     * @return the number of candidates left at the front of the array.
+     */
+    private static int intersect(int[] candidates, int candidateCount, Posting posting) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = candidates[i];
+            position = seek(posting, position, slot);
+            if (position < posting.size && posting.slots[position] == slot) {
+                candidates[kept++] = slot;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Gallops forward from the given position to the first slot not below the target.
+     */
+    private static int seek(Posting posting, int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < posting.size && posting.slots[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int index = Arrays.binarySearch(posting.slots, low, Math.min(high + 1, posting.size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private List<Flashcard> flashcardsAt(int[] candidates, int candidateCount) {
+        List<Flashcard> flashcards = new ArrayList<>(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            Flashcard flashcard = flashcardsBySlot.get(candidates[i]);
+            if (flashcard != null) {
+                flashcards.add(flashcard);
+            }
+        }
+        return flashcards;
+    }
+
+    private List<Flashcard> liveFlashcards() {
+        List<Flashcard> flashcards = new ArrayList<>(slots.size());
+        for (Flashcard flashcard : flashcardsBySlot) {
+            if (flashcard != null) {
+                flashcards.add(flashcard);
+            }
+        }
+        return flashcards;
+    }
+
+    private void addGrams(String text, int slot) {
+        String lowerCased = text.toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= lowerCased.length(); i++) {
+            postings.computeIfAbsent(gramAt(lowerCased, i), key -> new Posting()).add(slot);
+        }
+    }
+
+    private void compact() {
+        List<Flashcard> live = liveFlashcards();
+        postings.clear();
+        slots.clear();
+        flashcardsBySlot.clear();
+        tombstoneCount = 0;
+        for (Flashcard flashcard : live) {
+            add(flashcard);
+        }
+    }
+
+    private static long[] distinctGrams(String lowerCased) {
+        return IntStream.rangeClosed(0, lowerCased.length() - GRAM_LENGTH)
+                .mapToLong(i -> gramAt(lowerCased, i))
+                .distinct()
+                .toArray();
+    }
+
+    private static long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static boolean containsIgnoreCase(String text, String lowerCasedQuery) {
+        for (int i = 0; i + lowerCasedQuery.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, lowerCasedQuery, 0, lowerCasedQuery.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any substring of the text is within the edit distance of the query,
+     * using the dynamic program of Sellers where a match may start anywhere in the text.
+     */
+    private static boolean containsApproximately(String text, String lowerCasedQuery, int maxErrors) {
+        int queryLength = lowerCasedQuery.length();
+        if (queryLength <= maxErrors) {
+            return true;
+        }
+        int[] previous = new int[queryLength + 1];
+        int[] current = new int[queryLength + 1];
+        for (int j = 0; j <= queryLength; j++) {
+            previous[j] = j;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char textChar = Character.toLowerCase(text.charAt(i));
+            current[0] = 0;
+            for (int j = 1; j <= queryLength; j++) {
+                int substitution = previous[j - 1] + (lowerCasedQuery.charAt(j - 1) == textChar ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            if (current[queryLength] <= maxErrors) {
+                return true;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return false;
+    }
+
+    /**
+     * A growable, ascending list of slots.
+     */
+    private static class Posting {
+        private int[] slots = new int[2];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package flashcli;
 
 import static constants.CommandConstants.EXIT;
+import static constants.ErrorMessages.STORAGE_LOAD_ERROR;
+import static constants.SuccessMessages.STORAGE_DISABLED;
+import static constants.ErrorMessages.STORAGE_SAVE_ERROR;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 
 import command.Command;
 import exceptions.FlashCLIArgumentException;
 import logger.LoggingSetup;
 import parser.Parser;
+import storage.Storage;
 import ui.Ui;
 
 import static ui.Ui.getUserCommand;
 
 public class FlashCLI {
+    public static final String DATA_DIRECTORY_PROPERTY = "flashcli.dataDirectory";
+    public static final String NO_DATA_DIRECTORY = "none";
+    private static final String DEFAULT_DATA_DIRECTORY = "data";
 
     private String user_input;
     /**
@@ -21,8 +32,21 @@ public class FlashCLI {
 
     }
     public static void main(String[] args) {
-        System.out.println("Welcome to FlashCLI!");
+        Ui.showToUser("Welcome to FlashCLI!");
         LoggingSetup.configureGlobalLogging();
+        String dataDirectory = System.getProperty(DATA_DIRECTORY_PROPERTY, DEFAULT_DATA_DIRECTORY);
+        if (dataDirectory.equals(NO_DATA_DIRECTORY)) {
+            Ui.showToUser(STORAGE_DISABLED);
+        } else {
+            try {
+                Storage.init(Paths.get(dataDirectory));
+            } catch (IOException | InvalidPathException e) {
+                Ui.showError(String.format(STORAGE_LOAD_ERROR, dataDirectory, e.getMessage(),
+                        DATA_DIRECTORY_PROPERTY, NO_DATA_DIRECTORY));
+                Ui.flush();
+                System.exit(1);
+            }
+        }
         String fullInputLine = getUserCommand();
 
         while (!(fullInputLine.equals(EXIT))) {
@@ -32,10 +56,29 @@ public class FlashCLI {
             } catch (FlashCLIArgumentException e) {
                 Ui.showError(e.getMessage());
             } finally {
+                commitChanges();
                 fullInputLine = getUserCommand();
             }
         }
 
-        System.out.println("Thank you for using FlashCLI!");
+        try {
+            Storage.close();
+        } catch (IOException e) {
+            Ui.showError(String.format(STORAGE_SAVE_ERROR, e.getMessage()));
+        }
+
+        Ui.showToUser("Thank you for using FlashCLI!");
+        Ui.flush();
+    }
+
+    /**
+     * Writes the changes made by the last command to the journal.
+     */
+    private static void commitChanges() {
+        try {
+            Storage.commit();
+        } catch (IOException e) {
+            Ui.showError(String.format(STORAGE_SAVE_ERROR, e.getMessage()));
+        }
     }
 }
@@ -0,0 +1,62 @@
+package logger;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Wraps a {@link Logger} so that log messages are only built when their level is logged.
+ *
+ * <p>Messages are passed as suppliers, usually lambdas, and a message below the level set by
+ * {@link LoggingSetup} is never built. A lambda that captures no variables is a constant, and one
+ * that does is usually optimized away by the JIT once the level check inlines, so a suppressed
+ * log statement costs a level comparison. Records name the class and method that logged them,
+ * as a plain {@code Logger} would.</p>
+ */
+public class LazyLogger {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Logger logger;
+
+    private LazyLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Returns the logger named after a class.
+     *
+     * @param type the class that logs.
+     * @return the logger.
+     */
+    public static LazyLogger getLogger(Class<?> type) {
+        return new LazyLogger(Logger.getLogger(type.getName()));
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public void fine(Supplier<String> message) {
+        log(Level.FINE, message);
+    }
+
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message);
+    }
+
+    public void warning(Supplier<String> message) {
+        log(Level.WARNING, message);
+    }
+
+    private void log(Level level, Supplier<String> message) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        Optional<StackWalker.StackFrame> caller = STACK_WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().equals(LazyLogger.class.getName()))
+                .findFirst());
+        logger.logp(level, caller.map(StackWalker.StackFrame::getClassName).orElse(null),
+                caller.map(StackWalker.StackFrame::getMethodName).orElse(null), message.get());
+    }
+}
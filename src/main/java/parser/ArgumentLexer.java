@@ -0,0 +1,221 @@
+package parser;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import exceptions.FlashCLIArgumentException;
+
+import static constants.ErrorMessages.REPEATED_FLAG;
+
+/**
+ * Splits command arguments such as {@code 2 /q What is Java? /a A language.} at their flags in one pass.
+ *
+ * <p>A flag is a slash and one of the names the caller asks for, such as {@code q} or {@code all},
+ * written as a word of its own, so {@code and/or} or {@code /answer} in a question stay text.
+ * Putting a backslash in front of a flag, as in {@code \/a}, makes it text as well. The lexer only
+ * records where each value starts and ends; values are handed out as views of the argument string,
+ * trimmed like {@link String#trim()}, and only a value with an escaped flag in it is copied.</p>
+ */
+public class ArgumentLexer {
+    private static final char FLAG_PREFIX = '/';
+    private static final char ESCAPE = '\\';
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final String arguments;
+    private final String[] flags;
+    private int preambleEnd;
+    private boolean hasPreambleEscape;
+    private int[] flagOf = new int[INITIAL_CAPACITY];
+    private int[] flagStart = new int[INITIAL_CAPACITY];
+    private int[] valueStart = new int[INITIAL_CAPACITY];
+    private int[] valueEnd = new int[INITIAL_CAPACITY];
+    private boolean[] hasEscape = new boolean[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Lexes the arguments of a command.
+     *
+     * @param arguments the arguments.
+     * @param flags     the names of the flags to recognize, such as {@code "q"} for {@code /q}.
+     */
+    public ArgumentLexer(String arguments, String... flags) {
+        this.arguments = arguments;
+        this.flags = flags;
+        lex();
+    }
+
+    private void lex() {
+        int length = arguments.length();
+        boolean isEscapeInValue = false;
+        int i = 0;
+        while (i < length) {
+            if (i > 0 && arguments.charAt(i - 1) > ' ') {
+                i++;
+                continue;
+            }
+            boolean isEscaped = arguments.charAt(i) == ESCAPE;
+            int flagAt = isEscaped ? i + 1 : i;
+            int flag = flagAt(flagAt);
+            if (flag < 0) {
+                i++;
+            } else if (isEscaped) {
+                isEscapeInValue = true;
+                i = flagAt + 1 + flags[flag].length();
+            } else {
+                endValue(i, isEscapeInValue);
+                isEscapeInValue = false;
+                startValue(flag, flagAt);
+                i = flagAt + 1 + flags[flag].length();
+            }
+        }
+        endValue(length, isEscapeInValue);
+    }
+
+    /**
+     * Returns which flag is written at a position, as a word of its own.
+     *
+     * @return the index of the flag in {@link #flags}, or -1 if there is none.
+     */
+    private int flagAt(int i) {
+        if (i >= arguments.length() || arguments.charAt(i) != FLAG_PREFIX) {
+            return -1;
+        }
+        for (int flag = 0; flag < flags.length; flag++) {
+            int end = i + 1 + flags[flag].length();
+            if (arguments.startsWith(flags[flag], i + 1)
+                    && (end == arguments.length() || arguments.charAt(end) <= ' ')) {
+                return flag;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfFlag(String flag) {
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i].equals(flag)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Flag was not given to the lexer: " + flag);
+    }
+
+    private void startValue(int flag, int start) {
+        if (count == flagOf.length) {
+            int capacity = count * 2;
+            flagOf = Arrays.copyOf(flagOf, capacity);
+            flagStart = Arrays.copyOf(flagStart, capacity);
+            valueStart = Arrays.copyOf(valueStart, capacity);
+            valueEnd = Arrays.copyOf(valueEnd, capacity);
+            hasEscape = Arrays.copyOf(hasEscape, capacity);
+        }
+        flagOf[count] = flag;
+        flagStart[count] = start;
+        valueStart[count] = start + 1 + flags[flag].length();
+        count++;
+    }
+
+    /**
+     * Ends the value being read, the preamble if no flag has been seen yet.
+     */
+    private void endValue(int end, boolean isEscapeInValue) {
+        if (count == 0) {
+            preambleEnd = end;
+            hasPreambleEscape = isEscapeInValue;
+            return;
+        }
+        int last = count - 1;
+        valueEnd[last] = end;
+        hasEscape[last] = isEscapeInValue;
+    }
+
+    /**
+     * Returns the text before the first flag, such as the index of the flashcard to edit.
+     *
+     * @return the trimmed text, empty if the arguments start with a flag.
+     */
+    public CharSequence getPreamble() {
+        return view(0, preambleEnd, hasPreambleEscape);
+    }
+
+    /**
+     * Returns where a flag was first given.
+     *
+     * @param flag the name of the flag.
+     * @return the index of the flag in the arguments, or -1 if it was not given.
+     */
+    public int indexOf(String flag) {
+        int flagIndex = indexOfFlag(flag);
+        for (int i = 0; i < count; i++) {
+            if (flagOf[i] == flagIndex) {
+                return flagStart[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of a flag that may be given at most once.
+     *
+     * @param flag the name of the flag.
+     * @return the trimmed value, empty for a flag given without one, or {@code null} if the flag was not given.
+     * @throws FlashCLIArgumentException if the flag was given more than once.
+     */
+    public CharSequence get(String flag) throws FlashCLIArgumentException {
+        int flagIndex = indexOfFlag(flag);
+        int found = -1;
+        for (int i = 0; i < count; i++) {
+            if (flagOf[i] != flagIndex) {
+                continue;
+            }
+            if (found >= 0) {
+                String flagText = FLAG_PREFIX + flag;
+                throw new FlashCLIArgumentException(String.format(REPEATED_FLAG, flagText, ESCAPE + flagText));
+            }
+            found = i;
+        }
+        return found < 0 ? null : view(valueStart[found], valueEnd[found], hasEscape[found]);
+    }
+
+    /**
+     * Returns the values of a flag that may be given any number of times.
+     *
+     * @param flag the name of the flag.
+     * @return the trimmed values in the order they were given.
+     */
+    public List<CharSequence> getAll(String flag) {
+        int flagIndex = indexOfFlag(flag);
+        List<CharSequence> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (flagOf[i] == flagIndex) {
+                values.add(view(valueStart[i], valueEnd[i], hasEscape[i]));
+            }
+        }
+        return values;
+    }
+
+    private CharSequence view(int start, int end, boolean isEscaped) {
+        while (start < end && arguments.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && arguments.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return isEscaped ? unescape(start, end) : CharBuffer.wrap(arguments, start, end);
+    }
+
+    /**
+     * Copies a value, dropping the backslash in front of each escaped flag.
+     */
+    private String unescape(int start, int end) {
+        StringBuilder value = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            boolean isWordStart = i == 0 || arguments.charAt(i - 1) <= ' ';
+            if (!isWordStart || arguments.charAt(i) != ESCAPE || flagAt(i + 1) < 0) {
+                value.append(arguments.charAt(i));
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,230 @@
+package parser;
+
+import static constants.ErrorMessages.POSSIBLE_COMMANDS;
+import static constants.ErrorMessages.UNKNOWN_COMMAND;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import command.Command;
+import exceptions.FlashCLIArgumentException;
+
+/**
+ * An immutable table of commands, looked up through a trie of their names and abbreviations.
+ *
+ * <p>A command may be abbreviated by shortening each of its underscore-separated words, so
+ * {@code vi_q} stands for {@code view_qn}, and by leaving out trailing words, so {@code insert}
+ * stands for {@code insert_code} as long as no command is a closer fit. Every abbreviation is
+ * worked out once when the registry is built and stored in the trie, either with the single
+ * command it stands for or with the commands it could mean. Looking up a command is then one
+ * walk down the trie over the characters of the input, with no allocation.</p>
+ */
+public class CommandRegistry {
+    private static final int ALPHABET_SIZE = 27;
+    private static final char WORD_SEPARATOR = '_';
+    private static final int MAX_SUGGESTIONS = 3;
+
+    private final Node root = new Node();
+    private final List<Entry> entries;
+
+    /**
+     * Builds the registry and every unambiguous abbreviation of its commands.
+     *
+     * @param entries the commands, with lowercase names made of letters and underscores.
+     */
+    public CommandRegistry(List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+        Map<String, Set<Entry>> sameWordCount = new LinkedHashMap<>();
+        Map<String, Set<Entry>> fewerWords = new LinkedHashMap<>();
+        for (Entry entry : this.entries) {
+            String[] words = entry.name.split(String.valueOf(WORD_SEPARATOR));
+            for (int wordCount = 1; wordCount <= words.length; wordCount++) {
+                Map<String, Set<Entry>> matches = wordCount == words.length ? sameWordCount : fewerWords;
+                addAbbreviations(words, wordCount, 0, "", entry, matches);
+            }
+        }
+
+        Set<String> abbreviations = new LinkedHashSet<>(sameWordCount.keySet());
+        abbreviations.addAll(fewerWords.keySet());
+        for (String abbreviation : abbreviations) {
+            Set<Entry> closest = sameWordCount.getOrDefault(abbreviation, Set.of());
+            if (closest.isEmpty()) {
+                closest = fewerWords.get(abbreviation);
+            }
+            Node node = insert(abbreviation);
+            if (closest.size() == 1) {
+                node.entry = closest.iterator().next();
+            } else {
+                node.candidates = closest.stream().map(Entry::getName).toArray(String[]::new);
+            }
+        }
+        for (Entry entry : this.entries) {
+            insert(entry.name).entry = entry;
+        }
+    }
+
+    private static void addAbbreviations(String[] words, int wordCount, int word, String prefix, Entry entry,
+            Map<String, Set<Entry>> matches) {
+        if (word == wordCount) {
+            matches.computeIfAbsent(prefix, abbreviation -> new LinkedHashSet<>()).add(entry);
+            return;
+        }
+        String separator = word == 0 ? "" : String.valueOf(WORD_SEPARATOR);
+        for (int length = 1; length <= words[word].length(); length++) {
+            addAbbreviations(words, wordCount, word + 1, prefix + separator + words[word].substring(0, length),
+                    entry, matches);
+        }
+    }
+
+    private Node insert(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            int child = childIndex(key.charAt(i));
+            assert child >= 0 : "Command names may only contain lowercase letters and underscores";
+            if (node.children[child] == null) {
+                node.children[child] = new Node();
+            }
+            node = node.children[child];
+        }
+        return node;
+    }
+
+    private static int childIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return c == WORD_SEPARATOR ? ALPHABET_SIZE - 1 : -1;
+    }
+
+    /**
+     * Finds the command named or abbreviated by the start of the input.
+     *
+     * @param input the input line.
+     * @param end   the end of the command token in the input.
+     * @return the command entry.
+     * @throws FlashCLIArgumentException if the token is not a command, listing what it could mean.
+     */
+    public Entry find(String input, int end) throws FlashCLIArgumentException {
+        Node node = root;
+        for (int i = 0; i < end && node != null; i++) {
+            int child = childIndex(input.charAt(i));
+            node = child < 0 ? null : node.children[child];
+        }
+        if (node != null && node.entry != null) {
+            return node.entry;
+        }
+
+        String token = input.substring(0, end);
+        String[] suggestions = node != null && node.candidates != null ? node.candidates : suggest(token);
+        throw new FlashCLIArgumentException(suggestions.length == 0
+                ? POSSIBLE_COMMANDS
+                : String.format(UNKNOWN_COMMAND, token, String.join(" or ", suggestions)));
+    }
+
+    /**
+     * Returns the commands within a couple of typos of a token, closest first.
+     */
+    private String[] suggest(String token) {
+        int maxDistance = Math.max(1, Math.min(2, token.length() / 3));
+        List<String> close = new ArrayList<>();
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            for (Entry entry : entries) {
+                if (close.size() < MAX_SUGGESTIONS && editDistance(token, entry.name) == distance) {
+                    close.add(entry.name);
+                }
+            }
+        }
+        return close.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the Damerau-Levenshtein distance between two strings, counting a swap of neighbours as one edit.
+     */
+    private static int editDistance(String first, String second) {
+        int[][] distance = new int[first.length() + 1][second.length() + 1];
+        for (int i = 0; i <= first.length(); i++) {
+            distance[i][0] = i;
+        }
+        for (int j = 0; j <= second.length(); j++) {
+            distance[0][j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                distance[i][j] = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
+                        distance[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && first.charAt(i - 1) == second.charAt(j - 2)
+                        && first.charAt(i - 2) == second.charAt(j - 1)) {
+                    distance[i][j] = Math.min(distance[i][j], distance[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return distance[first.length()][second.length()];
+    }
+
+    /**
+     * A command name with what it needs and how to create it.
+     */
+    public static class Entry {
+        private final String name;
+        private final boolean requiresDeck;
+        private final Factory factory;
+
+        /**
+         * Describes a command.
+         *
+         * @param name         the full name of the command.
+         * @param requiresDeck whether the command needs a deck to be selected.
+         * @param factory      creates the command from its arguments.
+         */
+        public Entry(String name, boolean requiresDeck, Factory factory) {
+            this.name = name;
+            this.requiresDeck = requiresDeck;
+            this.factory = factory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean requiresDeck() {
+            return requiresDeck;
+        }
+
+        public Command create(String arguments) {
+            return factory.create(arguments);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Creates a command from the arguments typed after its name.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        Command create(String arguments);
+    }
+
+    /**
+     * A trie node, holding the command its key stands for or the commands an ambiguous key could mean.
+     */
+    private static class Node {
+        private final Node[] children = new Node[ALPHABET_SIZE];
+        private Entry entry;
+        private String[] candidates;
+
+        @Override
+        public String toString() {
+            return entry != null ? entry.name : Arrays.toString(candidates);
+        }
+    }
+}
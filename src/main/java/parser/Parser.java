@@ -1,14 +1,24 @@
 package parser;
 
 import command.Command;
+import command.CommandAnother;
 import command.CommandCreate;
 import command.CommandCreateDeck;
 import command.CommandDelete;
 import command.CommandEdit;
+import command.CommandExport;
+import command.CommandFind;
+import command.CommandGrade;
+import command.CommandImport;
 import command.CommandInsertCode;
+import command.CommandLeitner;
 import command.CommandListQuestion;
+import command.CommandQuizAll;
 import command.CommandQuizFlashcards;
 import command.CommandRenameDeck;
+import command.CommandReview;
+import command.CommandStats;
+import command.CommandSearch;
 import command.CommandSwitchDeck;
 import command.CommandViewAnswer;
 import command.CommandViewDecks;
@@ -16,25 +26,32 @@ import command.CommandViewQuestion;
 import command.CommandViewQuizResult;
 import exceptions.FlashCLIArgumentException;
 
+import static constants.CommandConstants.ANOTHER;
 import static constants.CommandConstants.CREATE;
 import static constants.CommandConstants.DELETE;
 import static constants.CommandConstants.EDIT;
+import static constants.CommandConstants.EXPORT;
+import static constants.CommandConstants.FIND;
+import static constants.CommandConstants.GRADE;
+import static constants.CommandConstants.IMPORT;
 import static constants.CommandConstants.INSERT_CODE;
+import static constants.CommandConstants.LEITNER;
 import static constants.CommandConstants.LIST;
 import static constants.CommandConstants.NEW_DECK;
 import static constants.CommandConstants.QUIZ;
+import static constants.CommandConstants.QUIZ_ALL;
 import static constants.CommandConstants.RENAME_DECK;
+import static constants.CommandConstants.REVIEW;
+import static constants.CommandConstants.SEARCH;
+import static constants.CommandConstants.STATS;
 import static constants.CommandConstants.SWITCH_DECK;
 import static constants.CommandConstants.VIEW_ANS;
 import static constants.CommandConstants.VIEW_DECKS;
 import static constants.CommandConstants.VIEW_QN;
 import static constants.CommandConstants.VIEW_RES;
 import static constants.ErrorMessages.NO_DECK_ERROR;
-import static constants.ErrorMessages.POSSIBLE_COMMANDS;
 import static deck.DeckManager.currentDeck;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -45,55 +62,53 @@ import java.util.List;
  */
 public class Parser {
 
+    private static final CommandRegistry COMMANDS = new CommandRegistry(List.of(
+            new CommandRegistry.Entry(CREATE, true, CommandCreate::new),
+            new CommandRegistry.Entry(VIEW_QN, true, CommandViewQuestion::new),
+            new CommandRegistry.Entry(VIEW_ANS, true, CommandViewAnswer::new),
+            new CommandRegistry.Entry(VIEW_RES, true, arguments -> new CommandViewQuizResult()),
+            new CommandRegistry.Entry(EDIT, true, CommandEdit::new),
+            new CommandRegistry.Entry(LIST, true, arguments -> new CommandListQuestion()),
+            new CommandRegistry.Entry(DELETE, true, CommandDelete::new),
+            new CommandRegistry.Entry(INSERT_CODE, true, CommandInsertCode::new),
+            new CommandRegistry.Entry(SEARCH, true, CommandSearch::new),
+            new CommandRegistry.Entry(FIND, true, CommandFind::new),
+            new CommandRegistry.Entry(IMPORT, true, CommandImport::new),
+            new CommandRegistry.Entry(EXPORT, false, CommandExport::new),
+            new CommandRegistry.Entry(QUIZ, true, CommandQuizFlashcards::new),
+            new CommandRegistry.Entry(QUIZ_ALL, false, CommandQuizAll::new),
+            new CommandRegistry.Entry(ANOTHER, true, arguments -> new CommandAnother()),
+            new CommandRegistry.Entry(LEITNER, true, arguments -> new CommandLeitner()),
+            new CommandRegistry.Entry(GRADE, true, CommandGrade::new),
+            new CommandRegistry.Entry(REVIEW, true, CommandReview::new),
+            new CommandRegistry.Entry(STATS, true, CommandStats::new),
+            new CommandRegistry.Entry(NEW_DECK, false, CommandCreateDeck::new),
+            new CommandRegistry.Entry(SWITCH_DECK, false, CommandSwitchDeck::new),
+            new CommandRegistry.Entry(RENAME_DECK, true, CommandRenameDeck::new),
+            new CommandRegistry.Entry(VIEW_DECKS, false, arguments -> new CommandViewDecks())));
+
     /**
      * Parses the given input string to create a corresponding command.
      *
+     * <p>The command may be given by its name or any unambiguous abbreviation of it, such as
+     * {@code vi_q} for {@code view_qn}.</p>
+     *
      * @param input the user input containing a command and optional arguments.
      * @return the corresponding Command object based on the parsed input.
      * @throws FlashCLIArgumentException if the input is invalid or required arguments are missing.
      */
     public static Command parseInput(String input) throws FlashCLIArgumentException {
-        String[] inputList = input.split(" ", 2);
-        String command = inputList[0];
-        String arguments = inputList.length > 1 ? inputList[1] : "";
-        assert arguments != null : "Arguments should not be null";
-
-        ArrayList<String> commandsWithDeck =
-                new ArrayList<>(Arrays.asList(CREATE, VIEW_QN, VIEW_ANS, VIEW_RES, EDIT, LIST, DELETE, QUIZ, VIEW_RES, RENAME_DECK, INSERT_CODE));
-        if (currentDeck == null && commandsWithDeck.contains(command)) {
+        int commandEnd = input.indexOf(' ');
+        if (commandEnd < 0) {
+            commandEnd = input.length();
+        }
+        CommandRegistry.Entry command = COMMANDS.find(input, commandEnd);
+        if (currentDeck == null && command.requiresDeck()) {
             throw new FlashCLIArgumentException(NO_DECK_ERROR);
         }
 
-        switch (command) {
-            case CREATE:
-                return new CommandCreate(arguments);
-            case VIEW_QN:
-                return new CommandViewQuestion(arguments);
-            case VIEW_ANS:
-                return new CommandViewAnswer(arguments);
-            case EDIT:
-                return new CommandEdit(arguments);
-            case LIST:
-                return new CommandListQuestion();
-            case DELETE:
-                return new CommandDelete(arguments);
-            case NEW_DECK:
-                return new CommandCreateDeck(arguments);
-            case SWITCH_DECK:
-                return new CommandSwitchDeck(arguments);
-            case RENAME_DECK:
-                return new CommandRenameDeck(arguments);
-            case VIEW_DECKS:
-                return new CommandViewDecks();
-            case QUIZ:
-                return new CommandQuizFlashcards();
-            case VIEW_RES:
-                return new CommandViewQuizResult();
-            case INSERT_CODE:
-                return new CommandInsertCode(arguments);
-            default:
-                throw new FlashCLIArgumentException(POSSIBLE_COMMANDS);
-        }
+        String arguments = commandEnd < input.length() ? input.substring(commandEnd + 1) : "";
+        return command.create(arguments);
     }
 
     /**
@@ -0,0 +1,235 @@
+package storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
+
+import deck.Flashcard;
+
+/**
+ * Grades a file of learner answers against the flashcards of a deck and writes a score per learner.
+ *
+ * <p>Each row of the answer file holds a learner, the 1-based index of a flashcard and the
+ * answer given, as CSV or TSV in the same format {@link DeckImporter} reads. A first row
+ * starting with {@code learner} is treated as a header and skipped, as are rows whose index
+ * does not name a flashcard.</p>
+ *
+ * <p>As with importing, the calling thread only splits the file into raw rows. Chunks of rows
+ * are graded on the common fork-join pool into partial scores per learner, which are merged on
+ * the calling thread in file order with a bounded number of chunks in flight, so memory grows
+ * with the number of learners rather than the number of answers. The scores are then streamed
+ * to the output file in the order each learner first appears.</p>
+ */
+public class AnswerGrader {
+    private static final int CHUNK_SIZE = 4096;
+    private static final int MAX_CHUNKS_IN_FLIGHT = 2 * ForkJoinPool.getCommonPoolParallelism() + 2;
+    private static final String HEADER_FIRST_FIELD = "learner";
+    private static final String SCORE_HEADER = "learner,correct,answered,score";
+
+    private AnswerGrader() {
+    }
+
+    /**
+     * Grades every row of the answer file and writes the score of each learner to the output file.
+     *
+     * @param input      the CSV or TSV answer file to read.
+     * @param output     the CSV file to write the scores to, replacing any existing file.
+     * @param flashcards the flashcards the indexes in the answer file refer to.
+     * @param checker    decides whether an answer is correct for a flashcard; called from several threads.
+     * @return the number of answers graded, learners scored and rows skipped.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static Summary grade(Path input, Path output, List<Flashcard> flashcards,
+            BiPredicate<Flashcard, String> checker) throws IOException {
+        boolean isTabSeparated = input.getFileName().toString().toLowerCase().endsWith(DeckImporter.TSV_EXTENSION);
+        Flashcard[] cards = flashcards.toArray(new Flashcard[0]);
+        for (Flashcard card : cards) {
+            // build every answer key up front so the workers only read them
+            card.getAnswerKey();
+        }
+
+        ArrayDeque<Future<GradedChunk>> inFlight = new ArrayDeque<>();
+        Map<String, Score> scores = new LinkedHashMap<>();
+        int skippedRows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            List<String> rows = new ArrayList<>(CHUNK_SIZE);
+            boolean isFirstRow = true;
+            String row;
+            while ((row = DeckImporter.readRow(reader, isTabSeparated)) != null) {
+                if (isFirstRow && isHeader(row)) {
+                    isFirstRow = false;
+                    continue;
+                }
+                isFirstRow = false;
+                rows.add(row);
+                if (rows.size() == CHUNK_SIZE) {
+                    inFlight.add(submit(rows, isTabSeparated, cards, checker));
+                    rows = new ArrayList<>(CHUNK_SIZE);
+                }
+                if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT) {
+                    skippedRows += merge(inFlight.poll(), scores);
+                }
+            }
+            if (!rows.isEmpty()) {
+                inFlight.add(submit(rows, isTabSeparated, cards, checker));
+            }
+            while (!inFlight.isEmpty()) {
+                skippedRows += merge(inFlight.poll(), scores);
+            }
+        } finally {
+            for (Future<GradedChunk> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+
+        int gradedRows = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(SCORE_HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Score> entry : scores.entrySet()) {
+                Score score = entry.getValue();
+                gradedRows += score.answered;
+                writer.write(quote(entry.getKey()) + "," + score.correct + "," + score.answered + ","
+                        + String.format("%.1f", 100.0 * score.correct / score.answered));
+                writer.newLine();
+            }
+        }
+        return new Summary(gradedRows, scores.size(), skippedRows);
+    }
+
+    private static boolean isHeader(String row) {
+        String trimmed = row.stripLeading();
+        if (trimmed.startsWith("\"")) {
+            trimmed = trimmed.substring(1);
+        }
+        return trimmed.regionMatches(true, 0, HEADER_FIRST_FIELD, 0, HEADER_FIRST_FIELD.length());
+    }
+
+    private static Future<GradedChunk> submit(List<String> rows, boolean isTabSeparated, Flashcard[] cards,
+            BiPredicate<Flashcard, String> checker) {
+        return ForkJoinPool.commonPool().submit(() -> gradeChunk(rows, isTabSeparated, cards, checker));
+    }
+
+    private static int merge(Future<GradedChunk> chunk, Map<String, Score> scores) throws IOException {
+        try {
+            GradedChunk graded = chunk.get();
+            for (Map.Entry<String, Score> entry : graded.scores.entrySet()) {
+                scores.computeIfAbsent(entry.getKey(), learner -> new Score()).add(entry.getValue());
+            }
+            return graded.skippedRows;
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to grade rows: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while grading", e);
+        }
+    }
+
+    private static GradedChunk gradeChunk(List<String> rows, boolean isTabSeparated, Flashcard[] cards,
+            BiPredicate<Flashcard, String> checker) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        int skippedRows = 0;
+        List<String> fields = new ArrayList<>(3);
+        for (String row : rows) {
+            fields.clear();
+            if (isTabSeparated) {
+                DeckImporter.splitTabs(row, fields);
+            } else {
+                DeckImporter.splitCsv(row, fields);
+            }
+            String learner = fields.size() > 0 ? fields.get(0).trim() : "";
+            int index = fields.size() > 1 ? parseIndex(fields.get(1).trim()) : 0;
+            if (learner.isEmpty() || index < 1 || index > cards.length) {
+                skippedRows++;
+                continue;
+            }
+            String answer = fields.size() > 2 ? fields.get(2) : "";
+            Score score = scores.computeIfAbsent(learner, key -> new Score());
+            score.answered++;
+            if (checker.test(cards[index - 1], answer)) {
+                score.correct++;
+            }
+        }
+        return new GradedChunk(scores, skippedRows);
+    }
+
+    private static int parseIndex(String field) {
+        try {
+            return Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+            return field;
+        }
+        return "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * The outcome of grading an answer file.
+     */
+    public static class Summary {
+        private final int gradedRows;
+        private final int learnerCount;
+        private final int skippedRows;
+
+        Summary(int gradedRows, int learnerCount, int skippedRows) {
+            this.gradedRows = gradedRows;
+            this.learnerCount = learnerCount;
+            this.skippedRows = skippedRows;
+        }
+
+        public int getGradedRows() {
+            return gradedRows;
+        }
+
+        public int getLearnerCount() {
+            return learnerCount;
+        }
+
+        public int getSkippedRows() {
+            return skippedRows;
+        }
+    }
+
+    /**
+     * The answers of one learner counted so far.
+     */
+    private static class Score {
+        private int correct;
+        private int answered;
+
+        void add(Score other) {
+            correct += other.correct;
+            answered += other.answered;
+        }
+    }
+
+    /**
+     * The partial scores graded from one chunk of rows.
+     */
+    private static class GradedChunk {
+        private final Map<String, Score> scores;
+        private final int skippedRows;
+
+        GradedChunk(Map<String, Score> scores, int skippedRows) {
+            this.scores = scores;
+            this.skippedRows = skippedRows;
+        }
+    }
+}
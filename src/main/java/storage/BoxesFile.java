@@ -0,0 +1,96 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import deck.LeitnerBoxes;
+
+/**
+ * Reads and writes the Leitner box layout of a deck as a small file next to its deck file.
+ *
+ * <p>After a header (magic and session number) the file holds each box in turn as a varint
+ * count followed by the flashcard ids as varints, in the order they entered the box, so the
+ * queues are restored exactly as they were left.</p>
+ */
+public class BoxesFile {
+    public static final String EXTENSION = ".boxes";
+
+    private static final int MAGIC = 0x464C4231; // "FLB1"
+
+    private BoxesFile() {
+    }
+
+    /**
+     * Returns where the boxes of the deck saved in the given deck file are kept.
+     *
+     * @param deckPath the path of the deck file.
+     * @return the path of the boxes file beside it.
+     */
+    public static Path pathFor(Path deckPath) {
+        String fileName = deckPath.getFileName().toString();
+        String baseName = fileName.endsWith(DeckFile.EXTENSION)
+                ? fileName.substring(0, fileName.length() - DeckFile.EXTENSION.length())
+                : fileName;
+        return deckPath.resolveSibling(baseName + EXTENSION);
+    }
+
+    /**
+     * Writes a boxes file, replacing any existing file.
+     *
+     * @param path  the file to write.
+     * @param boxes the boxes to write, usually a {@link LeitnerBoxes#copy() copy}.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, LeitnerBoxes boxes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            Codec.writeVarInt(out, boxes.getSession());
+            for (int box = 1; box <= LeitnerBoxes.BOX_COUNT; box++) {
+                int[] ids = boxes.getIds(box);
+                Codec.writeVarInt(out, ids.length);
+                for (int id : ids) {
+                    Codec.writeVarInt(out, id);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a boxes file into the given boxes.
+     *
+     * @param path  the file to read.
+     * @param boxes the boxes to fill, left unchanged if the file does not exist.
+     * @throws IOException if the file cannot be read or is not a valid boxes file.
+     */
+    public static void read(Path path, LeitnerBoxes boxes) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a FlashCLI boxes file: " + path);
+            }
+            boxes.setSession(Codec.readVarInt(in));
+            for (int box = 1; box <= LeitnerBoxes.BOX_COUNT; box++) {
+                int count = Codec.readVarInt(in);
+                for (int i = 0; i < count; i++) {
+                    boxes.moveTo(Codec.readVarInt(in), box);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted boxes file: " + path, e);
+        }
+    }
+}
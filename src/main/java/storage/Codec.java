@@ -0,0 +1,124 @@
+package storage;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for the compact binary encoding shared by the storage files.
+ *
+ * <p>Integers are written as unsigned LEB128 varints and strings as a varint
+ * byte length followed by their UTF-8 bytes.</p>
+ */
+public final class Codec {
+
+    private Codec() {
+    }
+
+    /**
+     * Writes a non-negative integer as a varint.
+     *
+     * @param out   the output to write to.
+     * @param value the value to write, must not be negative.
+     * @throws IOException if the underlying output fails.
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        assert value >= 0 : "Varints are only used for non-negative values";
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a varint written by {@link #writeVarInt(DataOutput, int)}.
+     *
+     * @param in the buffer to read from.
+     * @return the decoded value.
+     * @throws IllegalStateException if the varint is malformed.
+     */
+    public static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * Writes a non-negative long as a varint.
+     *
+     * @param out   the output to write to.
+     * @param value the value to write, must not be negative.
+     * @throws IOException if the underlying output fails.
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        assert value >= 0 : "Varints are only used for non-negative values";
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a varint written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param in the buffer to read from.
+     * @return the decoded value.
+     * @throws IllegalStateException if the varint is malformed.
+     */
+    public static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * Writes a string as a varint length followed by its UTF-8 bytes.
+     *
+     * @param out   the output to write to.
+     * @param value the string to write, {@code null} is written as an empty string.
+     * @throws IOException if the underlying output fails.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in the buffer to read from.
+     * @return the decoded string.
+     */
+    public static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length > in.remaining()) {
+            throw new IllegalStateException("String length exceeds buffer");
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,135 @@
+package storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+import deck.Deck;
+
+/**
+ * Writes decks to a channel as a binary backup.
+ *
+ * <p>A single deck is exported as a plain {@link DeckFile}, so the result can be mapped with
+ * {@link DeckFile#open(Path)}. Several decks are exported as an archive: the magic number
+ * {@code FLX1}, a varint deck count, then for every deck its name, the length of its deck
+ * file as an 8-byte integer and the deck file itself.</p>
+ *
+ * <p>Decks without unsaved changes are copied straight from their deck file with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets the kernel move
+ * the bytes without passing them through the heap. Modified decks are encoded to a temporary
+ * deck file first.</p>
+ */
+public class DeckExporter {
+    private static final int ARCHIVE_MAGIC = 0x464C5831; // "FLX1"
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Exports a single deck as a deck file.
+     *
+     * @param deck   the deck to export.
+     * @param target the channel to write to.
+     * @return the number of bytes written.
+     * @throws IOException if the deck cannot be read or the channel cannot be written.
+     */
+    public static long exportDeck(Deck deck, WritableByteChannel target) throws IOException {
+        Path temporaryPath = deck.hasUnsavedChanges() ? encodeToTemporaryFile(deck) : null;
+        try {
+            return transfer(temporaryPath != null ? temporaryPath : deck.getSourcePath(), target);
+        } finally {
+            deleteTemporaryFile(temporaryPath);
+        }
+    }
+
+    /**
+     * Exports several decks as an archive.
+     *
+     * @param decks  the decks to export, in order.
+     * @param target the channel to write to.
+     * @return the number of bytes written.
+     * @throws IOException if a deck cannot be read or the channel cannot be written.
+     */
+    public static long exportArchive(Collection<Deck> decks, WritableByteChannel target) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.writeInt(ARCHIVE_MAGIC);
+        Codec.writeVarInt(headerOut, decks.size());
+        long written = writeFully(header, target);
+
+        for (Deck deck : decks) {
+            Path temporaryPath = deck.hasUnsavedChanges() ? encodeToTemporaryFile(deck) : null;
+            try {
+                Path deckPath = temporaryPath != null ? temporaryPath : deck.getSourcePath();
+                header.reset();
+                Codec.writeString(headerOut, deck.getName());
+                headerOut.writeLong(Files.size(deckPath));
+                written += writeFully(header, target);
+                written += transfer(deckPath, target);
+            } finally {
+                deleteTemporaryFile(temporaryPath);
+            }
+        }
+        return written;
+    }
+
+    private static Path encodeToTemporaryFile(Deck deck) throws IOException {
+        Path temporaryPath = Files.createTempFile("flashcli-export-", DeckFile.EXTENSION);
+        try {
+            DeckFile.write(temporaryPath, deck.getFlashcards(), deck.getNextId());
+        } catch (IOException | RuntimeException e) {
+            deleteTemporaryFile(temporaryPath);
+            throw e;
+        }
+        return temporaryPath;
+    }
+
+    private static void deleteTemporaryFile(Path temporaryPath) throws IOException {
+        if (temporaryPath != null) {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private static long transfer(Path source, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = channel.transferTo(position, size - position, target);
+                if (transferred == 0) {
+                    // transferTo may move nothing, for example into a channel that is not ready
+                    transferred = copyThroughBuffer(channel, position, size - position, target);
+                }
+                position += transferred;
+            }
+            return size;
+        }
+    }
+
+    private static long copyThroughBuffer(FileChannel source, long position, long count, WritableByteChannel target)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, COPY_BUFFER_SIZE));
+        int read = source.read(buffer, position);
+        if (read <= 0) {
+            throw new IOException("Deck file ended while exporting it");
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        return read;
+    }
+
+    private static long writeFully(ByteArrayOutputStream bytes, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,270 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import deck.Flashcard;
+
+/**
+ * Read-only view of a binary deck file, accessed through a {@link MappedByteBuffer}.
+ *
+ * <p>The file consists of a header (magic, version, card count and the next free card id),
+ * an offset table with one absolute file offset per card plus an end offset, and the card
+ * payloads. Each payload holds the card id as a varint, the review state (repetitions,
+ * interval and ease as varints, due time as an 8-byte integer), then the question, answer
+ * and code snippet as varint-length-prefixed UTF-8 strings. The offset table makes reading
+ * any single card O(1) without decoding the others.</p>
+ */
+public class DeckFile {
+    public static final String EXTENSION = ".deck";
+
+    private static final int MAGIC = 0x464C4431; // "FLD1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int nextId;
+
+    private DeckFile(Path path, MappedByteBuffer buffer, int size, int nextId) {
+        this.path = path;
+        this.buffer = buffer;
+        this.size = size;
+        this.nextId = nextId;
+    }
+
+    /**
+     * Writes the given flashcards to a deck file, replacing any existing file, with the id
+     * after the largest flashcard id as the next free id.
+     *
+     * @param path       the file to write.
+     * @param flashcards the flashcards to write, in deck order.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, List<Flashcard> flashcards) throws IOException {
+        int nextId = 0;
+        for (Flashcard flashcard : flashcards) {
+            nextId = Math.max(nextId, flashcard.getId() + 1);
+        }
+        write(path, flashcards, nextId);
+    }
+
+    /**
+     * Writes the given flashcards to a deck file, replacing any existing file.
+     *
+     * @param path       the file to write.
+     * @param flashcards the flashcards to write, in deck order.
+     * @param nextId     the id to give the next flashcard added to the deck.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, List<Flashcard> flashcards, int nextId) throws IOException {
+        int count = flashcards.size();
+        int tableSize = (count + 1) * Integer.BYTES;
+        ByteBuffer table = ByteBuffer.allocate(tableSize);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE + tableSize);
+            // DataOutputStream.size() saturates at Integer.MAX_VALUE, which checkedOffset rejects
+            long payloadStart = HEADER_SIZE + tableSize;
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE));
+            for (Flashcard flashcard : flashcards) {
+                table.putInt(checkedOffset(payloadStart + out.size()));
+                Codec.writeVarInt(out, flashcard.getId());
+                Codec.writeVarInt(out, flashcard.getRepetitions());
+                Codec.writeVarInt(out, flashcard.getIntervalDays());
+                Codec.writeVarInt(out, flashcard.getEasePermille());
+                out.writeLong(flashcard.getDueTime());
+                Codec.writeString(out, flashcard.getQuestion());
+                Codec.writeString(out, flashcard.getAnswer());
+                Codec.writeString(out, flashcard.getCodeSnippet());
+            }
+            out.flush();
+            table.putInt(checkedOffset(payloadStart + out.size()));
+            table.flip();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(count)
+                    .putInt(nextId);
+            header.flip();
+            writeFully(channel, header, 0);
+            writeFully(channel, table, HEADER_SIZE);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Maps an existing deck file into memory.
+     *
+     * @param path the file to open.
+     * @return a read-only view of the deck file.
+     * @throws IOException if the file cannot be read or is not a valid deck file.
+     */
+    public static DeckFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Invalid deck file size: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a FlashCLI deck file: " + path);
+            }
+            int size = buffer.getInt(2 * Integer.BYTES);
+            int nextId = buffer.getInt(3 * Integer.BYTES);
+            long tableEnd = HEADER_SIZE + (size + 1L) * Integer.BYTES;
+            if (size < 0 || nextId < size || tableEnd > fileSize
+                    || buffer.getInt((int) tableEnd - Integer.BYTES) > fileSize) {
+                throw new IOException("Corrupted deck file: " + path);
+            }
+            return new DeckFile(path, buffer, size, nextId);
+        }
+    }
+
+    /**
+     * Returns the path of the underlying file.
+     *
+     * @return the deck file path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of flashcards in the file.
+     *
+     * @return the flashcard count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id to give the next flashcard added to the deck.
+     *
+     * @return the next free flashcard id.
+     */
+    public int getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Returns the id of the flashcard at the given position.
+     *
+     * @param position 0-based position of the flashcard.
+     * @return the flashcard id.
+     */
+    public int getId(int position) {
+        return Codec.readVarInt(cardBuffer(position));
+    }
+
+    /**
+     * Returns the question of the flashcard at the given position.
+     *
+     * @param position 0-based position of the flashcard.
+     * @return the question.
+     */
+    public String getQuestion(int position) {
+        return Codec.readString(cardFields(position));
+    }
+
+    /**
+     * Returns the answer of the flashcard at the given position.
+     *
+     * @param position 0-based position of the flashcard.
+     * @return the answer.
+     */
+    public String getAnswer(int position) {
+        ByteBuffer card = cardFields(position);
+        skipString(card);
+        return Codec.readString(card);
+    }
+
+    /**
+     * Returns the code snippet of the flashcard at the given position.
+     *
+     * @param position 0-based position of the flashcard.
+     * @return the code snippet, or an empty string if the flashcard has none.
+     */
+    public String getCodeSnippet(int position) {
+        ByteBuffer card = cardFields(position);
+        skipString(card);
+        skipString(card);
+        return Codec.readString(card);
+    }
+
+    /**
+     * Decodes the flashcard at the given position into a new {@code Flashcard}.
+     *
+     * @param position 0-based position of the flashcard.
+     * @return the decoded flashcard.
+     */
+    public Flashcard getFlashcard(int position) {
+        ByteBuffer card = cardBuffer(position);
+        int id = Codec.readVarInt(card);
+        int repetitions = Codec.readVarInt(card);
+        int intervalDays = Codec.readVarInt(card);
+        int easePermille = Codec.readVarInt(card);
+        long dueTime = card.getLong();
+        Flashcard flashcard = new Flashcard(id, Codec.readString(card), Codec.readString(card));
+        flashcard.setSchedule(repetitions, intervalDays, easePermille, dueTime);
+        String codeSnippet = Codec.readString(card);
+        if (!codeSnippet.isEmpty()) {
+            flashcard.setCodeSnippet(codeSnippet);
+        }
+        return flashcard;
+    }
+
+    private ByteBuffer cardBuffer(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Flashcard position out of range: " + position);
+        }
+        int entry = HEADER_SIZE + position * Integer.BYTES;
+        int start = buffer.getInt(entry);
+        int end = buffer.getInt(entry + Integer.BYTES);
+        ByteBuffer card = buffer.duplicate();
+        card.limit(end).position(start);
+        return card;
+    }
+
+    /**
+     * Returns the payload of a card positioned after its id and review state, at the question.
+     */
+    private ByteBuffer cardFields(int position) {
+        ByteBuffer card = cardBuffer(position);
+        Codec.readVarInt(card);
+        Codec.readVarInt(card);
+        Codec.readVarInt(card);
+        Codec.readVarInt(card);
+        card.position(card.position() + Long.BYTES);
+        return card;
+    }
+
+    private static void skipString(ByteBuffer card) {
+        int length = Codec.readVarInt(card);
+        card.position(card.position() + length);
+    }
+
+    private static int checkedOffset(long offset) throws IOException {
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Deck is too large for a single deck file");
+        }
+        return (int) offset;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
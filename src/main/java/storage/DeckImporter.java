@@ -0,0 +1,240 @@
+package storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of flashcards out of a CSV or TSV file.
+ *
+ * <p>Each row holds a question, an answer and an optional code snippet. CSV fields may be
+ * quoted, with {@code ""} as an escaped quote and line breaks allowed inside quotes. TSV
+ * files are split on tabs without any quoting. A first row whose first field is exactly
+ * {@code question} is treated as a header and skipped.</p>
+ *
+ * <p>The calling thread only splits the file into raw rows. Rows are parsed into their
+ * question, answer and code snippet in fixed-size chunks on the common fork-join pool, and
+ * the parsed chunks are handed back to the calling thread in file order, with a bounded
+ * number of chunks in flight so memory stays flat regardless of the file size. The rows are
+ * turned into flashcards by the deck they are added to, which gives them their ids.</p>
+ */
+public class DeckImporter {
+    public static final String TSV_EXTENSION = ".tsv";
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int MAX_CHUNKS_IN_FLIGHT = 2 * ForkJoinPool.getCommonPoolParallelism() + 2;
+    private static final String HEADER_FIRST_FIELD = "question";
+
+    /**
+     * Reads every row of the file and passes the parsed rows to the sink, in order.
+     *
+     * @param path the CSV or TSV file to read.
+     * @param sink receives each chunk of parsed rows on the calling thread.
+     * @return the number of rows skipped because their question or answer is empty.
+     * @throws IOException if the file cannot be read.
+     */
+    public static int read(Path path, Consumer<List<Row>> sink) throws IOException {
+        boolean isTabSeparated = path.getFileName().toString().toLowerCase().endsWith(TSV_EXTENSION);
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int skippedRows = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<String> rows = new ArrayList<>(CHUNK_SIZE);
+            boolean isFirstRow = true;
+            String row;
+            while ((row = readRow(reader, isTabSeparated)) != null) {
+                if (isFirstRow && isHeader(row, isTabSeparated)) {
+                    isFirstRow = false;
+                    continue;
+                }
+                isFirstRow = false;
+                rows.add(row);
+                if (rows.size() == CHUNK_SIZE) {
+                    inFlight.add(submit(rows, isTabSeparated));
+                    rows = new ArrayList<>(CHUNK_SIZE);
+                }
+                if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT) {
+                    skippedRows += drain(inFlight.poll(), sink);
+                }
+            }
+            if (!rows.isEmpty()) {
+                inFlight.add(submit(rows, isTabSeparated));
+            }
+            while (!inFlight.isEmpty()) {
+                skippedRows += drain(inFlight.poll(), sink);
+            }
+        } finally {
+            for (Future<ParsedChunk> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+        return skippedRows;
+    }
+
+    /**
+     * Reads one raw row, joining physical lines while a CSV quote is still open.
+     */
+    static String readRow(BufferedReader reader, boolean isTabSeparated) throws IOException {
+        String line = reader.readLine();
+        if (line == null || isTabSeparated || countQuotes(line) % 2 == 0) {
+            return line;
+        }
+        StringBuilder row = new StringBuilder(line);
+        int quotes = countQuotes(line);
+        while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+            row.append('\n').append(line);
+            quotes += countQuotes(line);
+        }
+        return row.toString();
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    private static boolean isHeader(String row, boolean isTabSeparated) {
+        List<String> fields = new ArrayList<>(3);
+        if (isTabSeparated) {
+            splitTabs(row, fields);
+        } else {
+            splitCsv(row, fields);
+        }
+        return fields.get(0).trim().equalsIgnoreCase(HEADER_FIRST_FIELD);
+    }
+
+    private static Future<ParsedChunk> submit(List<String> rows, boolean isTabSeparated) {
+        return ForkJoinPool.commonPool().submit(() -> parseChunk(rows, isTabSeparated));
+    }
+
+    private static int drain(Future<ParsedChunk> chunk, Consumer<List<Row>> sink) throws IOException {
+        try {
+            ParsedChunk parsed = chunk.get();
+            sink.accept(parsed.rows);
+            return parsed.skippedRows;
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse rows: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing", e);
+        }
+    }
+
+    private static ParsedChunk parseChunk(List<String> rows, boolean isTabSeparated) {
+        List<Row> parsedRows = new ArrayList<>(rows.size());
+        int skippedRows = 0;
+        List<String> fields = new ArrayList<>(3);
+        for (String row : rows) {
+            fields.clear();
+            if (isTabSeparated) {
+                splitTabs(row, fields);
+            } else {
+                splitCsv(row, fields);
+            }
+            String question = fields.size() > 0 ? fields.get(0).trim() : "";
+            String answer = fields.size() > 1 ? fields.get(1).trim() : "";
+            if (question.isEmpty() || answer.isEmpty()) {
+                skippedRows++;
+                continue;
+            }
+            String codeSnippet = fields.size() > 2 ? fields.get(2).trim() : "";
+            parsedRows.add(new Row(question, answer, codeSnippet));
+        }
+        return new ParsedChunk(parsedRows, skippedRows);
+    }
+
+    static void splitTabs(String row, List<String> fields) {
+        int start = 0;
+        int tab;
+        while ((tab = row.indexOf('\t', start)) >= 0) {
+            fields.add(row.substring(start, tab));
+            start = tab + 1;
+        }
+        fields.add(row.substring(start));
+    }
+
+    static void splitCsv(String row, List<String> fields) {
+        StringBuilder field = new StringBuilder();
+        boolean isInQuotes = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (isInQuotes) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    isInQuotes = false;
+                }
+            } else if (c == '"') {
+                isInQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+    }
+
+    /**
+     * The question, answer and code snippet of one flashcard read from the file.
+     */
+    public static class Row {
+        private final String question;
+        private final String answer;
+        private final String codeSnippet;
+
+        Row(String question, String answer, String codeSnippet) {
+            this.question = question;
+            this.answer = answer;
+            this.codeSnippet = codeSnippet;
+        }
+
+        public String getQuestion() {
+            return question;
+        }
+
+        public String getAnswer() {
+            return answer;
+        }
+
+        /**
+         * Returns the code snippet of the row.
+         *
+         * @return the code snippet, empty if the row has none.
+         */
+        public String getCodeSnippet() {
+            return codeSnippet;
+        }
+    }
+
+    /**
+     * The rows parsed from one chunk of the file.
+     */
+    private static class ParsedChunk {
+        private final List<Row> rows;
+        private final int skippedRows;
+
+        ParsedChunk(List<Row> rows, int skippedRows) {
+            this.rows = rows;
+            this.skippedRows = skippedRows;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import deck.AttemptHistory;
+
+/**
+ * Reads and writes the attempt history of a deck as a columnar file next to its deck file.
+ *
+ * <p>After a header (magic and attempt count) the file holds one block per column: flashcard
+ * ids as varints, times as zigzag varint deltas from the previous attempt, latencies in
+ * milliseconds as varints, correctness as a packed bitset, then the answers as
+ * varint-length-prefixed UTF-8 strings. Storing like values together keeps the deltas and
+ * varints small, so an attempt typically takes a handful of bytes plus its answer.</p>
+ */
+public class HistoryFile {
+    public static final String EXTENSION = ".history";
+
+    private static final int MAGIC = 0x464C4831; // "FLH1"
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private HistoryFile() {
+    }
+
+    /**
+     * Returns where the history of the deck saved in the given deck file is kept.
+     *
+     * @param deckPath the path of the deck file.
+     * @return the path of the history file beside it.
+     */
+    public static Path pathFor(Path deckPath) {
+        String fileName = deckPath.getFileName().toString();
+        String baseName = fileName.endsWith(DeckFile.EXTENSION)
+                ? fileName.substring(0, fileName.length() - DeckFile.EXTENSION.length())
+                : fileName;
+        return deckPath.resolveSibling(baseName + EXTENSION);
+    }
+
+    /**
+     * Writes a history file, replacing any existing file.
+     *
+     * @param path    the file to write.
+     * @param history the attempts to write, usually a {@link AttemptHistory#freeze() frozen} view.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path path, AttemptHistory history) throws IOException {
+        int size = history.size();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            Codec.writeVarInt(out, size);
+            for (int row = 0; row < size; row++) {
+                Codec.writeVarInt(out, history.getFlashcardId(row));
+            }
+            long previousTime = 0;
+            for (int row = 0; row < size; row++) {
+                long delta = history.getTime(row) - previousTime;
+                Codec.writeVarLong(out, (delta << 1) ^ (delta >> 63));
+                previousTime = history.getTime(row);
+            }
+            for (int row = 0; row < size; row++) {
+                Codec.writeVarInt(out, history.getLatencyMillis(row));
+            }
+            for (int start = 0; start < size; start += Byte.SIZE) {
+                int bits = 0;
+                for (int row = start; row < Math.min(size, start + Byte.SIZE); row++) {
+                    bits |= history.isCorrect(row) ? 1 << (row - start) : 0;
+                }
+                out.writeByte(bits);
+            }
+            for (int row = 0; row < size; row++) {
+                Codec.writeString(out, history.getAnswer(row));
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a history file, rebuilding the statistics from its attempts.
+     *
+     * @param path the file to read.
+     * @return the history, empty if the file does not exist.
+     * @throws IOException if the file cannot be read or is not a valid history file.
+     */
+    public static AttemptHistory read(Path path) throws IOException {
+        AttemptHistory history = new AttemptHistory();
+        if (!Files.exists(path)) {
+            return history;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a FlashCLI history file: " + path);
+            }
+            int size = Codec.readVarInt(in);
+            int[] flashcardIds = new int[size];
+            for (int row = 0; row < size; row++) {
+                flashcardIds[row] = Codec.readVarInt(in);
+            }
+            long[] times = new long[size];
+            long time = 0;
+            for (int row = 0; row < size; row++) {
+                long zigzag = Codec.readVarLong(in);
+                time += (zigzag >>> 1) ^ -(zigzag & 1);
+                times[row] = time;
+            }
+            int[] latencies = new int[size];
+            for (int row = 0; row < size; row++) {
+                latencies[row] = Codec.readVarInt(in);
+            }
+            int correctStart = in.position();
+            in.position(correctStart + (size + Byte.SIZE - 1) / Byte.SIZE);
+            for (int row = 0; row < size; row++) {
+                boolean isCorrect = (in.get(correctStart + row / Byte.SIZE) & (1 << (row % Byte.SIZE))) != 0;
+                history.append(flashcardIds[row], times[row], isCorrect, latencies[row] * 1_000_000L,
+                        Codec.readString(in));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted history file: " + path, e);
+        }
+        return history;
+    }
+}
@@ -0,0 +1,256 @@
+package storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of deck and flashcard mutations.
+ *
+ * <p>The file starts with a fixed header followed by framed records. Each frame is a
+ * varint payload length, the payload itself and a CRC32 of the payload, so a torn
+ * write at the end of the file can be detected and discarded on replay.</p>
+ *
+ * <p>Records are group committed: {@link #append(JournalRecord)} only buffers the record,
+ * and {@link #commit()} writes everything buffered since the last commit with a single
+ * write. Fsyncs are batched, either once {@code syncBatchSize} records are unsynced or
+ * by a background flusher every {@code syncIntervalMillis}, so bulk edits do not pay
+ * one fsync per command.</p>
+ */
+public class Journal implements Closeable {
+    public static final int DEFAULT_SYNC_BATCH_SIZE = 256;
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 200;
+
+    private static final int MAGIC = 0x464C4A31; // "FLJ1"
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+    private static final Logger logger = Logger.getLogger(Journal.class.getName());
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int syncBatchSize;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+    private final AtomicInteger unsyncedRecords = new AtomicInteger();
+    private int pendingRecords;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Opens the journal at the given path for appending, creating it if needed.
+     *
+     * @param path               the journal file.
+     * @param syncBatchSize      the number of unsynced records that forces an fsync on commit.
+     * @param syncIntervalMillis the period of the background flusher, or 0 to disable it.
+     * @throws IOException if the file cannot be opened or has an invalid header.
+     */
+    public Journal(Path path, int syncBatchSize, long syncIntervalMillis) throws IOException {
+        assert syncBatchSize > 0 : "Sync batch size should be positive";
+        this.path = path;
+        this.syncBatchSize = syncBatchSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+            header.flip();
+            writeFully(header);
+            channel.force(true);
+        }
+        channel.position(channel.size());
+
+        if (syncIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Reads every intact record of the journal at the given path.
+     *
+     * <p>Reading stops at the first torn or corrupted frame, and the file is truncated
+     * to the last intact record so that later appends do not follow garbage.</p>
+     *
+     * @param path the journal file.
+     * @return the records in the order they were appended, empty if the file does not exist.
+     * @throws IOException if the file cannot be read or is not a journal.
+     */
+    public static List<JournalRecord> replay(Path path) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return records;
+        }
+
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            if (size == 0) {
+                return records;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // keep reading until the whole file is buffered
+            }
+            buffer.flip();
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a FlashCLI journal: " + path);
+            }
+
+            CRC32 checksum = new CRC32();
+            int validEnd = buffer.position();
+            while (buffer.hasRemaining()) {
+                try {
+                    int length = Codec.readVarInt(buffer);
+                    if (length > MAX_PAYLOAD_SIZE || length + Integer.BYTES > buffer.remaining()) {
+                        break;
+                    }
+                    ByteBuffer frame = buffer.slice();
+                    frame.limit(length);
+                    checksum.reset();
+                    checksum.update(frame.duplicate());
+                    buffer.position(buffer.position() + length);
+                    if ((int) checksum.getValue() != buffer.getInt()) {
+                        break;
+                    }
+                    records.add(JournalRecord.decode(frame));
+                    validEnd = buffer.position();
+                } catch (RuntimeException e) {
+                    break;
+                }
+            }
+
+            if (validEnd < size) {
+                logger.warning("Discarding " + (size - validEnd) + " bytes of torn journal tail in " + path);
+                in.truncate(validEnd);
+                in.force(true);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Buffers a record to be written by the next {@link #commit()}.
+     *
+     * @param record the record to append.
+     * @throws IOException if the record cannot be encoded.
+     */
+    public void append(JournalRecord record) throws IOException {
+        payload.reset();
+        record.encode(payloadOut);
+        crc.reset();
+        crc.update(payload.toByteArray(), 0, payload.size());
+
+        Codec.writeVarInt(pendingOut, payload.size());
+        payload.writeTo(pendingOut);
+        pendingOut.writeInt((int) crc.getValue());
+        pendingRecords++;
+    }
+
+    /**
+     * Writes all buffered records to the file in one batch, and fsyncs if enough
+     * records have accumulated since the last sync.
+     *
+     * @throws IOException if the write or the sync fails.
+     */
+    public void commit() throws IOException {
+        if (pending.size() == 0) {
+            return;
+        }
+        writeFully(ByteBuffer.wrap(pending.toByteArray(), 0, pending.size()));
+        pending.reset();
+        int unsynced = unsyncedRecords.addAndGet(pendingRecords);
+        pendingRecords = 0;
+        if (unsynced >= syncBatchSize) {
+            sync();
+        }
+    }
+
+    /**
+     * Forces all committed records to the storage device.
+     *
+     * @throws IOException if the sync fails.
+     */
+    public void sync() throws IOException {
+        int synced = unsyncedRecords.get();
+        if (synced == 0) {
+            return;
+        }
+        channel.force(false);
+        unsyncedRecords.addAndGet(-synced);
+    }
+
+    /**
+     * Returns the size of the journal file, including records not yet committed.
+     *
+     * @return the size in bytes.
+     * @throws IOException if the file size cannot be read.
+     */
+    public long size() throws IOException {
+        return channel.size() + pending.size();
+    }
+
+    /**
+     * Returns the path of the journal file.
+     *
+     * @return the journal path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Commits and syncs any outstanding records, then closes the file.
+     *
+     * @throws IOException if the final commit or sync fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        try {
+            commit();
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            if (channel.isOpen()) {
+                sync();
+            }
+        } catch (IOException e) {
+            logger.warning("Background journal sync failed: " + e.getMessage());
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package storage;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a single deck or flashcard mutation stored in the journal.
+ *
+ * <p>Each record holds the name of the deck it applies to, and depending on its type,
+ * the 1-based position of a flashcard and its new text. Schedule records instead hold the
+ * flashcard id and its schedule after a review, so replaying one twice does no harm, and
+ * attempt records hold the flashcard id, the answer given, its correctness, time and latency.
+ * Leitner records hold the flashcard id and its new box, or the number of the session started.
+ * Every value has its own accessor, which is only meaningful for the types that set it.</p>
+ */
+public class JournalRecord {
+
+    /**
+     * Types of mutations that can be journaled. The code of each type is part of
+     * the file format and must never change.
+     */
+    public enum Type {
+        CREATE_DECK(1),
+        RENAME_DECK(2),
+        CREATE_FLASHCARD(3),
+        EDIT_FLASHCARD(4),
+        DELETE_FLASHCARD(5),
+        INSERT_CODE(6),
+        SCHEDULE_FLASHCARD(7),
+        RECORD_ATTEMPT(8),
+        MOVE_TO_BOX(9),
+        START_BOX_SESSION(10);
+
+        private final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        static Type fromCode(int code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalStateException("Unknown journal record type: " + code);
+        }
+    }
+
+    private final Type type;
+    private final String deckName;
+    private String newDeckName;
+    private int position;
+    private int flashcardId;
+    private String question;
+    private String answer;
+    private String codeSnippet;
+    private int repetitions;
+    private int intervalDays;
+    private int easePermille;
+    private long dueTime;
+    private long time;
+    private boolean isCorrect;
+    private int latencyMillis;
+    private String givenAnswer;
+    private int box;
+    private int session;
+
+    private JournalRecord(Type type, String deckName) {
+        this.type = type;
+        this.deckName = deckName;
+    }
+
+    public static JournalRecord createDeck(String deckName) {
+        return new JournalRecord(Type.CREATE_DECK, deckName);
+    }
+
+    public static JournalRecord renameDeck(String oldName, String newName) {
+        JournalRecord record = new JournalRecord(Type.RENAME_DECK, oldName);
+        record.newDeckName = newName;
+        return record;
+    }
+
+    public static JournalRecord createFlashcard(String deckName, String question, String answer) {
+        JournalRecord record = new JournalRecord(Type.CREATE_FLASHCARD, deckName);
+        record.question = question;
+        record.answer = answer;
+        return record;
+    }
+
+    public static JournalRecord editFlashcard(String deckName, int index, String question, String answer) {
+        JournalRecord record = new JournalRecord(Type.EDIT_FLASHCARD, deckName);
+        record.position = index;
+        record.question = question;
+        record.answer = answer;
+        return record;
+    }
+
+    public static JournalRecord deleteFlashcard(String deckName, int index) {
+        JournalRecord record = new JournalRecord(Type.DELETE_FLASHCARD, deckName);
+        record.position = index;
+        return record;
+    }
+
+    public static JournalRecord insertCode(String deckName, int index, String codeSnippet) {
+        JournalRecord record = new JournalRecord(Type.INSERT_CODE, deckName);
+        record.position = index;
+        record.codeSnippet = codeSnippet;
+        return record;
+    }
+
+    public static JournalRecord scheduleFlashcard(String deckName, int id, int repetitions, int intervalDays,
+            int easePermille, long dueTime) {
+        JournalRecord record = new JournalRecord(Type.SCHEDULE_FLASHCARD, deckName);
+        record.flashcardId = id;
+        record.repetitions = repetitions;
+        record.intervalDays = intervalDays;
+        record.easePermille = easePermille;
+        record.dueTime = dueTime;
+        return record;
+    }
+
+    public static JournalRecord recordAttempt(String deckName, int id, long time, boolean isCorrect,
+            int latencyMillis, String answer) {
+        JournalRecord record = new JournalRecord(Type.RECORD_ATTEMPT, deckName);
+        record.flashcardId = id;
+        record.time = time;
+        record.isCorrect = isCorrect;
+        record.latencyMillis = latencyMillis;
+        record.givenAnswer = answer;
+        return record;
+    }
+
+    public static JournalRecord moveToBox(String deckName, int id, int box) {
+        JournalRecord record = new JournalRecord(Type.MOVE_TO_BOX, deckName);
+        record.flashcardId = id;
+        record.box = box;
+        return record;
+    }
+
+    public static JournalRecord startBoxSession(String deckName, int session) {
+        JournalRecord record = new JournalRecord(Type.START_BOX_SESSION, deckName);
+        record.session = session;
+        return record;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getDeckName() {
+        return deckName;
+    }
+
+    /**
+     * Returns the new deck name for rename records.
+     *
+     * @return the name the deck is renamed to.
+     */
+    public String getNewDeckName() {
+        return newDeckName;
+    }
+
+    /**
+     * Returns the position of the flashcard for edit, delete and insert code records.
+     *
+     * @return the 1-based flashcard index in the deck.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the flashcard for schedule, attempt and box records.
+     *
+     * @return the permanent flashcard id.
+     */
+    public int getFlashcardId() {
+        return flashcardId;
+    }
+
+    /**
+     * Returns the question for create and edit records.
+     *
+     * @return the flashcard question.
+     */
+    public String getQuestion() {
+        return question;
+    }
+
+    /**
+     * Returns the answer for create and edit records.
+     *
+     * @return the flashcard answer.
+     */
+    public String getAnswer() {
+        return answer;
+    }
+
+    /**
+     * Returns the code snippet for insert code records.
+     *
+     * @return the code snippet.
+     */
+    public String getCodeSnippet() {
+        return codeSnippet;
+    }
+
+    /**
+     * Returns the number of consecutive successful reviews for schedule records.
+     *
+     * @return the repetition count.
+     */
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    /**
+     * Returns the review interval for schedule records.
+     *
+     * @return the interval in days.
+     */
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    /**
+     * Returns the ease factor for schedule records.
+     *
+     * @return the ease factor in thousandths.
+     */
+    public int getEasePermille() {
+        return easePermille;
+    }
+
+    /**
+     * Returns the next due time for schedule records.
+     *
+     * @return the due time in epoch milliseconds.
+     */
+    public long getDueTime() {
+        return dueTime;
+    }
+
+    /**
+     * Returns the answer time for attempt records.
+     *
+     * @return the time in epoch milliseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns whether the answer was correct for attempt records.
+     *
+     * @return true if the answer was accepted.
+     */
+    public boolean isCorrect() {
+        return isCorrect;
+    }
+
+    /**
+     * Returns how long the answer took for attempt records.
+     *
+     * @return the latency in milliseconds.
+     */
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Returns the answer given for attempt records.
+     *
+     * @return the answer, empty if none was given in time.
+     */
+    public String getGivenAnswer() {
+        return givenAnswer;
+    }
+
+    /**
+     * Returns the new box for box records.
+     *
+     * @return the Leitner box from 1 to 5.
+     */
+    public int getBox() {
+        return box;
+    }
+
+    /**
+     * Returns the number of the session started for box session records.
+     *
+     * @return the Leitner session number.
+     */
+    public int getSession() {
+        return session;
+    }
+
+    /**
+     * Writes the record payload, without framing, to the given output.
+     *
+     * @param out the output to write to.
+     * @throws IOException if the underlying output fails.
+     */
+    void encode(DataOutput out) throws IOException {
+        out.writeByte(type.code);
+        Codec.writeString(out, deckName);
+        switch (type) {
+        case CREATE_DECK:
+            break;
+        case RENAME_DECK:
+            Codec.writeString(out, newDeckName);
+            break;
+        case CREATE_FLASHCARD:
+            Codec.writeString(out, question);
+            Codec.writeString(out, answer);
+            break;
+        case EDIT_FLASHCARD:
+            Codec.writeVarInt(out, position);
+            Codec.writeString(out, question);
+            Codec.writeString(out, answer);
+            break;
+        case DELETE_FLASHCARD:
+            Codec.writeVarInt(out, position);
+            break;
+        case INSERT_CODE:
+            Codec.writeVarInt(out, position);
+            Codec.writeString(out, codeSnippet);
+            break;
+        case SCHEDULE_FLASHCARD:
+            Codec.writeVarInt(out, flashcardId);
+            Codec.writeVarInt(out, repetitions);
+            Codec.writeVarInt(out, intervalDays);
+            Codec.writeVarInt(out, easePermille);
+            out.writeLong(dueTime);
+            break;
+        case RECORD_ATTEMPT:
+            Codec.writeVarInt(out, flashcardId);
+            out.writeLong(time);
+            out.writeByte(isCorrect ? 1 : 0);
+            Codec.writeVarInt(out, latencyMillis);
+            Codec.writeString(out, givenAnswer);
+            break;
+        case MOVE_TO_BOX:
+            Codec.writeVarInt(out, flashcardId);
+            out.writeByte(box);
+            break;
+        case START_BOX_SESSION:
+            Codec.writeVarInt(out, session);
+            break;
+        default:
+            throw new IllegalStateException("Unhandled journal record type: " + type);
+        }
+    }
+
+    /**
+     * Reads a record payload written by {@link #encode(DataOutput)}.
+     *
+     * @param in the buffer positioned at the start of the payload.
+     * @return the decoded record.
+     */
+    static JournalRecord decode(ByteBuffer in) {
+        Type type = Type.fromCode(in.get());
+        String deckName = Codec.readString(in);
+        switch (type) {
+        case CREATE_DECK:
+            return createDeck(deckName);
+        case RENAME_DECK:
+            return renameDeck(deckName, Codec.readString(in));
+        case CREATE_FLASHCARD:
+            return createFlashcard(deckName, Codec.readString(in), Codec.readString(in));
+        case EDIT_FLASHCARD:
+            return editFlashcard(deckName, Codec.readVarInt(in), Codec.readString(in), Codec.readString(in));
+        case DELETE_FLASHCARD:
+            return deleteFlashcard(deckName, Codec.readVarInt(in));
+        case INSERT_CODE:
+            return insertCode(deckName, Codec.readVarInt(in), Codec.readString(in));
+        case SCHEDULE_FLASHCARD:
+            return scheduleFlashcard(deckName, Codec.readVarInt(in), Codec.readVarInt(in), Codec.readVarInt(in),
+                    Codec.readVarInt(in), in.getLong());
+        case RECORD_ATTEMPT:
+            return recordAttempt(deckName, Codec.readVarInt(in), in.getLong(), in.get() != 0, Codec.readVarInt(in),
+                    Codec.readString(in));
+        case MOVE_TO_BOX:
+            return moveToBox(deckName, Codec.readVarInt(in), in.get());
+        case START_BOX_SESSION:
+            return startBoxSession(deckName, Codec.readVarInt(in));
+        default:
+            throw new IllegalStateException("Unhandled journal record type: " + type);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import deck.AttemptHistory;
+import deck.Deck;
+import deck.Flashcard;
+import deck.LeitnerBoxes;
+
+/**
+ * A point-in-time copy of all decks, written as a directory of deck files.
+ *
+ * <p>A snapshot directory holds one {@link DeckFile} per deck, the {@link HistoryFile} of
+ * every deck that has attempts, the {@link BoxesFile} of every deck studied in Leitner boxes,
+ * and a {@code MANIFEST} that lists the deck names in order together with their file names.
+ * The manifest is written last, so a snapshot without one is incomplete and must be ignored.</p>
+ *
+ * <p>{@link #capture(Collection)} runs on the command loop: it copies deck names, the flashcards
+ * of changed decks, a frozen view of the attempt history and the Leitner boxes. {@link #write(Path)}
+ * does the encoding and file I/O and may run on a background thread while the decks keep changing,
+ * so it never reads anything the decks still change.</p>
+ */
+public class Snapshot {
+    public static final String MANIFEST_FILE_NAME = "MANIFEST";
+
+    private static final int MAGIC = 0x464C5331; // "FLS1"
+    private static final Logger logger = Logger.getLogger(Snapshot.class.getName());
+
+    private final List<Entry> entries;
+
+    private Snapshot(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Captures the current state of the given decks.
+     *
+     * <p>Decks with unsaved changes have their flashcards copied, since code snippets and
+     * schedules are set on flashcards in place. A change made after the capture is only in the
+     * journal of the next generation, so the snapshot holds exactly the state before it.</p>
+     *
+     * @param decks the decks to capture, in display order.
+     * @return the captured snapshot.
+     */
+    public static Snapshot capture(Collection<Deck> decks) {
+        List<Entry> entries = new ArrayList<>(decks.size());
+        for (Deck deck : decks) {
+            String fileName = entries.size() + DeckFile.EXTENSION;
+            List<Flashcard> flashcards = deck.hasUnsavedChanges() ? deck.captureFlashcards() : null;
+            int nextId = flashcards != null ? deck.getNextId() : 0;
+            boolean hasUnsavedProgress = deck.hasUnsavedProgress();
+            AttemptHistory history = hasUnsavedProgress ? deck.captureAttemptHistory() : null;
+            LeitnerBoxes boxes = hasUnsavedProgress ? deck.captureLeitnerBoxes() : null;
+            entries.add(new Entry(deck, deck.getName(), fileName, deck.getSourcePath(), flashcards, nextId,
+                    history, boxes, deck.getModificationCount(), deck.getProgressModificationCount()));
+        }
+        return new Snapshot(entries);
+    }
+
+    /**
+     * Writes the captured decks into the snapshot directory, replacing its contents.
+     *
+     * <p>Decks that were unchanged since they were loaded from a deck file are linked or
+     * copied from that file instead of being re-encoded, and so are histories and boxes that
+     * were never loaded or did not change, such as those of a deck that was only edited.</p>
+     *
+     * @param directory the snapshot directory to write.
+     * @throws IOException if any file cannot be written.
+     */
+    public void write(Path directory) throws IOException {
+        deleteRecursively(directory);
+        Files.createDirectories(directory);
+
+        for (Entry entry : entries) {
+            Path deckPath = directory.resolve(entry.fileName);
+            if (entry.flashcards != null) {
+                DeckFile.write(deckPath, entry.flashcards, entry.nextId);
+            } else {
+                linkOrCopy(entry.sourcePath, deckPath);
+            }
+
+            Path historyPath = HistoryFile.pathFor(deckPath);
+            if (entry.history != null) {
+                HistoryFile.write(historyPath, entry.history);
+            } else if (entry.sourcePath != null && Files.exists(HistoryFile.pathFor(entry.sourcePath))) {
+                linkOrCopy(HistoryFile.pathFor(entry.sourcePath), historyPath);
+            }
+
+            Path boxesPath = BoxesFile.pathFor(deckPath);
+            if (entry.boxes != null) {
+                BoxesFile.write(boxesPath, entry.boxes);
+            } else if (entry.sourcePath != null && Files.exists(BoxesFile.pathFor(entry.sourcePath))) {
+                linkOrCopy(BoxesFile.pathFor(entry.sourcePath), boxesPath);
+            }
+        }
+
+        Path manifestPath = directory.resolve(MANIFEST_FILE_NAME);
+        Path temporaryPath = directory.resolve(MANIFEST_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+                temporaryPath)))) {
+            out.writeInt(MAGIC);
+            Codec.writeVarInt(out, entries.size());
+            for (Entry entry : entries) {
+                Codec.writeString(out, entry.name);
+                Codec.writeString(out, entry.fileName);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporaryPath, manifestPath, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Points every captured deck that has not changed since the capture at its file in
+     * the written snapshot, so it no longer depends on older snapshots and can be evicted.
+     *
+     * <p>Must be called on the command loop thread, after {@link #write(Path)} succeeded.</p>
+     *
+     * @param directory the directory the snapshot was written to.
+     * @return the number of decks that are now saved.
+     */
+    public int markSaved(Path directory) {
+        int savedCount = 0;
+        for (Entry entry : entries) {
+            if (entry.deck.markSaved(directory.resolve(entry.fileName), entry.modificationCount,
+                    entry.progressModificationCount)) {
+                savedCount++;
+            }
+        }
+        return savedCount;
+    }
+
+    /**
+     * Loads the decks of a complete snapshot as handles, without opening their deck files.
+     *
+     * @param directory the snapshot directory to load.
+     * @return the decks in display order.
+     * @throws IOException if the manifest is missing or invalid.
+     */
+    public static List<Deck> load(Path directory) throws IOException {
+        ByteBuffer manifest = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(MANIFEST_FILE_NAME)));
+        List<Deck> decks = new ArrayList<>();
+        try {
+            if (manifest.getInt() != MAGIC) {
+                throw new IOException("Not a FlashCLI snapshot manifest: " + directory);
+            }
+            int count = Codec.readVarInt(manifest);
+            for (int i = 0; i < count; i++) {
+                String name = Codec.readString(manifest);
+                String fileName = Codec.readString(manifest);
+                decks.add(new Deck(name, directory.resolve(fileName)));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted snapshot manifest: " + directory, e);
+        }
+        return decks;
+    }
+
+    /**
+     * Deletes a snapshot directory and everything in it, if it exists.
+     *
+     * @param directory the directory to delete.
+     * @throws IOException if the directory cannot be listed or deleted.
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void linkOrCopy(Path existing, Path link) throws IOException {
+        try {
+            Files.createLink(link, existing);
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.fine("Hard link unavailable, copying " + existing + ": " + e.getMessage());
+            Files.copy(existing, link, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The captured state of a single deck.
+     */
+    private static class Entry {
+        private final Deck deck;
+        private final String name;
+        private final String fileName;
+        private final Path sourcePath;
+        private final List<Flashcard> flashcards;
+        private final int nextId;
+        private final AttemptHistory history;
+        private final LeitnerBoxes boxes;
+        private final int modificationCount;
+        private final int progressModificationCount;
+
+        Entry(Deck deck, String name, String fileName, Path sourcePath, List<Flashcard> flashcards, int nextId,
+                AttemptHistory history, LeitnerBoxes boxes, int modificationCount, int progressModificationCount) {
+            this.deck = deck;
+            this.name = name;
+            this.fileName = fileName;
+            this.sourcePath = sourcePath;
+            this.flashcards = flashcards;
+            this.nextId = nextId;
+            this.history = history;
+            this.boxes = boxes;
+            this.modificationCount = modificationCount;
+            this.progressModificationCount = progressModificationCount;
+        }
+    }
+}
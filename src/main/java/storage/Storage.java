@@ -0,0 +1,403 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import deck.Deck;
+import deck.DeckManager;
+import exceptions.FlashCLIArgumentException;
+
+/**
+ * Persists decks and flashcards as snapshots of deck files plus a journal of later mutations.
+ *
+ * <p>Storage is organised in generations. The {@code CURRENT} file names the generation of
+ * the latest complete snapshot, and the journal of a generation holds every mutation made
+ * after that snapshot was taken. {@link #init(Path)} loads the current snapshot into
+ * {@link DeckManager}, replays the journals from that generation onwards and opens the latest
+ * journal for appending. {@link #close()} writes a new snapshot, so the next startup does
+ * not need to replay anything.</p>
+ *
+ * <p>While running, the journal is compacted in the background once it grows past a
+ * threshold: the command loop rotates to a new journal and captures the decks, and a
+ * background thread writes the snapshot, points {@code CURRENT} at it and deletes the
+ * journals it replaces. Capturing copies every flashcard of the decks changed since their
+ * last snapshot, since code snippets and schedules are set on flashcards in place, so it
+ * costs the command loop time linear in the size of those decks. The command loop picks up
+ * the finished snapshot on a later {@link #commit()}, so it never waits for snapshot I/O.</p>
+ *
+ * <p>Mutating methods in {@code DeckManager} and {@code Deck} call {@link #record(JournalRecord)},
+ * and the command loop calls {@link #commit()} after every command. When storage has not been
+ * initialised, as in tests, recording is a no-op.</p>
+ */
+public class Storage {
+    public static final String CURRENT_FILE_NAME = "CURRENT";
+    public static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 4L << 20;
+
+    private static final long COMPACTOR_SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final Pattern JOURNAL_FILE_PATTERN = Pattern.compile("journal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_DIRECTORY_PATTERN = Pattern.compile("snapshot-(\\d+)");
+    private static final Logger logger = Logger.getLogger(Storage.class.getName());
+    private static Path dataDirectory;
+    private static int generation;
+    private static Journal journal;
+    private static long compactionThresholdBytes = DEFAULT_COMPACTION_THRESHOLD_BYTES;
+    private static ExecutorService compactor;
+    private static Future<?> pendingCompaction;
+    private static Snapshot pendingSnapshot;
+    private static int pendingSnapshotGeneration;
+
+    /**
+     * Restores all decks from the data directory and starts journaling.
+     *
+     * @param directory the directory holding snapshots and journals, created if missing.
+     * @return the number of journal records replayed on top of the snapshot.
+     * @throws IOException if the snapshot or a journal cannot be read, or the journal cannot be opened.
+     */
+    public static int init(Path directory) throws IOException {
+        assert journal == null : "Storage should only be initialised once";
+        Files.createDirectories(directory);
+        dataDirectory = directory;
+
+        int snapshotGeneration = readCurrentGeneration();
+        if (snapshotGeneration > 0) {
+            for (Deck deck : Snapshot.load(snapshotDirectory(snapshotGeneration))) {
+                DeckManager.decks.put(deck.getName(), deck);
+            }
+        }
+
+        int replayed = 0;
+        generation = snapshotGeneration;
+        for (int journalGeneration : listGenerations(JOURNAL_FILE_PATTERN)) {
+            if (journalGeneration < snapshotGeneration) {
+                continue;
+            }
+            List<JournalRecord> records = Journal.replay(journalPath(journalGeneration));
+            for (JournalRecord record : records) {
+                apply(record);
+            }
+            replayed += records.size();
+            generation = journalGeneration;
+        }
+        logger.info("Loaded snapshot " + snapshotGeneration + " and replayed " + replayed + " journal records");
+
+        journal = openJournal(generation);
+        compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storage-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return replayed;
+    }
+
+    /**
+     * Buffers a mutation to be written at the next {@link #commit()}.
+     *
+     * @param record the mutation to persist.
+     */
+    public static void record(JournalRecord record) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            logger.warning("Failed to journal " + record.getType() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes all mutations recorded since the last commit to the journal.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    public static void commit() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        journal.commit();
+        if (pendingCompaction != null && pendingCompaction.isDone()) {
+            finishCompaction();
+        }
+        if (pendingCompaction == null && journal.size() >= compactionThresholdBytes) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * Sets the journal size that triggers a background compaction.
+     *
+     * @param thresholdBytes the journal size in bytes.
+     */
+    public static void setCompactionThreshold(long thresholdBytes) {
+        compactionThresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * Starts writing a snapshot of all decks in the background and rotates to a new journal.
+     *
+     * @return true if a compaction was started, false if storage is closed or one is running.
+     * @throws IOException if the journal cannot be rotated.
+     */
+    public static boolean startCompaction() throws IOException {
+        if (journal == null || pendingCompaction != null) {
+            return false;
+        }
+        journal.close();
+        generation++;
+        journal = openJournal(generation);
+
+        int snapshotGeneration = generation;
+        Snapshot snapshot = Snapshot.capture(DeckManager.decks.values());
+        pendingSnapshot = snapshot;
+        pendingSnapshotGeneration = snapshotGeneration;
+        pendingCompaction = compactor.submit(() -> {
+            snapshot.write(snapshotDirectory(snapshotGeneration));
+            writeCurrentGeneration(snapshotGeneration);
+            logger.info("Wrote snapshot " + snapshotGeneration);
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * Waits for a running background compaction to finish and applies its result.
+     *
+     * @throws IOException if the snapshot could not be written.
+     */
+    public static void awaitCompaction() throws IOException {
+        if (pendingCompaction != null) {
+            finishCompaction();
+        }
+    }
+
+    /**
+     * Marks the decks captured by a finished snapshot as saved and schedules the deletion of
+     * the files it replaces. If the snapshot failed, the journals still hold every mutation.
+     */
+    private static void finishCompaction() throws IOException {
+        Future<?> compaction = pendingCompaction;
+        Snapshot snapshot = pendingSnapshot;
+        int snapshotGeneration = pendingSnapshotGeneration;
+        pendingCompaction = null;
+        pendingSnapshot = null;
+
+        try {
+            compaction.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Background snapshot failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for snapshot", e);
+        }
+
+        int savedCount = snapshot.markSaved(snapshotDirectory(snapshotGeneration));
+        logger.info("Snapshot " + snapshotGeneration + " saved " + savedCount + " decks");
+        DeckManager.enforceHeapBudget();
+        compactor.submit(() -> {
+            deleteObsoleteFiles(snapshotGeneration);
+            return null;
+        });
+    }
+
+    /**
+     * Commits and syncs outstanding mutations, closes the journal and writes a snapshot
+     * of all decks as the next generation.
+     *
+     * <p>If writing the snapshot fails, the journal still holds every mutation and
+     * nothing is lost.</p>
+     *
+     * @throws IOException if the journal cannot be closed or the snapshot cannot be written.
+     */
+    public static void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        try {
+            awaitCompaction();
+        } finally {
+            stopCompactor();
+            try {
+                journal.close();
+            } finally {
+                journal = null;
+            }
+        }
+
+        int nextGeneration = generation + 1;
+        Snapshot.capture(DeckManager.decks.values()).write(snapshotDirectory(nextGeneration));
+        writeCurrentGeneration(nextGeneration);
+        generation = nextGeneration;
+        deleteObsoleteFiles(nextGeneration);
+    }
+
+    /**
+     * Lets queued clean-up tasks finish, so they cannot race with the final snapshot.
+     */
+    private static void stopCompactor() {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(COMPACTOR_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for storage clean-up to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Journal openJournal(int journalGeneration) throws IOException {
+        return new Journal(journalPath(journalGeneration), Journal.DEFAULT_SYNC_BATCH_SIZE,
+                Journal.DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    private static Path journalPath(int journalGeneration) {
+        return dataDirectory.resolve(String.format("journal-%06d.log", journalGeneration));
+    }
+
+    private static Path snapshotDirectory(int snapshotGeneration) {
+        return dataDirectory.resolve(String.format("snapshot-%06d", snapshotGeneration));
+    }
+
+    private static int readCurrentGeneration() throws IOException {
+        Path currentPath = dataDirectory.resolve(CURRENT_FILE_NAME);
+        if (!Files.exists(currentPath)) {
+            return 0;
+        }
+        String content = new String(Files.readAllBytes(currentPath), StandardCharsets.UTF_8).trim();
+        try {
+            return Integer.parseInt(content);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + CURRENT_FILE_NAME + " file: " + content);
+        }
+    }
+
+    /**
+     * Atomically points {@code CURRENT} at the given snapshot generation.
+     */
+    private static void writeCurrentGeneration(int snapshotGeneration) throws IOException {
+        Path temporaryPath = dataDirectory.resolve(CURRENT_FILE_NAME + ".tmp");
+        Files.write(temporaryPath, Integer.toString(snapshotGeneration).getBytes(StandardCharsets.UTF_8));
+        Files.move(temporaryPath, dataDirectory.resolve(CURRENT_FILE_NAME), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the generations of all data files matching the pattern, in ascending order.
+     */
+    private static List<Integer> listGenerations(Pattern pattern) throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dataDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    /**
+     * Deletes the journals replaced by the given snapshot and all other snapshots.
+     *
+     * <p>Failures are only logged, as some platforms refuse to delete files that are still
+     * mapped; those files are retried the next time a snapshot is written.</p>
+     */
+    private static void deleteObsoleteFiles(int currentSnapshotGeneration) throws IOException {
+        for (int journalGeneration : listGenerations(JOURNAL_FILE_PATTERN)) {
+            if (journalGeneration < currentSnapshotGeneration) {
+                deleteQuietly(journalPath(journalGeneration));
+            }
+        }
+        for (int snapshotGeneration : listGenerations(SNAPSHOT_DIRECTORY_PATTERN)) {
+            if (snapshotGeneration != currentSnapshotGeneration) {
+                deleteQuietly(snapshotDirectory(snapshotGeneration));
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            if (Files.isDirectory(path)) {
+                Snapshot.deleteRecursively(path);
+            } else {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warning("Could not delete obsolete " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-applies a journaled mutation to the in-memory decks.
+     *
+     * <p>Records are applied through the same primitives the commands use, but since
+     * the journal is not yet open during replay, nothing is journaled again.</p>
+     */
+    private static void apply(JournalRecord record) {
+        try {
+            if (record.getType() == JournalRecord.Type.CREATE_DECK) {
+                DeckManager.createDeck(record.getDeckName());
+                return;
+            }
+
+            Deck deck = DeckManager.decks.get(record.getDeckName());
+            if (deck == null) {
+                logger.warning("Skipping " + record.getType() + " for unknown deck " + record.getDeckName());
+                return;
+            }
+            DeckManager.loadDeck(deck);
+
+            switch (record.getType()) {
+            case RENAME_DECK:
+                DeckManager.renameDeck(deck, record.getNewDeckName());
+                break;
+            case CREATE_FLASHCARD:
+                deck.addFlashcard(record.getQuestion(), record.getAnswer());
+                break;
+            case EDIT_FLASHCARD:
+                deck.replaceFlashcard(record.getPosition(), record.getQuestion(), record.getAnswer());
+                break;
+            case DELETE_FLASHCARD:
+                deck.removeFlashcard(record.getPosition());
+                break;
+            case INSERT_CODE:
+                deck.setCodeSnippet(record.getPosition(), record.getCodeSnippet());
+                break;
+            case SCHEDULE_FLASHCARD:
+                deck.setSchedule(record.getFlashcardId(), record.getRepetitions(), record.getIntervalDays(),
+                        record.getEasePermille(), record.getDueTime());
+                break;
+            case RECORD_ATTEMPT:
+                deck.recordAttempt(record.getFlashcardId(), record.getTime(), record.isCorrect(),
+                        record.getLatencyMillis() * 1_000_000L, record.getGivenAnswer());
+                break;
+            case MOVE_TO_BOX:
+                deck.moveToBox(record.getFlashcardId(), record.getBox());
+                break;
+            case START_BOX_SESSION:
+                deck.setBoxSession(record.getSession());
+                break;
+            default:
+                throw new IllegalStateException("Unhandled journal record type: " + record.getType());
+            }
+        } catch (FlashCLIArgumentException | ArrayIndexOutOfBoundsException e) {
+            logger.warning("Skipping inconsistent " + record.getType() + " record: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reads lines from a byte channel, for input piped in from a file or another program.
+ *
+ * <p>Bytes are read and decoded a whole buffer at a time into a char buffer that is reused for
+ * every line, and a line is cut straight out of that buffer unless it runs past the end of it.
+ * Lines end at {@code \n}, {@code \r} or {@code \r\n}, like {@link java.io.BufferedReader#readLine()}.
+ * Not thread-safe.</p>
+ */
+public class ChannelLineReader {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final StringBuilder longLine = new StringBuilder();
+    private boolean isAfterCarriageReturn;
+    private boolean isDrained;
+
+    /**
+     * Creates a reader with a 64K buffer.
+     *
+     * @param channel the channel to read.
+     * @param charset the charset of the input, with malformed bytes read as replacement characters.
+     */
+    public ChannelLineReader(ReadableByteChannel channel, Charset charset) {
+        this(channel, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelLineReader(ReadableByteChannel channel, Charset charset, int bufferSize) {
+        this.channel = channel;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate(bufferSize);
+        this.chars = CharBuffer.allocate(bufferSize);
+        chars.flip();
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return the line without its line terminator, or {@code null} at the end of the input.
+     * @throws IOException if the channel cannot be read.
+     */
+    public String readLine() throws IOException {
+        longLine.setLength(0);
+        do {
+            char[] array = chars.array();
+            int start = chars.position();
+            int end = chars.limit();
+            if (isAfterCarriageReturn && start < end) {
+                isAfterCarriageReturn = false;
+                if (array[start] == '\n') {
+                    start++;
+                }
+            }
+            for (int i = start; i < end; i++) {
+                char c = array[i];
+                if (c == '\n' || c == '\r') {
+                    isAfterCarriageReturn = c == '\r';
+                    chars.position(i + 1);
+                    if (longLine.length() == 0) {
+                        return new String(array, start, i - start);
+                    }
+                    return longLine.append(array, start, i - start).toString();
+                }
+            }
+            longLine.append(array, start, end - start);
+            chars.position(end);
+        } while (fill());
+        return longLine.length() > 0 ? longLine.toString() : null;
+    }
+
+    /**
+     * Refills the char buffer, waiting for the channel until at least one char is decoded.
+     *
+     * @return false at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0 && !isDrained) {
+            boolean isEndOfInput = channel.read(bytes) < 0;
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, isEndOfInput);
+            bytes.compact();
+            if (isEndOfInput && !result.isOverflow()) {
+                decoder.flush(chars);
+                isDrained = true;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
@@ -1,13 +1,48 @@
 package ui;
 
 import static constants.CommandConstants.EXIT;
-import java.util.Scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 /**
  * Handles user interaction by reading input and displaying messages.
+ *
+ * <p>Input lines are read by a daemon thread into a bounded queue, so a caller can wait for the next
+ * line with a deadline instead of blocking on the console until the user types something. The
+ * reader waits while the queue is full, so piped input is not read into memory all at once.
+ * Piped input is read a large block at a time by a {@link ChannelLineReader}; input typed on a
+ * console is read line by line.</p>
+ *
+ * <p>Output is collected in a buffer and written out when the program waits for input, when it
+ * exits or when {@link #flush()} is called, so a scripted run piping its output to a file makes
+ * a handful of writes instead of one per line. On an interactive console every message is
+ * written out straight away.</p>
  */
 public class Ui {
-    private static final Scanner in = new Scanner(System.in);
+    private static final Logger logger = Logger.getLogger(Ui.class.getName());
+    private static final boolean IS_INTERACTIVE = System.console() != null;
+    // bounded, so piped input is read ahead only this many lines instead of all into memory
+    private static final int INPUT_QUEUE_CAPACITY = 1024;
+    private static final BlockingQueue<String> inputLines = new LinkedBlockingQueue<>(INPUT_QUEUE_CAPACITY);
+    // compared by identity, so no line typed by the user can be mistaken for it
+    private static final String END_OF_INPUT = new String(EXIT);
+    private static Thread inputReader;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final StringBuilder output = new StringBuilder(OUTPUT_BUFFER_SIZE);
+    private static boolean isAutoFlush = IS_INTERACTIVE;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(Ui::flush, "output-flush"));
+    }
 
     /**
      * Reads and returns the next user command from input.
@@ -16,20 +51,110 @@ public class Ui {
      * @return The user input as a string, or EXIT if no input is available.
      */
     public static String getUserCommand() {
-        if (in.hasNextLine()) {
-            return in.nextLine();
-        } else {
+        flush();
+        startInputReader();
+        try {
+            return toCommand(inputLines.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return EXIT; // Return a safe default to avoid exceptions
         }
     }
 
+    /**
+     * Waits for the next user command until the timeout passes, without busy waiting.
+     *
+     * @param timeoutNanos how long to wait, in nanoseconds; zero or less only takes a line already typed.
+     * @return The user input as a string, EXIT if no input is available, or {@code null} if the time ran out.
+     */
+    public static String getUserCommand(long timeoutNanos) {
+        flush();
+        startInputReader();
+        try {
+            String line = inputLines.poll(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+            return line == null ? null : toCommand(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT;
+        }
+    }
+
+    /**
+     * Returns whether input is typed on a console rather than piped in.
+     *
+     * @return true for an interactive console.
+     */
+    public static boolean isInteractive() {
+        return IS_INTERACTIVE;
+    }
+
+    /**
+     * Waits for the line the user was typing when the time for a question ran out, and discards it.
+     *
+     * <p>A late answer only reaches the queue once the user presses Enter, which is usually after the
+     * next question is shown, so it cannot be told apart from an answer to that question by when it
+     * arrives. The caller asks the user to press Enter after a timeout instead, and the line that comes
+     * next, late answer or empty, is dropped here along with anything else typed ahead. Piped input is
+     * left alone, as its lines are the answers to the questions that follow.</p>
+     *
+     * @param deadlineNanos when to stop waiting, from {@link System#nanoTime()}, or {@link Long#MAX_VALUE}.
+     */
+    public static void discardLateInput(long deadlineNanos) {
+        if (!IS_INTERACTIVE) {
+            return;
+        }
+        if (deadlineNanos == Long.MAX_VALUE) {
+            getUserCommand();
+        } else {
+            getUserCommand(deadlineNanos - System.nanoTime());
+        }
+        inputLines.removeIf(line -> line != END_OF_INPUT);
+    }
+
+    private static String toCommand(String line) {
+        if (line == END_OF_INPUT) {
+            // leave the marker for the next reader, input stays closed; the reader has stopped, so there is room
+            inputLines.add(END_OF_INPUT);
+            return EXIT;
+        }
+        return line;
+    }
+
+    private static synchronized void startInputReader() {
+        if (inputReader != null) {
+            return;
+        }
+        LineSource in = IS_INTERACTIVE
+                ? new BufferedReader(new InputStreamReader(System.in, Charset.defaultCharset()))::readLine
+                : new ChannelLineReader(Channels.newChannel(System.in), Charset.defaultCharset())::readLine;
+        inputReader = new Thread(() -> {
+            try {
+                for (String line = in.readLine(); line != null; line = in.readLine()) {
+                    inputLines.put(line);
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to read input: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                inputLines.put(END_OF_INPUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "input-reader");
+        inputReader.setDaemon(true);
+        inputReader.start();
+    }
+
     /**
      * Displays a message to the user.
      *
      * @param message The message to display.
      */
     public static void showToUser(String message) {
-        System.out.println(message);
+        write(message);
     }
 
     /**
@@ -38,6 +163,44 @@ public class Ui {
      * @param message The error message to display.
      */
     public static void showError(String message) {
-        System.out.println(message);
+        write(message);
+    }
+
+    private static synchronized void write(String message) {
+        output.append(message).append(System.lineSeparator());
+        if (isAutoFlush || output.length() >= OUTPUT_BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes out the messages displayed so far.
+     */
+    public static synchronized void flush() {
+        if (output.length() > 0) {
+            System.out.print(output);
+            output.setLength(0);
+        }
+        System.out.flush();
+    }
+
+    /**
+     * Chooses whether every message is written out as soon as it is displayed.
+     *
+     * @param autoFlush true to write out every message straight away, as on an interactive console,
+     *                  or false to buffer messages until the next prompt.
+     */
+    public static synchronized void setAutoFlush(boolean autoFlush) {
+        isAutoFlush = autoFlush;
+        if (autoFlush) {
+            flush();
+        }
+    }
+
+    /**
+     * Where input lines come from.
+     */
+    private interface LineSource {
+        String readLine() throws IOException;
     }
 }
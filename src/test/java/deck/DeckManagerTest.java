@@ -2,32 +2,48 @@ package deck;
 
 import static constants.ErrorMessages.DUPLICATE_DECK_NAME;
 import static constants.ErrorMessages.EMPTY_DECK_NAME;
+import static constants.ErrorMessages.EXPORT_MISSING_FILE;
 import static constants.ErrorMessages.MISSING_DECK_NAME;
 import static constants.ErrorMessages.NO_DECK_TO_SWITCH;
 import static constants.ErrorMessages.NO_DECK_TO_VIEW;
 import static constants.ErrorMessages.NO_SUCH_DECK;
 import static constants.ErrorMessages.UNCHANGED_DECK_NAME;
 import static constants.SuccessMessages.CREATE_DECK_SUCCESS;
+import static constants.SuccessMessages.EXPORT_SUCCESS;
 import static constants.SuccessMessages.RENAME_DECK_SUCCESS;
 import static constants.SuccessMessages.SWITCH_DECK_SUCCESS;
 import static constants.SuccessMessages.VIEW_DECKS_SUCCESS;
+import static constants.SuccessMessages.VIEW_QUESTION_SUCCESS;
 import static deck.DeckManager.createDeck;
 import static deck.DeckManager.currentDeck;
 import static deck.DeckManager.decks;
+import static deck.DeckManager.exportDecks;
 import static deck.DeckManager.renameDeck;
 
 import static deck.DeckManager.switchDeck;
 import static deck.DeckManager.viewDecks;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import exceptions.FlashCLIArgumentException;
+import storage.DeckFile;
 
 public class DeckManagerTest {
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         decks.clear();
@@ -160,4 +176,101 @@ public class DeckManagerTest {
         assertEquals(NO_SUCH_DECK, exception.getMessage());
     }
 
+    /*
+     * Tests for deck eviction ====================================================================================
+     */
+
+    @Test
+    void switchDeck_overHeapBudget_evictsColdUnmodifiedDeck() throws FlashCLIArgumentException, IOException {
+        Deck source = new Deck("source");
+        source.addFlashcard("What is Java?", "A programming language.");
+        Path deckPath = tempDir.resolve("saved" + DeckFile.EXTENSION);
+        DeckFile.write(deckPath, source.getFlashcards());
+
+        long originalBudget = DeckManager.getHeapBudget();
+        try {
+            decks.put("Saved", new Deck("Saved", deckPath));
+            createDeck("Scratch");
+            switchDeck("Saved");
+            Deck saved = decks.get("Saved");
+            assertEquals(1, saved.getFlashcards().size());
+            assertTrue(saved.getHeapBytes() > 0);
+
+            DeckManager.setHeapBudget(0);
+            switchDeck("Scratch");
+            assertFalse(saved.isLoaded());
+
+            switchDeck("Saved");
+            assertEquals(String.format(VIEW_QUESTION_SUCCESS, 1, "What is Java?", ""), saved.viewFlashcardQuestion(1));
+        } finally {
+            DeckManager.setHeapBudget(originalBudget);
+        }
+    }
+
+    @Test
+    void loadDeck_answeredOutsideCurrentDeck_evictedOnceProgressSaved() throws FlashCLIArgumentException, IOException {
+        Deck source = new Deck("source");
+        source.addFlashcard("What is Java?", "A programming language.");
+        Path deckPath = tempDir.resolve("answered" + DeckFile.EXTENSION);
+        DeckFile.write(deckPath, source.getFlashcards());
+
+        long originalBudget = DeckManager.getHeapBudget();
+        try {
+            decks.put("Answered", new Deck("Answered", deckPath));
+            createDeck("Scratch");
+            switchDeck("Scratch");
+            Deck answered = decks.get("Answered");
+            DeckManager.loadDeck(answered);
+            answered.recordAttempt(answered.getFlashcards().get(0).getId(), 1000, true, 0, "A programming language");
+            assertFalse(answered.hasUnsavedChanges());
+            assertTrue(answered.hasUnsavedProgress());
+
+            DeckManager.setHeapBudget(0);
+            assertTrue(answered.isLoaded());
+
+            assertTrue(answered.markSaved(deckPath, answered.getModificationCount(),
+                    answered.getProgressModificationCount()));
+            DeckManager.enforceHeapBudget();
+            assertFalse(answered.isLoaded());
+        } finally {
+            DeckManager.setHeapBudget(originalBudget);
+        }
+    }
+
+    /*
+     * Tests for export command ===================================================================================
+     */
+
+    @Test
+    void exportDecks_savedAndModifiedDecks_writesReadableDeckFiles() throws FlashCLIArgumentException, IOException {
+        Deck source = new Deck("source");
+        source.addFlashcard("What is Java?", "A programming language.");
+        Path deckPath = tempDir.resolve("saved" + DeckFile.EXTENSION);
+        DeckFile.write(deckPath, source.getFlashcards());
+        decks.put("Saved", new Deck("Saved", deckPath));
+        createDeck("Scratch");
+        switchDeck("Scratch");
+        currentDeck.addFlashcard("What is the JVM?", "A virtual machine.");
+
+        Path scratchExport = tempDir.resolve("scratch" + DeckFile.EXTENSION);
+        exportDecks("/o " + scratchExport);
+        assertEquals("What is the JVM?", DeckFile.open(scratchExport).getQuestion(0));
+
+        switchDeck("Saved");
+        Path savedExport = tempDir.resolve("export" + DeckFile.EXTENSION);
+        long size = Files.size(deckPath);
+        assertEquals(String.format(EXPORT_SUCCESS, 1, size, savedExport), exportDecks("/o " + savedExport));
+        assertArrayEquals(Files.readAllBytes(deckPath), Files.readAllBytes(savedExport));
+
+        Path archive = tempDir.resolve("all.flx");
+        exportDecks("/all /o " + archive);
+        assertTrue(Files.size(archive) > size + Files.size(scratchExport));
+        Path reorderedArchive = tempDir.resolve("all-reordered.flx");
+        exportDecks("/o " + reorderedArchive + " /all");
+        assertArrayEquals(Files.readAllBytes(archive), Files.readAllBytes(reorderedArchive));
+        assertThrows(FlashCLIArgumentException.class, () -> exportDecks("/everything"));
+        assertThrows(FlashCLIArgumentException.class, () -> exportDecks("/all everything"));
+        FlashCLIArgumentException e = assertThrows(FlashCLIArgumentException.class, () -> exportDecks("/all"));
+        assertEquals(EXPORT_MISSING_FILE, e.getMessage());
+    }
 }
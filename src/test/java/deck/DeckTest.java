@@ -6,6 +6,7 @@ import static constants.ErrorMessages.CREATE_MISSING_FIELD;
 import static constants.ErrorMessages.EMPTY_LIST;
 import static constants.ErrorMessages.INSERT_MISSING_CODE;
 import static constants.ErrorMessages.INSERT_MISSING_FIELD;
+import static constants.ErrorMessages.SEARCH_NO_MATCH;
 import static constants.ErrorMessages.VIEW_INVALID_INDEX;
 import static constants.ErrorMessages.VIEW_OUT_OF_BOUNDS;
 import static constants.QuizMessages.QUIZ_CANCEL;
@@ -14,9 +15,17 @@ import static constants.SuccessMessages.CREATE_SUCCESS;
 import static constants.SuccessMessages.VIEW_ANSWER_SUCCESS;
 import static constants.SuccessMessages.VIEW_QUESTION_SUCCESS;
 import static constants.SuccessMessages.EDIT_SUCCESS;
+import static constants.SuccessMessages.FIND_APPROXIMATE_SUCCESS;
+import static constants.SuccessMessages.FIND_SUCCESS;
 import static constants.SuccessMessages.LIST_SUCCESS;
+import static constants.SuccessMessages.QUIZRESULT_FULL_MARKS;
+import static constants.SuccessMessages.SEARCH_SUCCESS;
+import static constants.SuccessMessages.STATS_FLASHCARD;
+import static constants.SuccessMessages.VIEW_QUIZRESULT_SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -34,6 +43,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 
 public class DeckTest {
     private Deck deck;
@@ -155,6 +166,15 @@ public class DeckTest {
         }
     }
 
+    @Test
+    void createFlashcard_flagTextInQuestion_notSplit() throws FlashCLIArgumentException {
+        deck.createFlashcard("/q Is km/a a unit, and what does \\/a mean? /a No. It starts the answer.");
+
+        Flashcard createdFlashcard = deck.getFlashcards().get(0);
+        assertEquals("Is km/a a unit, and what does /a mean?", createdFlashcard.getQuestion());
+        assertEquals("No. It starts the answer.", createdFlashcard.getAnswer());
+    }
+
     @Test
     void viewFlashcardQuestion_validInputs_success() {
         String createInput = "/q What is Java? /a A programming language.";
@@ -400,8 +420,8 @@ public class DeckTest {
             assertTrue(quizSuccess);
         } catch (EmptyListException e) {
             assertEquals(EMPTY_LIST,e.getMessage());
-        } catch (QuizCancelledException e) {
-            fail("Unexpected QuizCancelledException was thrown: " + e.getMessage());
+        } catch (FlashCLIArgumentException | QuizCancelledException e) {
+            fail("Unexpected Exception was thrown: " + e.getMessage());
         }
     }
 
@@ -473,4 +493,429 @@ public class DeckTest {
         }
     }
 
+    @Test
+    void searchFlashcards_afterEditDeleteAndInsert_indexStaysCurrent() throws FlashCLIArgumentException {
+        deck.createFlashcard("/q What is Java? /a A programming language.");
+        deck.createFlashcard("/q What is a HashMap? /a A hash table.");
+        deck.createFlashcard("/q What is Python? /a Another programming language.");
+
+        assertEquals(String.format(SEARCH_SUCCESS, 2, "programming language",
+                "1. What is Java?\n3. What is Python?"), deck.searchFlashcards("programming language"));
+
+        deck.deleteFlashcard(1);
+        deck.editFlashcard(2, "/q What is Kotlin? /a A JVM language.");
+        deck.insertCodeSnippet(1, "1 /c Map<String, Integer> map = new HashMap<>();");
+
+        assertEquals(String.format(SEARCH_SUCCESS, 1, "hashmap", "1. What is a HashMap?"),
+                deck.searchFlashcards("hashmap"));
+        assertEquals(String.format(SEARCH_SUCCESS, 1, "JVM", "2. What is Kotlin?"), deck.searchFlashcards("JVM"));
+        try {
+            deck.searchFlashcards("python");
+            fail("Expected no match for a deleted flashcard");
+        } catch (FlashCLIArgumentException e) {
+            assertEquals(String.format(SEARCH_NO_MATCH, "python"), e.getMessage());
+        }
+    }
+
+    @Test
+    void findFlashcards_codeFragmentsAndTypos_matchesQuestionAndCode() throws FlashCLIArgumentException {
+        deck.createFlashcard("/q What is a HashMap? /a A hash table.");
+        deck.insertCodeSnippet(1, "1 /c Map<String, Integer> map = new HashMap<>();");
+        deck.createFlashcard("/q What does a lambda look like? /a An anonymous function.");
+        deck.insertCodeSnippet(2, "2 /c list.forEach(x -> System.out.println(x));");
+        deck.createFlashcard("/q What is an ArrayList? /a A resizable array.");
+
+        assertEquals(String.format(FIND_SUCCESS, 1, "HashMap<", "1. What is a HashMap?"),
+                deck.findFlashcards("HashMap<"));
+        assertEquals(String.format(FIND_SUCCESS, 1, "->", "2. What does a lambda look like?"),
+                deck.findFlashcards("->"));
+        assertEquals(String.format(FIND_APPROXIMATE_SUCCESS, 1, "ArayList", "3. What is an ArrayList?"),
+                deck.findFlashcards("ArayList"));
+
+        deck.deleteFlashcard(1);
+        assertEquals(String.format(FIND_SUCCESS, 1, "what is", "2. What is an ArrayList?"),
+                deck.findFlashcards("what is"));
+    }
+
+    @Test
+    void deleteFlashcard_manyDeletes_idsStayStableAndIndexesShift() throws FlashCLIArgumentException {
+        for (int i = 0; i < 100; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+        }
+        for (int i = 0; i < 80; i++) {
+            deck.deleteFlashcard(1);
+        }
+
+        assertEquals(20, deck.getFlashcardCount());
+        assertEquals("Question 80", deck.getFlashcards().get(0).getQuestion());
+        Flashcard last = deck.getFlashcardById(99);
+        assertEquals("Question 99", last.getQuestion());
+        assertEquals(20, deck.indexOf(last));
+        assertEquals(null, deck.getFlashcardById(5));
+
+        deck.editFlashcard(20, "/q Edited /a Card");
+        assertEquals("Edited", deck.getFlashcardById(99).getQuestion());
+        assertEquals(100, deck.addFlashcard("New", "Card").getId());
+        assertEquals(21, deck.indexOf(deck.getFlashcardById(100)));
+    }
+
+    @Test
+    void reviewFlashcard_correctAnswers_intervalsGrowWithEase() {
+        Flashcard flashcard = deck.addFlashcard("What is Java?", "A programming language.");
+        long day = ReviewScheduler.DAY_MILLIS;
+
+        deck.reviewFlashcard(flashcard.getId(), ReviewScheduler.CORRECT_QUALITY, 0);
+        assertEquals(1, flashcard.getIntervalDays());
+        assertEquals(2500, flashcard.getEasePermille());
+        deck.reviewFlashcard(flashcard.getId(), ReviewScheduler.CORRECT_QUALITY, day);
+        assertEquals(6, flashcard.getIntervalDays());
+        deck.reviewFlashcard(flashcard.getId(), ReviewScheduler.CORRECT_QUALITY, 7 * day);
+        assertEquals(15, flashcard.getIntervalDays());
+        assertEquals(22 * day, flashcard.getDueTime());
+
+        deck.reviewFlashcard(flashcard.getId(), ReviewScheduler.INCORRECT_QUALITY, 22 * day);
+        assertEquals(0, flashcard.getRepetitions());
+        assertEquals(1, flashcard.getIntervalDays());
+        assertEquals(1960, flashcard.getEasePermille());
+    }
+
+    @Test
+    void reviewScheduler_reviewsAndEdits_soonestDueFlashcardFirst() throws FlashCLIArgumentException {
+        for (int i = 0; i < 5; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+        }
+        ReviewScheduler scheduler = new ReviewScheduler(deck.getFlashcards());
+        assertEquals("Question 0", scheduler.peek().getQuestion());
+
+        Flashcard first = scheduler.peek();
+        ReviewScheduler.grade(first, ReviewScheduler.CORRECT_QUALITY, 1000);
+        scheduler.add(first);
+        assertEquals("Question 1", scheduler.peek().getQuestion());
+
+        Flashcard second = scheduler.peek();
+        scheduler.remove(second);
+        assertEquals("Question 2", scheduler.peek().getQuestion());
+        assertEquals(4, scheduler.size());
+
+        for (int i = 0; i < 3; i++) {
+            Flashcard due = scheduler.peek();
+            ReviewScheduler.grade(due, ReviewScheduler.INCORRECT_QUALITY, 2000 + i);
+            scheduler.add(due);
+        }
+        assertEquals(first, scheduler.peek());
+
+        deck.editFlashcard(1, "/q Edited /a Card");
+        assertEquals(first.getDueTime(), deck.getFlashcardById(first.getId()).getDueTime());
+    }
+
+    @Test
+    void shuffleOrder_sameSeed_samePermutation() {
+        int[] order = Deck.shuffleOrder(1000, 42);
+        assertArrayEquals(order, Deck.shuffleOrder(1000, 42));
+        assertFalse(Arrays.equals(order, Deck.shuffleOrder(1000, 43)));
+
+        boolean[] seen = new boolean[order.length];
+        for (int position : order) {
+            assertFalse(seen[position]);
+            seen[position] = true;
+        }
+        assertEquals(0, Deck.shuffleOrder(0, 42).length);
+    }
+
+    @Test
+    void quizSession_interleavedSessionsOverTwoDecks_keepSeparateResults() throws Exception {
+        Deck otherDeck = new Deck("test2");
+        for (int i = 0; i < 3; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+            otherDeck.addFlashcard("Other " + i, "Other answer " + i);
+        }
+        QuizSession session = deck.newQuizSession(true, 1);
+        QuizSession otherSession = otherDeck.newQuizSession(true, 1);
+
+        while (session.hasNextQuestion()) {
+            session.recordAnswer("wrong", false, 1_000_000);
+            Flashcard otherFlashcard = otherSession.getCurrentFlashcard();
+            otherSession.recordAnswer(otherFlashcard.getAnswer(), true, 2_000_000);
+        }
+        session.complete();
+        otherSession.complete();
+
+        assertEquals(3, session.getIncorrectCount());
+        assertEquals(QUIZRESULT_FULL_MARKS, otherDeck.showQuizResult(otherSession));
+        assertEquals(VIEW_QUIZRESULT_SUCCESS, deck.showQuizResult(session));
+        assertThrows(FlashCLIArgumentException.class, () -> deck.showQuizResult());
+        assertThrows(EmptyListException.class, () -> deck.newQuizSession(false, 1));
+    }
+
+    @Test
+    void newQuizSession_fullDeck_showsCommandToRepeatOrder() throws EmptyListException, FlashCLIArgumentException {
+        deck.addFlashcard("Question", "Answer");
+        assertEquals("quiz 5", deck.newQuizSession(true, 5).getRepeatCommand());
+    }
+
+    @Test
+    void quizSession_mistakes_trackedByIdAndQuestion() throws EmptyListException, FlashCLIArgumentException {
+        for (int i = 0; i < 5; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+        }
+        QuizSession session = deck.newQuizSession(true, 9);
+        while (session.hasNextQuestion()) {
+            Flashcard flashcard = session.getCurrentFlashcard();
+            boolean isCorrect = flashcard.getId() % 2 == 0;
+            session.recordAnswer("Reply " + flashcard.getId(), isCorrect, 1_000_000);
+        }
+        session.complete();
+
+        assertEquals(2, session.getIncorrectCount());
+        assertArrayEquals(new int[] {1, 3}, session.incorrectIdStream(deck).toArray());
+        for (int question = 0; question < session.getQuestionCount(); question++) {
+            int id = session.getFlashcardAt(question).getId();
+            String expected = id % 2 == 0 ? null : "Reply " + id;
+            assertEquals(expected, session.getIncorrectAnswerAt(question));
+        }
+    }
+
+    @Test
+    void interleavedQuiz_threeDecks_asksEveryFlashcardOnceSpreadEvenly() {
+        Deck small = new Deck("small");
+        Deck large = new Deck("large");
+        Deck medium = new Deck("medium");
+        Deck empty = new Deck("empty");
+        small.addFlashcard("Small", "Answer");
+        for (int i = 0; i < 8; i++) {
+            medium.addFlashcard("Medium " + i, "Answer");
+            large.addFlashcard("Large " + i, "Answer");
+            large.addFlashcard("Large " + (i + 8), "Answer");
+        }
+        InterleavedQuiz quiz = new InterleavedQuiz(Arrays.asList(small, medium, empty, large), 5);
+        assertEquals(25, quiz.getQuestionsLeft());
+
+        HashSet<String> asked = new HashSet<>();
+        int largeInFirstHalf = 0;
+        for (int question = 0; question < 25; question++) {
+            Flashcard flashcard = quiz.nextFlashcard();
+            assertTrue(asked.add(flashcard.getQuestion()));
+            assertTrue(flashcard.getQuestion().toLowerCase().startsWith(quiz.getCurrentDeck().getName()));
+            if (question < 12 && quiz.getCurrentDeck() == large) {
+                largeInFirstHalf++;
+            }
+        }
+        assertFalse(quiz.hasNextQuestion());
+        assertEquals(8, largeInFirstHalf);
+    }
+
+    @Test
+    void quizSession_interleavedDecks_mistakesKeptByDeck() {
+        Deck first = new Deck("first");
+        Deck second = new Deck("second");
+        for (int i = 0; i < 3; i++) {
+            first.addFlashcard("First " + i, "Answer");
+            second.addFlashcard("Second " + i, "Answer");
+        }
+        int firstMistakeId = first.getFlashcards().get(1).getId();
+        QuizSession session = new QuizSession(new InterleavedQuiz(Arrays.asList(first, second), 7), 7);
+        assertTrue(session.isInterleaved());
+        assertEquals(6, session.getQuestionCount());
+
+        while (session.hasNextQuestion()) {
+            Flashcard flashcard = session.getCurrentFlashcard();
+            assertTrue(flashcard.getQuestion().toLowerCase().startsWith(session.getCurrentDeck().getName()));
+            boolean isCorrect = session.getCurrentDeck() != first || flashcard.getId() != firstMistakeId;
+            session.recordAnswer("Reply", isCorrect, 1_000_000);
+        }
+        session.complete();
+
+        assertEquals(1, session.getIncorrectCount());
+        assertArrayEquals(new int[] {firstMistakeId}, session.incorrectIdStream(first).toArray());
+        assertEquals(0, session.incorrectIdStream(second).count());
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(session.getDecks()));
+    }
+
+    @Test
+    void leitnerBoxes_promoteAndDemote_keepBoxesInArrivalOrder() {
+        LeitnerBoxes boxes = new LeitnerBoxes();
+        for (int id = 0; id < 100; id++) {
+            boxes.add(id);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int id : boxes.getIds(1)) {
+                if (id % 10 == 0) {
+                    boxes.demote(id);
+                } else {
+                    boxes.promote(id);
+                }
+            }
+        }
+
+        assertArrayEquals(new int[] {0, 10, 20, 30, 40, 50, 60, 70, 80, 90}, boxes.getIds(1));
+        assertEquals(90, boxes.getCount(2));
+        assertEquals(2, boxes.promote(50));
+        assertEquals(91, boxes.getIds(2).length);
+        assertEquals(50, boxes.getIds(2)[90]);
+        boxes.remove(50);
+        assertEquals(0, boxes.getBox(50));
+        assertEquals(9, boxes.getCount(1));
+        for (int box = 2; box <= LeitnerBoxes.BOX_COUNT + 1; box++) {
+            boxes.promote(1);
+        }
+        assertEquals(LeitnerBoxes.BOX_COUNT, boxes.getBox(1));
+        assertTrue(LeitnerBoxes.isDue(1, 7));
+        assertFalse(LeitnerBoxes.isDue(2, 7));
+        assertTrue(LeitnerBoxes.isDue(3, 4));
+        assertFalse(LeitnerBoxes.isDue(5, 8));
+    }
+
+    @Test
+    void logQuizAnswer_anyQuizMode_movesLeitnerBoxesAndLogsAttempt() throws FlashCLIArgumentException {
+        Flashcard flashcard = deck.addFlashcard("Question", "Answer");
+
+        deck.logQuizAnswer(flashcard, true, 1_000_000, "Answer");
+        deck.logQuizAnswer(flashcard, true, 1_000_000, "Answer");
+        assertEquals(3, deck.getLeitnerBoxes().getBox(flashcard.getId()));
+        deck.logQuizAnswer(flashcard, false, 1_000_000, "");
+        assertEquals(1, deck.getLeitnerBoxes().getBox(flashcard.getId()));
+        assertEquals(3, deck.getAttemptHistory().getAttempts(flashcard.getId()));
+    }
+
+    @Test
+    void quizSession_timeLimits_deadlinesAndSkippedQuestions() throws EmptyListException, FlashCLIArgumentException {
+        for (int i = 0; i < 4; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+        }
+        QuizSession session = deck.newQuizSession(true, 2);
+        assertFalse(session.isTimed());
+        session.start();
+        assertEquals(Long.MAX_VALUE, session.getAnswerDeadline(System.nanoTime()));
+        assertFalse(session.isOutOfTime(Long.MAX_VALUE));
+
+        session.setTimeLimits(2_000, 5_000);
+        session.start();
+        long quizEnd = session.getAnswerDeadline(Long.MAX_VALUE / 2);
+        assertTrue(session.isTimed());
+        assertEquals(quizEnd - 3_000, session.getAnswerDeadline(quizEnd - 5_000));
+        assertEquals(quizEnd, session.getAnswerDeadline(quizEnd - 1_000));
+        assertFalse(session.isOutOfTime(quizEnd - 1));
+        assertTrue(session.isOutOfTime(quizEnd));
+
+        session.recordAnswer("Answer", true, 1_000);
+        assertEquals(3, session.skipRemaining("late"));
+        assertFalse(session.hasNextQuestion());
+        assertEquals(3, session.getIncorrectCount());
+        assertEquals("late", session.getIncorrectAnswerAt(3));
+        assertEquals(1, session.getSlowestQuestions(5).length);
+        assertEquals(1, session.getLatencyHistogram().getCount());
+    }
+
+    @Test
+    void isCorrectAnswer_spacingCaseAndTypos_accepted() {
+        Flashcard flashcard = deck.addFlashcard("What is Java?", "A programming language.");
+        Flashcard shortFlashcard = deck.addFlashcard("Which language?", "Java");
+        String longAnswer = "A class can implement many interfaces but can only extend one other class in Java";
+        Flashcard longFlashcard = deck.addFlashcard("Inheritance?", longAnswer);
+
+        assertTrue(deck.isCorrectAnswer(flashcard, "  a   PROGRAMMING language "));
+        assertTrue(deck.isCorrectAnswer(flashcard, "A programing languag"));
+        assertFalse(deck.isCorrectAnswer(flashcard, "language, programming, a"));
+        assertTrue(deck.isCorrectAnswer(longFlashcard, longAnswer.replace("extend", "extnd")));
+        assertFalse(deck.isCorrectAnswer(longFlashcard, longAnswer.replace("many interfaces", "one interface")));
+        assertFalse(deck.isCorrectAnswer(shortFlashcard, "Jav"));
+        assertFalse(deck.isCorrectAnswer(flashcard, "dummy response"));
+        assertFalse(deck.isCorrectAnswer(flashcard, "A programming"));
+
+        deck.setAnswerMatcher(AnswerMatcher.ANY_WORD_ORDER);
+        assertTrue(deck.isCorrectAnswer(flashcard, "language, programming, a"));
+
+        deck.setAnswerMatcher(AnswerMatcher.EXACT);
+        assertTrue(deck.isCorrectAnswer(flashcard, "a programming language"));
+        assertFalse(deck.isCorrectAnswer(flashcard, "A programing language"));
+    }
+
+    @Test
+    void isCorrectAnswer_signOperatorOrWordOrderChanged_rejected() {
+        String[][] answersAndWrongReplies = {
+            {"1", "-1"}, {"x > y", "x < y"}, {"a - b", "b - a"}, {"i++", "i--"}, {"C++", "C"},
+            {"dog bites man", "man bites dog"},
+        };
+        for (String[] answerAndReply : answersAndWrongReplies) {
+            Flashcard flashcard = deck.addFlashcard("Question?", answerAndReply[0]);
+            assertFalse(deck.isCorrectAnswer(flashcard, answerAndReply[1]), answerAndReply[1]);
+        }
+
+        deck.setAnswerMatcher(AnswerMatcher.ANY_WORD_ORDER);
+        for (String[] answerAndReply : answersAndWrongReplies) {
+            Flashcard flashcard = deck.addFlashcard("Question?", answerAndReply[0]);
+            boolean isOnlyReordered = answerAndReply[1].equals("b - a") || answerAndReply[1].equals("man bites dog");
+            assertEquals(isOnlyReordered, deck.isCorrectAnswer(flashcard, answerAndReply[1]), answerAndReply[1]);
+        }
+    }
+
+    @Test
+    void latencyHistogram_percentiles_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+
+        long[] expectedMillis = {500, 900, 990, 1000};
+        double[] percentiles = {50, 90, 99, 100};
+        for (int i = 0; i < percentiles.length; i++) {
+            long expected = expectedMillis[i] * 1_000_000;
+            long actual = histogram.getPercentile(percentiles[i]);
+            assertTrue(actual >= expected && actual <= expected + expected / 16, "p" + percentiles[i]);
+        }
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+        assertEquals(1001, histogram.getCount());
+    }
+
+    @Test
+    void quizSession_slowestQuestions_slowestFirst() throws EmptyListException, FlashCLIArgumentException {
+        long[] latencies = {5, 1, 9, 3, 9, 7};
+        for (int i = 0; i < latencies.length; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+        }
+        QuizSession session = deck.newQuizSession(true, 3);
+        for (long latency : latencies) {
+            session.recordAnswer("Answer", true, latency);
+        }
+
+        int[] slowest = session.getSlowestQuestions(3);
+        assertEquals(3, slowest.length);
+        assertEquals(9, session.getLatencyAt(slowest[0]));
+        assertEquals(9, session.getLatencyAt(slowest[1]));
+        assertEquals(7, session.getLatencyAt(slowest[2]));
+        assertEquals(6, session.getSlowestQuestions(10).length);
+        assertEquals(1, session.getLatencyAt(session.getSlowestQuestions(10)[5]));
+    }
+
+    @Test
+    void recordAttempt_manyAttempts_statisticsKeptIncrementally() throws FlashCLIArgumentException {
+        deck.addFlashcard("What is Java?", "A programming language.");
+        deck.addFlashcard("What is the JVM?", "A virtual machine.");
+        for (int i = 0; i < 1000; i++) {
+            deck.recordAttempt(i % 2, i + 1, i % 2 == 0 || i >= 990, 1_000_000, "answer " + i);
+        }
+
+        AttemptHistory history = deck.getAttemptHistory();
+        assertEquals(1000, history.size());
+        assertEquals("answer 999", history.getAnswer(999));
+        assertTrue(history.isCorrect(998));
+        assertFalse(history.isCorrect(989));
+        assertEquals(1, history.getLatencyMillis(0));
+        assertEquals(500, history.getAttempts(1));
+        assertEquals(5, history.getCorrectCount(1));
+        assertEquals(5, history.getStreak(1));
+        assertEquals(500, history.getStreak(0));
+        assertEquals(10, history.getStreak());
+        assertEquals(1000, history.getLastSeen());
+
+        AttemptHistory frozen = history.freeze();
+        deck.recordAttempt(0, 1001, false, 0, "late");
+        assertEquals(1000, frozen.size());
+        assertEquals(0, history.getStreak(0));
+        String expectedWithoutTime = String.format(STATS_FLASHCARD, 2, 500, 1.0, 5, "");
+        assertTrue(deck.showFlashcardStatistics(2).startsWith(
+                expectedWithoutTime.substring(0, expectedWithoutTime.length() - 1)));
+    }
 }
@@ -0,0 +1,51 @@
+package parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import exceptions.FlashCLIArgumentException;
+
+public class ArgumentLexerTest {
+
+    @Test
+    void lex_flagsInsideWords_keptAsText() throws FlashCLIArgumentException {
+        ArgumentLexer lexer = new ArgumentLexer("2 /q What is and/a or /answer? /a  Both. ", "q", "a", "c");
+
+        assertEquals("2", lexer.getPreamble().toString());
+        assertEquals("What is and/a or /answer?", lexer.get("q").toString());
+        assertEquals("Both.", lexer.get("a").toString());
+        assertEquals(2, lexer.indexOf("q"));
+        assertNull(lexer.get("c"));
+    }
+
+    @Test
+    void lex_escapedFlag_unescapedInValue() throws FlashCLIArgumentException {
+        ArgumentLexer lexer = new ArgumentLexer("/q What does \\/a mean in add? /a The answer \\n flag", "q", "a");
+
+        assertEquals("What does /a mean in add?", lexer.get("q").toString());
+        assertEquals("The answer \\n flag", lexer.get("a").toString());
+    }
+
+    @Test
+    void lex_repeatedFlag_allValuesOrRejected() {
+        ArgumentLexer lexer = new ArgumentLexer("/c first /c second /c", "c");
+
+        assertEquals(List.of("first", "second", ""), lexer.getAll("c").stream().map(CharSequence::toString).toList());
+        FlashCLIArgumentException e = assertThrows(FlashCLIArgumentException.class, () -> lexer.get("c"));
+        assertEquals("/c can only be given once. Write \\/c to use it as text.", e.getMessage());
+    }
+
+    @Test
+    void lex_wordFlags_matchedWholeInAnyOrder() throws FlashCLIArgumentException {
+        ArgumentLexer lexer = new ArgumentLexer("/o /data/out/all.bin /all", "o", "all");
+
+        assertEquals("/data/out/all.bin", lexer.get("o").toString());
+        assertEquals("", lexer.get("all").toString());
+        assertEquals("", lexer.getPreamble().toString());
+    }
+}
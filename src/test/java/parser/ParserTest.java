@@ -1,5 +1,6 @@
 package parser;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -8,10 +9,16 @@ import org.junit.jupiter.api.Test;
 
 import command.Command;
 import command.CommandCreate;
+import command.CommandInsertCode;
+import command.CommandQuizFlashcards;
+import command.CommandViewDecks;
+import command.CommandViewQuestion;
 import deck.Deck;
 import deck.DeckManager;
 import exceptions.FlashCLIArgumentException;
 
+import static constants.ErrorMessages.NO_DECK_ERROR;
+
 public class ParserTest {
     private Deck deck;
 
@@ -36,6 +43,39 @@ public class ParserTest {
         });
     }
 
+    @Test
+    void parseInput_abbreviatedCommands_success() throws FlashCLIArgumentException {
+        parseAndAssertCommandType("vi_q 1", CommandViewQuestion.class);
+        parseAndAssertCommandType("q", CommandQuizFlashcards.class);
+        parseAndAssertCommandType("insert 1 /c int x;", CommandInsertCode.class);
+        parseAndAssertCommandType("decks", CommandViewDecks.class);
+    }
+
+    @Test
+    void parseInput_ambiguousOrMistypedCommand_suggestsCommands() {
+        FlashCLIArgumentException ambiguous = assertThrows(FlashCLIArgumentException.class,
+                () -> Parser.parseInput("view 1"));
+        assertEquals("Unknown command \"view\". Did you mean view_qn or view_ans or view_res?",
+                ambiguous.getMessage());
+
+        FlashCLIArgumentException mistyped = assertThrows(FlashCLIArgumentException.class,
+                () -> Parser.parseInput("lsit"));
+        assertEquals("Unknown command \"lsit\". Did you mean list?", mistyped.getMessage());
+    }
+
+    @Test
+    void parseInput_noDeckSelected_onlyDeckCommandsRejected() throws FlashCLIArgumentException {
+        DeckManager.currentDeck = null;
+        try {
+            FlashCLIArgumentException e = assertThrows(FlashCLIArgumentException.class,
+                    () -> Parser.parseInput("ad /q Q /a A"));
+            assertEquals(NO_DECK_ERROR, e.getMessage());
+            parseAndAssertCommandType("decks", CommandViewDecks.class);
+        } finally {
+            DeckManager.currentDeck = deck;
+        }
+    }
+
     private <T extends Command> void parseAndAssertCommandType(String input, Class<T> expectedCommandClass)
             throws FlashCLIArgumentException {
         final Command result = Parser.parseInput(input);
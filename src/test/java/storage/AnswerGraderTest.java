@@ -0,0 +1,69 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import deck.Deck;
+import exceptions.FlashCLIArgumentException;
+
+public class AnswerGraderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void gradeAnswers_manyLearners_scoresEachLearnerInFirstSeenOrder() throws IOException, FlashCLIArgumentException {
+        Deck deck = new Deck("Graded");
+        deck.createFlashcard("/q What is Java? /a A programming language");
+        deck.createFlashcard("/q 1 + 1 /a 2");
+
+        Path answers = tempDir.resolve("answers.csv");
+        StringBuilder rows = new StringBuilder("learner,card,answer\n");
+        for (int row = 0; row < 30000; row++) {
+            int learner = row % 1000;
+            rows.append("learner").append(learner).append(",2,").append(learner % 2 == 0 ? "2" : "3").append('\n');
+        }
+        rows.append("\"Smith, Jo\",1,a programing language\n");
+        rows.append("learner0,3,out of range\n");
+        rows.append("learner0,one,not a number\n");
+        Files.writeString(answers, rows, StandardCharsets.UTF_8);
+
+        deck.gradeAnswers(answers + " /o " + tempDir.resolve("scores.csv"));
+
+        List<String> scores = Files.readAllLines(tempDir.resolve("scores.csv"), StandardCharsets.UTF_8);
+        assertEquals(1002, scores.size());
+        assertEquals("learner,correct,answered,score", scores.get(0));
+        assertEquals("learner0,30,30,100.0", scores.get(1));
+        assertEquals("learner1,0,30,0.0", scores.get(2));
+        assertEquals("\"Smith, Jo\",1,1,100.0", scores.get(1001));
+
+        deck.gradeAnswers(answers.toString());
+        assertEquals(scores, Files.readAllLines(tempDir.resolve("answers-scores.csv"), StandardCharsets.UTF_8));
+        assertThrows(FlashCLIArgumentException.class,
+                () -> deck.gradeAnswers(tempDir.resolve("missing.csv").toString()));
+        assertThrows(FlashCLIArgumentException.class, () -> deck.gradeAnswers(answers + " /o"));
+    }
+
+    @Test
+    void gradeAnswers_pathsContainingFlagText_notSplit() throws IOException, FlashCLIArgumentException {
+        Deck deck = new Deck("Graded");
+        deck.createFlashcard("/q 1 + 1 /a 2");
+        Path outputDirectory = Files.createDirectory(tempDir.resolve("out"));
+        Path answers = outputDirectory.resolve("answers.csv");
+        Files.writeString(answers, "learner,card,answer\nlearner0,1,2\n", StandardCharsets.UTF_8);
+
+        deck.gradeAnswers(answers + " /o " + outputDirectory.resolve("o.csv"));
+
+        assertEquals(List.of("learner,correct,answered,score", "learner0,1,1,100.0"),
+                Files.readAllLines(outputDirectory.resolve("o.csv"), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package storage;
+
+import static constants.SuccessMessages.LIST_SUCCESS;
+import static constants.SuccessMessages.VIEW_QUESTION_SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import deck.Deck;
+import deck.Flashcard;
+import exceptions.EmptyListException;
+
+public class DeckFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DeckFile writeSampleDeck() throws IOException {
+        List<Flashcard> flashcards = new ArrayList<>();
+        flashcards.add(new Flashcard(0, "What is Java?", "A programming language."));
+        Flashcard withCode = new Flashcard(1, "What is a lambda?", "An anonymous function.");
+        withCode.setCodeSnippet("x -> x * 2");
+        flashcards.add(withCode);
+        flashcards.add(new Flashcard(2, "Ünïcödé?", "Yes ✓"));
+
+        Path path = tempDir.resolve("sample" + DeckFile.EXTENSION);
+        DeckFile.write(path, flashcards);
+        return DeckFile.open(path);
+    }
+
+    @Test
+    void open_writtenDeck_randomAccessToEveryField() throws IOException {
+        DeckFile deckFile = writeSampleDeck();
+
+        assertEquals(3, deckFile.size());
+        assertEquals("What is a lambda?", deckFile.getQuestion(1));
+        assertEquals("An anonymous function.", deckFile.getAnswer(1));
+        assertEquals("x -> x * 2", deckFile.getCodeSnippet(1));
+        assertEquals("", deckFile.getCodeSnippet(0));
+        assertEquals("Yes ✓", deckFile.getAnswer(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> deckFile.getQuestion(3));
+    }
+
+    @Test
+    void deck_backedByDeckFile_readsWithoutMaterializing() throws IOException, EmptyListException {
+        Deck deck = new Deck("mapped", writeSampleDeck());
+
+        assertEquals(3, deck.getFlashcardCount());
+        assertFalse(deck.hasUnsavedChanges());
+        assertEquals(String.format(VIEW_QUESTION_SUCCESS, 2, "What is a lambda?", "x -> x * 2"),
+                deck.viewFlashcardQuestion(2));
+        assertEquals(String.format(LIST_SUCCESS, "1. What is Java?\n2. What is a lambda?\n3. Ünïcödé?"),
+                deck.listFlashcards());
+
+        deck.removeFlashcard(1);
+        assertTrue(deck.hasUnsavedChanges());
+        assertEquals(2, deck.getFlashcards().size());
+    }
+
+    @Test
+    void write_afterDeletes_persistsIdsAndNextId() throws IOException {
+        Deck deck = new Deck("ids");
+        for (int i = 0; i < 4; i++) {
+            deck.addFlashcard("Question " + i, "Answer " + i);
+        }
+        deck.removeFlashcard(4);
+        deck.removeFlashcard(1);
+
+        Path path = tempDir.resolve("ids" + DeckFile.EXTENSION);
+        DeckFile.write(path, deck.getFlashcards(), deck.getNextId());
+        DeckFile deckFile = DeckFile.open(path);
+        assertEquals(2, deckFile.size());
+        assertEquals(1, deckFile.getId(0));
+        assertEquals("Question 2", deckFile.getQuestion(1));
+        assertEquals(4, deckFile.getNextId());
+
+        Deck reloaded = new Deck("ids", deckFile);
+        assertEquals(4, reloaded.addFlashcard("Question 4", "Answer 4").getId());
+        assertEquals("Question 1", reloaded.getFlashcardById(1).getQuestion());
+    }
+
+    @Test
+    void write_reviewedFlashcards_persistsSchedule() throws IOException {
+        Deck deck = new Deck("review");
+        deck.addFlashcard("Question 0", "Answer 0");
+        deck.addFlashcard("Question 1", "Answer 1");
+        deck.reviewFlashcard(1, 4, 1000);
+        deck.reviewFlashcard(1, 4, 2000);
+
+        Path path = tempDir.resolve("review" + DeckFile.EXTENSION);
+        DeckFile.write(path, deck.getFlashcards(), deck.getNextId());
+        Deck reloaded = new Deck("review", DeckFile.open(path));
+        Flashcard reviewed = reloaded.getFlashcardById(1);
+        assertEquals(2, reviewed.getRepetitions());
+        assertEquals(6, reviewed.getIntervalDays());
+        assertEquals(deck.getFlashcardById(1).getEasePermille(), reviewed.getEasePermille());
+        assertEquals(deck.getFlashcardById(1).getDueTime(), reviewed.getDueTime());
+        assertEquals(0, reloaded.getFlashcardById(0).getRepetitions());
+        assertEquals(0, reloaded.getFlashcardById(0).getDueTime());
+    }
+}
@@ -0,0 +1,104 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import constants.ErrorMessages;
+import deck.Deck;
+import exceptions.FlashCLIArgumentException;
+
+public class DeckImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_quotedCsv_parsesFieldsAndSkipsInvalidRows() throws IOException {
+        Path csv = tempDir.resolve("cards.csv");
+        Files.writeString(csv, "question,answer,code\n"
+                + "What is Java?,A language.\n"
+                + "\"Comma, inside\",\"Say \"\"hi\"\"\",\"int x;\nint y;\"\n"
+                + "No answer,\n", StandardCharsets.UTF_8);
+
+        List<DeckImporter.Row> rows = new ArrayList<>();
+        int skippedRows = DeckImporter.read(csv, rows::addAll);
+
+        assertEquals(1, skippedRows);
+        assertEquals(2, rows.size());
+        assertEquals("Comma, inside", rows.get(1).getQuestion());
+        assertEquals("Say \"hi\"", rows.get(1).getAnswer());
+        assertEquals("int x;\nint y;", rows.get(1).getCodeSnippet());
+    }
+
+    @Test
+    void read_firstRowOnlyStartingWithQuestion_keptAsFlashcard() throws IOException {
+        Path csv = tempDir.resolve("numbered.csv");
+        Files.writeString(csv, "Question 1: what is a JVM?,A virtual machine.\n", StandardCharsets.UTF_8);
+        Path tsv = tempDir.resolve("header.tsv");
+        Files.writeString(tsv, " Question \tAnswer\nWhat is Java?\tA language.\n", StandardCharsets.UTF_8);
+
+        List<DeckImporter.Row> rows = new ArrayList<>();
+        assertEquals(0, DeckImporter.read(csv, rows::addAll));
+        assertEquals(0, DeckImporter.read(tsv, rows::addAll));
+
+        assertEquals(2, rows.size());
+        assertEquals("Question 1: what is a JVM?", rows.get(0).getQuestion());
+        assertEquals("What is Java?", rows.get(1).getQuestion());
+    }
+
+    @Test
+    void importFlashcards_unreadableAfterFirstChunks_reportsFlashcardsKept() throws IOException {
+        Path tsv = tempDir.resolve("broken.tsv");
+        int rowCount = 4096 * (2 * ForkJoinPool.getCommonPoolParallelism() + 4);
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            rows.append("Q").append(i).append('\t').append("A").append(i).append('\n');
+        }
+        byte[] text = rows.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] broken = Arrays.copyOf(text, text.length + 1);
+        broken[text.length] = (byte) 0xFF;
+        Files.write(tsv, broken);
+
+        Deck deck = new Deck("Broken");
+        FlashCLIArgumentException e = assertThrows(FlashCLIArgumentException.class,
+                () -> deck.importFlashcards(tsv.toString()));
+
+        int importedCount = deck.getFlashcardCount();
+        assertTrue(importedCount > 0);
+        assertEquals(String.format(ErrorMessages.IMPORT_PARTIAL_ERROR, tsv, importedCount), e.getMessage());
+    }
+
+    @Test
+    void importFlashcards_largeTsv_keepsFileOrder() throws IOException, FlashCLIArgumentException {
+        Path tsv = tempDir.resolve("cards.tsv");
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            rows.append("Q").append(i).append('\t').append("A,").append(i).append('\n');
+        }
+        Files.writeString(tsv, rows, StandardCharsets.UTF_8);
+
+        Deck deck = new Deck("Bulk");
+        deck.createFlashcard("/q Existing /a Card");
+        deck.importFlashcards(tsv.toString());
+
+        assertEquals(20001, deck.getFlashcardCount());
+        assertEquals("Q12345", deck.getFlashcards().get(12346).getQuestion());
+        assertEquals("A,19999", deck.getFlashcards().get(20000).getAnswer());
+        assertEquals(20000, deck.getFlashcards().get(20000).getId());
+        assertThrows(FlashCLIArgumentException.class,
+                () -> deck.importFlashcards(tempDir.resolve("missing.csv").toString()));
+    }
+}
@@ -0,0 +1,87 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replay_committedRecords_restoredInOrder() throws IOException {
+        Path path = tempDir.resolve("test.journal");
+        try (Journal journal = new Journal(path, 2, 0)) {
+            journal.append(JournalRecord.createDeck("Java"));
+            journal.append(JournalRecord.createFlashcard("Java", "What is Java?", "A programming language."));
+            journal.commit();
+            journal.append(JournalRecord.editFlashcard("Java", 1, "What is JVM?", "A virtual machine."));
+            journal.append(JournalRecord.insertCode("Java", 1, "int x = 1;"));
+            journal.append(JournalRecord.deleteFlashcard("Java", 1));
+            journal.append(JournalRecord.renameDeck("Java", "JVM"));
+        }
+
+        List<JournalRecord> records = Journal.replay(path);
+        assertEquals(6, records.size());
+        assertEquals(JournalRecord.Type.CREATE_FLASHCARD, records.get(1).getType());
+        assertEquals("A programming language.", records.get(1).getAnswer());
+        assertEquals(1, records.get(2).getPosition());
+        assertEquals("int x = 1;", records.get(3).getCodeSnippet());
+        assertEquals("JVM", records.get(5).getNewDeckName());
+    }
+
+    @Test
+    void replay_progressRecords_readBackByName() throws IOException {
+        Path path = tempDir.resolve("progress.journal");
+        try (Journal journal = new Journal(path, 4, 0)) {
+            journal.append(JournalRecord.scheduleFlashcard("Java", 7, 3, 15, 2600, 123_456L));
+            journal.append(JournalRecord.recordAttempt("Java", 7, 1000, true, 250, "A language"));
+            journal.append(JournalRecord.moveToBox("Java", 7, 4));
+            journal.append(JournalRecord.startBoxSession("Java", 12));
+        }
+
+        List<JournalRecord> records = Journal.replay(path);
+        assertEquals(7, records.get(0).getFlashcardId());
+        assertEquals(3, records.get(0).getRepetitions());
+        assertEquals(15, records.get(0).getIntervalDays());
+        assertEquals(2600, records.get(0).getEasePermille());
+        assertEquals(123_456L, records.get(0).getDueTime());
+        assertEquals(1000, records.get(1).getTime());
+        assertTrue(records.get(1).isCorrect());
+        assertEquals(250, records.get(1).getLatencyMillis());
+        assertEquals("A language", records.get(1).getGivenAnswer());
+        assertEquals(7, records.get(2).getFlashcardId());
+        assertEquals(4, records.get(2).getBox());
+        assertEquals(12, records.get(3).getSession());
+    }
+
+    @Test
+    void replay_tornTail_discardsPartialRecord() throws IOException {
+        Path path = tempDir.resolve("torn.journal");
+        try (Journal journal = new Journal(path, 1, 0)) {
+            journal.append(JournalRecord.createDeck("Java"));
+            journal.append(JournalRecord.createDeck("Python"));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        List<JournalRecord> records = Journal.replay(path);
+        assertEquals(1, records.size());
+        assertEquals("Java", records.get(0).getDeckName());
+
+        try (Journal journal = new Journal(path, 1, 0)) {
+            journal.append(JournalRecord.createDeck("Ruby"));
+        }
+        assertEquals(2, Journal.replay(path).size());
+    }
+}
@@ -0,0 +1,213 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import constants.ErrorMessages;
+import deck.AttemptHistory;
+import deck.Deck;
+import deck.DeckManager;
+import deck.Flashcard;
+import deck.LeitnerBoxes;
+import exceptions.FlashCLIArgumentException;
+
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        DeckManager.decks.clear();
+        DeckManager.currentDeck = null;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Storage.close();
+        Storage.setCompactionThreshold(Storage.DEFAULT_COMPACTION_THRESHOLD_BYTES);
+        DeckManager.decks.clear();
+        DeckManager.currentDeck = null;
+    }
+
+    @Test
+    void init_afterCompactionAndMoreChanges_restoresAllDecks() throws IOException, FlashCLIArgumentException {
+        Storage.init(tempDir);
+        DeckManager.createDeck("Java");
+        DeckManager.switchDeck("Java");
+        DeckManager.currentDeck.createFlashcard("/q What is Java? /a A programming language.");
+        Storage.commit();
+
+        assertTrue(Storage.startCompaction());
+        DeckManager.currentDeck.createFlashcard("/q What is the JVM? /a A virtual machine.");
+        DeckManager.createDeck("Python");
+        Storage.commit();
+        Storage.awaitCompaction();
+        assertTrue(DeckManager.decks.get("Python").hasUnsavedChanges());
+        Storage.close();
+
+        DeckManager.decks.clear();
+        DeckManager.currentDeck = null;
+        assertEquals(0, Storage.init(tempDir));
+        assertEquals(2, DeckManager.decks.size());
+        Deck java = DeckManager.decks.get("Java");
+        assertEquals(2, java.getFlashcardCount());
+        assertEquals("What is the JVM?", java.getFlashcards().get(1).getQuestion());
+    }
+
+    @Test
+    void commit_journalOverThreshold_compactsInBackground() throws IOException, FlashCLIArgumentException {
+        Storage.init(tempDir);
+        Storage.setCompactionThreshold(1);
+        DeckManager.createDeck("Java");
+        Storage.commit();
+        Storage.awaitCompaction();
+
+        assertTrue(Files.exists(tempDir.resolve(Storage.CURRENT_FILE_NAME)));
+        assertFalse(DeckManager.decks.get("Java").hasUnsavedChanges());
+    }
+
+    @Test
+    void init_attemptsAcrossCompactionsAndRestarts_restoresHistory() throws IOException, FlashCLIArgumentException {
+        Storage.init(tempDir);
+        DeckManager.createDeck("Java");
+        Deck java = DeckManager.decks.get("Java");
+        java.createFlashcard("/q What is Java? /a A programming language.");
+        java.createFlashcard("/q What is the JVM? /a A virtual machine.");
+        recordAttempt(java, 0, 1000, true, "A programming language");
+        recordAttempt(java, 1, 2000, false, "wrong");
+        Storage.commit();
+        assertTrue(Storage.startCompaction());
+        Storage.awaitCompaction();
+        recordAttempt(java, 0, 3000, true, "a programming language.");
+        Storage.close();
+
+        DeckManager.decks.clear();
+        Storage.init(tempDir);
+        DeckManager.decks.get("Java").createFlashcard("/q What is a JAR? /a An archive.");
+        Storage.close();
+
+        DeckManager.decks.clear();
+        Storage.init(tempDir);
+        AttemptHistory history = DeckManager.decks.get("Java").getAttemptHistory();
+        assertEquals(3, history.size());
+        assertEquals("wrong", history.getAnswer(1));
+        assertFalse(history.isCorrect(1));
+        assertEquals(3000, history.getTime(2));
+        assertEquals(2, history.getAttempts(0));
+        assertEquals(2, history.getStreak(0));
+        assertEquals(0, history.getStreak(1));
+        assertEquals(2, history.getCorrectCount());
+        assertEquals(3000, history.getLastSeen());
+    }
+
+    @Test
+    void init_boxMovesAcrossCompactionsAndRestarts_restoresBoxes() throws IOException, FlashCLIArgumentException {
+        Storage.init(tempDir);
+        DeckManager.createDeck("Java");
+        Deck java = DeckManager.decks.get("Java");
+        for (int i = 0; i < 4; i++) {
+            java.createFlashcard("/q Question " + i + " /a Answer " + i);
+        }
+        moveToBox(java, 2, 3);
+        moveToBox(java, 0, 2);
+        java.setBoxSession(4);
+        Storage.record(JournalRecord.startBoxSession("Java", 4));
+        Storage.commit();
+        assertTrue(Storage.startCompaction());
+        Storage.awaitCompaction();
+        moveToBox(java, 1, 2);
+        Storage.close();
+
+        DeckManager.decks.clear();
+        Storage.init(tempDir);
+        DeckManager.switchDeck("Java");
+        DeckManager.currentDeck.deleteFlashcard(1);
+        Storage.close();
+
+        DeckManager.decks.clear();
+        Storage.init(tempDir);
+        LeitnerBoxes boxes = DeckManager.decks.get("Java").getLeitnerBoxes();
+        assertEquals(4, boxes.getSession());
+        assertArrayEquals(new int[] {3}, boxes.getIds(1));
+        assertArrayEquals(new int[] {1}, boxes.getIds(2));
+        assertArrayEquals(new int[] {2}, boxes.getIds(3));
+        assertEquals(0, boxes.getBox(0));
+    }
+
+    @Test
+    void init_reviewAfterSnapshotCapture_appliedOnce() throws IOException, FlashCLIArgumentException {
+        Storage.init(tempDir);
+        DeckManager.createDeck("Java");
+        Deck java = DeckManager.decks.get("Java");
+        java.createFlashcard("/q What is Java? /a A programming language.");
+        Storage.commit();
+        Snapshot snapshot = Snapshot.capture(DeckManager.decks.values());
+        assertTrue(Storage.startCompaction());
+        Flashcard reviewed = java.reviewFlashcard(0, 4, 1000);
+        Storage.record(JournalRecord.scheduleFlashcard("Java", 0, reviewed.getRepetitions(),
+                reviewed.getIntervalDays(), reviewed.getEasePermille(), reviewed.getDueTime()));
+        Storage.commit();
+
+        Path snapshotDirectory = tempDir.resolve("captured");
+        snapshot.write(snapshotDirectory);
+        assertEquals(0, Snapshot.load(snapshotDirectory).get(0).getFlashcards().get(0).getRepetitions());
+
+        Storage.awaitCompaction();
+        Storage.close();
+        DeckManager.decks.clear();
+        Storage.init(tempDir);
+        Flashcard restored = DeckManager.decks.get("Java").getFlashcards().get(0);
+        assertEquals(1, restored.getRepetitions());
+        assertEquals(reviewed.getDueTime(), restored.getDueTime());
+    }
+
+    @Test
+    void init_damagedHistoryFile_skipsAttemptsAndReportsError() throws IOException, FlashCLIArgumentException {
+        Storage.init(tempDir);
+        DeckManager.createDeck("Java");
+        Deck java = DeckManager.decks.get("Java");
+        java.createFlashcard("/q What is Java? /a A programming language.");
+        recordAttempt(java, 0, 1000, true, "A programming language");
+        Storage.close();
+
+        int generation = Integer.parseInt(Files.readString(tempDir.resolve(Storage.CURRENT_FILE_NAME)).trim());
+        Path deckPath = tempDir.resolve(String.format("snapshot-%06d", generation)).resolve("0" + DeckFile.EXTENSION);
+        Files.write(HistoryFile.pathFor(deckPath), new byte[] {1, 2, 3});
+        Path journalPath = tempDir.resolve(String.format("journal-%06d.log", generation));
+        try (Journal journal = new Journal(journalPath, Journal.DEFAULT_SYNC_BATCH_SIZE,
+                Journal.DEFAULT_SYNC_INTERVAL_MILLIS)) {
+            journal.append(JournalRecord.recordAttempt("Java", 0, 2000, false, 0, "wrong"));
+            journal.commit();
+        }
+
+        DeckManager.decks.clear();
+        assertEquals(1, Storage.init(tempDir));
+        FlashCLIArgumentException error = assertThrows(FlashCLIArgumentException.class,
+                () -> DeckManager.decks.get("Java").showStatistics());
+        assertEquals(String.format(ErrorMessages.PROGRESS_LOAD_ERROR, "Java"), error.getMessage());
+    }
+
+    private static void moveToBox(Deck deck, int id, int box) throws FlashCLIArgumentException {
+        deck.moveToBox(id, box);
+        Storage.record(JournalRecord.moveToBox(deck.getName(), id, box));
+    }
+
+    private static void recordAttempt(Deck deck, int id, long time, boolean isCorrect, String answer)
+            throws FlashCLIArgumentException {
+        deck.recordAttempt(id, time, isCorrect, 0, answer);
+        Storage.record(JournalRecord.recordAttempt(deck.getName(), id, time, isCorrect, 0, answer));
+    }
+}
@@ -0,0 +1,51 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ChannelLineReaderTest {
+
+    @Test
+    void readLine_mixedLineEndings_matchesBufferedReader() throws IOException {
+        List<String> lines = readAll("add /q Q1 /a A1\nlist\r\n\r\nquiz\rexit", 1 << 16);
+        assertEquals(List.of("add /q Q1 /a A1", "list", "", "quiz", "exit"), lines);
+    }
+
+    @Test
+    void readLine_linesLongerThanBuffer_readWhole() throws IOException {
+        String longLine = "add /q " + "é".repeat(40) + " /a " + "ü".repeat(40);
+        // a 7-char buffer splits lines, multi-byte chars and the \r\n pair across refills
+        List<String> lines = readAll(longLine + "\r\n" + longLine + "\r\nlist\n", 7);
+        assertEquals(List.of(longLine, longLine, "list"), lines);
+    }
+
+    @Test
+    void readLine_emptyInput_null() throws IOException {
+        ChannelLineReader reader = newReader("", 16);
+        assertNull(reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    private static List<String> readAll(String input, int bufferSize) throws IOException {
+        ChannelLineReader reader = newReader(input, bufferSize);
+        List<String> lines = new ArrayList<>();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static ChannelLineReader newReader(String input, int bufferSize) {
+        return new ChannelLineReader(Channels.newChannel(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8, bufferSize);
+    }
+}
@@ -12,7 +12,13 @@ for /f "tokens=*" %%a in (
     set jarloc=%%a
 )
 
-java -jar %jarloc% < ..\..\text-ui-test\input.txt > ..\..\text-ui-test\ACTUAL.TXT
+rem start from an empty data directory so that decks saved by earlier runs do not change the output
+set datadir=%TEMP%\flashcli-text-ui-test-%RANDOM%
+if exist "%datadir%" rmdir /s /q "%datadir%"
+
+java -Dflashcli.dataDirectory="%datadir%" -jar %jarloc% < ..\..\text-ui-test\input.txt > ..\..\text-ui-test\ACTUAL.TXT
+
+rmdir /s /q "%datadir%"
 
 cd ..\..\text-ui-test
 